@@ -0,0 +1,52 @@
+package eu.h2020.symbiote.administration.benchmarks;
+
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-JVM AMQP 0-9-1 broker (Qpid broker-j with an in-memory virtual host), standing in for RabbitMQ in the
+ * benchmarks. It accepts the guest/guest credentials on a free local port.
+ */
+public class EmbeddedBroker {
+
+    private static final String INITIAL_CONFIGURATION = "embedded-broker.json";
+
+    private final SystemLauncher launcher = new SystemLauncher();
+    private int port;
+
+    public void start() throws Exception {
+        this.port = freePort();
+
+        Map<String, String> context = new HashMap<>();
+        context.put("qpid.amqp_port", String.valueOf(this.port));
+        context.put("qpid.work_dir", System.getProperty("java.io.tmpdir") + "/administration-broker-" + this.port);
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SystemConfig.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION,
+                EmbeddedBroker.class.getClassLoader().getResource(INITIAL_CONFIGURATION).toExternalForm());
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(SystemConfig.CONTEXT, context);
+
+        this.launcher.startup(attributes);
+    }
+
+    public void stop() {
+        this.launcher.shutdown();
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
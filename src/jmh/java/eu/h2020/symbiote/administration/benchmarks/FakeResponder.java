@@ -0,0 +1,100 @@
+package eu.h2020.symbiote.administration.benchmarks;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.DefaultConsumer;
+import com.rabbitmq.client.Envelope;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for a component answering RPC requests (e.g. the Registry or the AAM): every request to the routing key
+ * is answered after a fixed latency with a JSON response of a fixed size. The requests are not processed, so the
+ * measured cost is the one of the RPC layer of Administration.
+ */
+public class FakeResponder implements AutoCloseable {
+
+    private final Connection connection;
+    private final String exchangeName;
+    private final String routingKey;
+    private final long latencyMillis;
+    private final byte[] response;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fake-responder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Channel channel;
+
+    /**
+     * @param connection        the connection to the broker
+     * @param exchangeName      the exchange of the requests
+     * @param routingKey        the routing key of the requests
+     * @param latencyMillis     how long each request waits for its response
+     * @param payloadBytes      the size of the responses
+     */
+    public FakeResponder(Connection connection, String exchangeName, String routingKey, long latencyMillis,
+                         int payloadBytes) {
+        this.connection = connection;
+        this.exchangeName = exchangeName;
+        this.routingKey = routingKey;
+        this.latencyMillis = latencyMillis;
+        this.response = response(payloadBytes);
+    }
+
+    public void start() throws IOException {
+        this.channel = this.connection.createChannel();
+        String queueName = this.channel.queueDeclare().getQueue();
+        this.channel.queueBind(queueName, this.exchangeName, this.routingKey);
+
+        this.channel.basicConsume(queueName, true, new DefaultConsumer(this.channel) {
+            @Override
+            public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties properties,
+                                       byte[] body) {
+                if (latencyMillis > 0)
+                    scheduler.schedule(() -> reply(properties), latencyMillis, TimeUnit.MILLISECONDS);
+                else
+                    reply(properties);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+        this.scheduler.shutdownNow();
+        if (this.channel != null && this.channel.isOpen())
+            this.channel.close();
+    }
+
+    private void reply(AMQP.BasicProperties request) {
+        AMQP.BasicProperties props = new AMQP.BasicProperties()
+                .builder()
+                .correlationId(request.getCorrelationId())
+                .contentType("application/json")
+                .build();
+
+        // The channel is shared by the consumer thread and the scheduler
+        synchronized (this) {
+            try {
+                this.channel.basicPublish("", request.getReplyTo(), props, this.response);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to reply to " + this.routingKey, e);
+            }
+        }
+    }
+
+    private static byte[] response(int payloadBytes) {
+        String envelope = "{\"status\":200,\"message\":\"OK\",\"body\":\"\"}";
+        char[] padding = new char[Math.max(0, payloadBytes - envelope.length())];
+        Arrays.fill(padding, 'x');
+        return ("{\"status\":200,\"message\":\"OK\",\"body\":\"" + new String(padding) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,98 @@
+package eu.h2020.symbiote.administration.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import eu.h2020.symbiote.administration.communication.rabbit.JsonCodecRegistry;
+import eu.h2020.symbiote.core.cci.InformationModelRequest;
+import eu.h2020.symbiote.core.internal.InformationModelListResponse;
+import eu.h2020.symbiote.core.internal.RDFFormat;
+import eu.h2020.symbiote.model.mim.InformationModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the (de)serialization of the RPC payloads: through an intermediate String, as RabbitManager used to do,
+ * and directly from and to the bytes of the deliveries with the {@link JsonCodecRegistry}.
+ *
+ * Run with the gc profiler to compare the allocations per operation (gc.alloc.rate.norm):
+ * gradle jmh -Pjmh.args="JsonCodecBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    // Number of information models in the list, each with an rdf of rdfBytes
+    @Param({"10", "100"})
+    private int models;
+
+    @Param({"10240"})
+    private int rdfBytes;
+
+    private ObjectMapper mapper;
+    private JsonCodecRegistry codecs;
+    private InformationModelRequest request;
+    private byte[] response;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.mapper = new ObjectMapper();
+        this.codecs = new JsonCodecRegistry(this.mapper, InformationModelRequest.class,
+                InformationModelListResponse.class);
+
+        List<InformationModel> body = new ArrayList<>();
+        for (int i = 0; i < this.models; i++)
+            body.add(informationModel("model" + i));
+
+        InformationModelListResponse listResponse = new InformationModelListResponse();
+        listResponse.setStatus(200);
+        listResponse.setBody(body);
+        this.response = this.mapper.writeValueAsBytes(listResponse);
+
+        this.request = new InformationModelRequest();
+        this.request.setBody(informationModel("registered"));
+    }
+
+    @Benchmark
+    public InformationModelListResponse decodeFromString() throws IOException {
+        return this.mapper.readValue(new String(this.response, StandardCharsets.UTF_8),
+                InformationModelListResponse.class);
+    }
+
+    @Benchmark
+    public InformationModelListResponse decodeFromBytes() throws IOException {
+        return this.codecs.read(this.response, InformationModelListResponse.class);
+    }
+
+    @Benchmark
+    public byte[] encodeToString() throws IOException {
+        return this.mapper.writeValueAsString(this.request).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] encodeToBytes() throws IOException {
+        return this.codecs.write(this.request);
+    }
+
+    private InformationModel informationModel(String id) {
+        char[] rdf = new char[this.rdfBytes];
+        Arrays.fill(rdf, 'r');
+
+        InformationModel model = new InformationModel();
+        model.setId(id);
+        model.setUri("http://www.symbiote-h2020.eu/ontology/" + id);
+        model.setOwner("owner");
+        model.setName(id);
+        model.setRdfFormat(RDFFormat.Turtle);
+        model.setRdf(new String(rdf));
+        return model;
+    }
+}
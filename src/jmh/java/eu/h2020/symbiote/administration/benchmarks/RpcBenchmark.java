@@ -0,0 +1,146 @@
+package eu.h2020.symbiote.administration.benchmarks;
+
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import eu.h2020.symbiote.administration.communication.rabbit.RabbitManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of {@link RabbitManager#sendRpcMessage(String, String, String, String)} against an
+ * {@link EmbeddedBroker}, with a {@link FakeResponder} standing in for the Registry or the AAM. The RabbitManager
+ * is configured from the bootstrap.properties of Administration, except for the broker port and the features which
+ * would distort the measurement (circuit breakers, adaptive timeouts, request coalescing and bulkheads).
+ *
+ * Run with e.g. gradle jmh -Pjmh.args="RpcBenchmark -p latencyMillis=0"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class RpcBenchmark {
+
+    @Param({"registry", "aam"})
+    private String component;
+
+    @Param({"0", "5"})
+    private long latencyMillis;
+
+    @Param({"1024", "1048576"})
+    private int payloadBytes;
+
+    private EmbeddedBroker broker;
+    private AnnotationConfigApplicationContext context;
+    private RabbitManager rabbitManager;
+    private Connection responderConnection;
+    private FakeResponder responder;
+
+    private String exchangeName;
+    private String routingKey;
+    private String message;
+    private String contentType;
+
+    @Configuration
+    @Import(RabbitManager.class)
+    static class BenchmarkConfiguration {
+        @Bean
+        static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.broker = new EmbeddedBroker();
+        this.broker.start();
+
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("rabbit.host", "localhost");
+        overrides.put("rabbit.port", this.broker.getPort());
+        overrides.put("rabbit.timeoutMillis", 30000);
+        overrides.put("rabbit.circuitBreaker.failureThreshold", 0);
+        overrides.put("rabbit.adaptiveTimeout.percentile", 0);
+        overrides.put("rabbit.coalescing.routingKeys", "");
+        overrides.put("rabbit.bulkhead.maxConcurrent", 0);
+        overrides.put("rabbit.bulkhead.limits", "");
+
+        this.context = new AnnotationConfigApplicationContext();
+        ConfigurableEnvironment environment = this.context.getEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", overrides));
+        environment.getPropertySources().addLast(new ResourcePropertySource("classpath:bootstrap.properties"));
+        this.context.register(BenchmarkConfiguration.class);
+        this.context.refresh();
+
+        this.rabbitManager = this.context.getBean(RabbitManager.class);
+        this.rabbitManager.initCommunication();
+
+        if (this.component.equals("registry")) {
+            this.exchangeName = environment.getProperty("rabbit.exchange.platform.name");
+            this.routingKey = environment.getProperty("rabbit.routingKey.platform.platformDetailsRequested");
+            this.message = "benchmarkPlatform";
+            this.contentType = "text/plain";
+        } else {
+            this.exchangeName = environment.getProperty("rabbit.exchange.aam.name");
+            this.routingKey = environment.getProperty("rabbit.routingKey.get.user.details");
+            this.message = "{\"userCredentials\":{\"username\":\"benchmarkUser\",\"password\":\"password\"}}";
+            this.contentType = "application/json";
+        }
+
+        ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost("localhost");
+        factory.setPort(this.broker.getPort());
+        factory.setUsername("guest");
+        factory.setPassword("guest");
+        this.responderConnection = factory.newConnection();
+        this.responder = new FakeResponder(this.responderConnection, this.exchangeName, this.routingKey,
+                this.latencyMillis, this.payloadBytes);
+        this.responder.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.responder.close();
+        this.responderConnection.close();
+        this.context.close();
+        this.broker.stop();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String oneCaller() {
+        return sendRpcMessage();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String eightCallers() {
+        return sendRpcMessage();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String sixtyFourCallers() {
+        return sendRpcMessage();
+    }
+
+    private String sendRpcMessage() {
+        String response = this.rabbitManager.sendRpcMessage(this.exchangeName, this.routingKey, this.message,
+                this.contentType);
+        if (response == null)
+            throw new IllegalStateException("No response to " + this.routingKey);
+        return response;
+    }
+}
@@ -0,0 +1,167 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Timeouts of the RPC requests, adapted to the latency of each routing key.
+ *
+ * The latencies of the responses of each routing key are kept in a rolling histogram (an exponentially decaying
+ * reservoir, which favours the recent requests). The timeout of a routing key is the configured percentile of its
+ * latencies multiplied by a headroom factor, bounded by the minimum and maximum of the routing key. Until enough
+ * latencies are known, the default timeout is used. The timed-out requests count with the timeout as their latency,
+ * so that the timeout of a routing key which keeps timing out grows up to its maximum.
+ */
+public class AdaptiveTimeouts {
+    private static Log log = LogFactory.getLog(AdaptiveTimeouts.class);
+
+    // How often the timeout of a routing key is derived again from its histogram
+    private static final long RECOMPUTE_INTERVAL_MILLIS = 1000;
+
+    private final long defaultMillis;
+    private final double percentile;
+    private final double headroom;
+    private final int minSamples;
+    private final Bounds defaultBounds;
+    private final Map<String, Bounds> bounds;
+    private final LongSupplier clock;
+
+    private final ConcurrentMap<String, RoutingKeyLatency> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * The minimum and maximum timeout of a routing key
+     */
+    public static class Bounds {
+        private final long minMillis;
+        private final long maxMillis;
+
+        public Bounds(long minMillis, long maxMillis) {
+            this.minMillis = minMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        public long getMinMillis() { return minMillis; }
+        public long getMaxMillis() { return maxMillis; }
+
+        private long clamp(long millis) {
+            return Math.max(minMillis, Math.min(maxMillis, millis));
+        }
+    }
+
+    private static class RoutingKeyLatency {
+        private final Histogram histogram;
+        private volatile long timeoutMillis;
+        private volatile long computedAt;
+
+        private RoutingKeyLatency(Histogram histogram, long timeoutMillis) {
+            this.histogram = histogram;
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+
+    /**
+     * @param defaultMillis     the timeout used until enough latencies of a routing key are known
+     * @param percentile        the percentile of the latencies (e.g. 0.99) from which the timeouts are derived. The
+     *                          default timeout is always used if it is 0
+     * @param headroom          the factor applied to the percentile
+     * @param minSamples        the latencies needed before adapting the timeout of a routing key
+     * @param defaultBounds     the bounds of the timeouts of the routing keys without bounds of their own
+     * @param bounds            the bounds of the timeouts, indexed by routing key
+     */
+    public AdaptiveTimeouts(long defaultMillis, double percentile, double headroom, int minSamples,
+                            Bounds defaultBounds, Map<String, Bounds> bounds) {
+        this(defaultMillis, percentile, headroom, minSamples, defaultBounds, bounds, System::currentTimeMillis);
+    }
+
+    AdaptiveTimeouts(long defaultMillis, double percentile, double headroom, int minSamples,
+                     Bounds defaultBounds, Map<String, Bounds> bounds, LongSupplier clock) {
+        this.defaultMillis = defaultMillis;
+        this.percentile = percentile;
+        this.headroom = headroom;
+        this.minSamples = minSamples;
+        this.defaultBounds = defaultBounds;
+        this.bounds = bounds;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the timeout of the next request to the routing key
+     */
+    public long timeoutMillis(String routingKey) {
+        if (percentile <= 0)
+            return defaultMillis;
+
+        RoutingKeyLatency latency = latencyOf(routingKey);
+        long now = clock.getAsLong();
+
+        if (now - latency.computedAt >= RECOMPUTE_INTERVAL_MILLIS) {
+            latency.computedAt = now;
+
+            if (latency.histogram.getCount() >= minSamples) {
+                double observed = latency.histogram.getSnapshot().getValue(percentile);
+                latency.timeoutMillis = boundsOf(routingKey).clamp((long) Math.ceil(observed * headroom));
+
+                if (log.isTraceEnabled())
+                    log.trace("Timeout of " + routingKey + " is " + latency.timeoutMillis + " ms");
+            }
+        }
+        return latency.timeoutMillis;
+    }
+
+    /**
+     * Records the latency of a response
+     */
+    public void onResponse(String routingKey, long latencyMillis) {
+        if (percentile > 0)
+            latencyOf(routingKey).histogram.update(latencyMillis);
+    }
+
+    /**
+     * Records a request which timed out
+     */
+    public void onTimeout(String routingKey, long timeoutMillis) {
+        onResponse(routingKey, timeoutMillis);
+    }
+
+    /**
+     * Parses the bounds of the routing keys, given as a comma separated list of routingKey=minMillis:maxMillis
+     *
+     * @param value   the bounds to be parsed
+     * @return the bounds indexed by routing key
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public static Map<String, Bounds> parseBounds(String value) {
+        if (value == null || value.trim().isEmpty())
+            return Collections.emptyMap();
+
+        Map<String, Bounds> bounds = new HashMap<>();
+        for (String entry : value.split(",")) {
+            String[] keyAndBounds = entry.trim().split("=");
+            String[] minAndMax = keyAndBounds.length == 2 ? keyAndBounds[1].split(":") : new String[0];
+            if (minAndMax.length != 2)
+                throw new IllegalArgumentException("Malformed timeout bounds: " + entry);
+
+            bounds.put(keyAndBounds[0].trim(),
+                    new Bounds(Long.parseLong(minAndMax[0].trim()), Long.parseLong(minAndMax[1].trim())));
+        }
+        return bounds;
+    }
+
+    private RoutingKeyLatency latencyOf(String routingKey) {
+        return latencies.computeIfAbsent(routingKey, key -> new RoutingKeyLatency(
+                new Histogram(new ExponentiallyDecayingReservoir()), boundsOf(key).clamp(defaultMillis)));
+    }
+
+    private Bounds boundsOf(String routingKey) {
+        return bounds.getOrDefault(routingKey, defaultBounds);
+    }
+}
@@ -0,0 +1,143 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead limiting the RPC requests in flight to a downstream component, so that a burst of requests to one
+ * component neither floods it nor starves the requests to the others.
+ *
+ * A request over the limit is queued, without blocking its caller, until a slot is freed or the maximum wait has
+ * passed, in which case it is rejected. The slot of a request is handed over to the oldest queued one when released.
+ * The bulkhead reports in the {@link MetricRegistry} the requests in flight (rabbit.bulkhead.[name].inFlight), the
+ * requests waiting for a slot (rabbit.bulkhead.[name].waiting) and the rejected ones (rabbit.bulkhead.[name].rejected).
+ */
+public class Bulkhead {
+    private static Log log = LogFactory.getLog(Bulkhead.class);
+
+    static final String METRIC_PREFIX = "rabbit.bulkhead.";
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Counter rejected;
+
+    // Guarded by this
+    private int inFlight;
+    private final Deque<CompletableFuture<Boolean>> waiting = new ArrayDeque<>();
+
+    /**
+     * @param name              the name of the downstream component
+     * @param maxConcurrent     the requests which can be in flight together. The requests are not limited if it is 0
+     * @param maxWaitMillis     how long a request over the limit waits for a free slot
+     * @param scheduler         the scheduler rejecting the requests which waited too long
+     * @param metricRegistry    the registry of the bulkhead metrics
+     */
+    public Bulkhead(String name, int maxConcurrent, long maxWaitMillis, ScheduledExecutorService scheduler,
+                    MetricRegistry metricRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMillis = maxWaitMillis;
+        this.scheduler = scheduler;
+
+        String prefix = METRIC_PREFIX + name + ".";
+        this.rejected = metricRegistry.counter(prefix + "rejected");
+
+        // A bulkhead created again on the same registry takes over the gauges
+        metricRegistry.remove(prefix + "waiting");
+        metricRegistry.remove(prefix + "inFlight");
+        metricRegistry.register(prefix + "waiting", (Gauge<Integer>) this::getWaiting);
+        metricRegistry.register(prefix + "inFlight", (Gauge<Integer>) this::getInFlight);
+    }
+
+    /**
+     * Takes a slot for a request. Every slot taken has to be released.
+     *
+     * @return future completed with true once the request can be sent, or with false if it is rejected. It is
+     * already completed unless the request has to wait for a slot
+     */
+    public CompletableFuture<Boolean> acquire() {
+        if (this.maxConcurrent <= 0)
+            return CompletableFuture.completedFuture(true);
+
+        CompletableFuture<Boolean> slot = null;
+        synchronized (this) {
+            if (this.inFlight < this.maxConcurrent) {
+                this.inFlight++;
+                return CompletableFuture.completedFuture(true);
+            }
+            if (this.maxWaitMillis > 0) {
+                slot = new CompletableFuture<>();
+                this.waiting.addLast(slot);
+            }
+        }
+
+        if (slot == null) {
+            reject();
+            return CompletableFuture.completedFuture(false);
+        }
+
+        CompletableFuture<Boolean> queued = slot;
+        ScheduledFuture<?> deadline = this.scheduler.schedule(() -> {
+            boolean expired;
+            synchronized (this) {
+                expired = this.waiting.remove(queued);
+            }
+            if (expired) {
+                reject();
+                queued.complete(false);
+            }
+        }, this.maxWaitMillis, TimeUnit.MILLISECONDS);
+        slot.thenRun(() -> deadline.cancel(false));
+        return slot;
+    }
+
+    /**
+     * Releases the slot of a request, once it is answered or failed
+     */
+    public void release() {
+        if (this.maxConcurrent <= 0)
+            return;
+
+        CompletableFuture<Boolean> next;
+        synchronized (this) {
+            next = this.waiting.pollFirst();
+            if (next == null)
+                this.inFlight--;
+        }
+        if (next != null)
+            next.complete(true);
+    }
+
+    private void reject() {
+        log.warn("Bulkhead of " + this.name + " is full, rejecting request");
+        this.rejected.inc();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getWaiting() {
+        return waiting.size();
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public long getRejected() {
+        return rejected.getCount();
+    }
+}
@@ -0,0 +1,93 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+/**
+ * The bulkheads of the downstream components, created on first use. Unlike the circuit breakers, several exchanges
+ * can share the bulkhead of the component behind them (e.g. the platform, ssp, mapping and resource exchanges of the
+ * Registry). An exchange which is not mapped to a component is a separate component.
+ */
+public class BulkheadRegistry {
+
+    private final MetricRegistry metricRegistry;
+    private final ScheduledExecutorService scheduler;
+    private final int defaultMaxConcurrent;
+    private final Map<String, Integer> maxConcurrent;
+    private final Map<String, String> components;
+    private final long maxWaitMillis;
+    private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * @param metricRegistry        the registry of the bulkhead metrics
+     * @param scheduler             the scheduler rejecting the requests which waited too long
+     * @param defaultMaxConcurrent  the limit of the components without a limit of their own (0 = unlimited)
+     * @param maxConcurrent         the limits, indexed by component
+     * @param components            the components, indexed by exchange
+     * @param maxWaitMillis         how long a request over the limit waits for a free slot
+     */
+    public BulkheadRegistry(MetricRegistry metricRegistry, ScheduledExecutorService scheduler,
+                            int defaultMaxConcurrent, Map<String, Integer> maxConcurrent,
+                            Map<String, String> components, long maxWaitMillis) {
+        this.metricRegistry = metricRegistry;
+        this.scheduler = scheduler;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.maxConcurrent = maxConcurrent;
+        this.components = components;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * @param exchangeName  the name of the exchange
+     * @return the bulkhead of the component behind the exchange
+     */
+    public Bulkhead get(String exchangeName) {
+        return bulkheads.computeIfAbsent(components.getOrDefault(exchangeName, exchangeName),
+                n -> new Bulkhead(n, maxConcurrent.getOrDefault(n, defaultMaxConcurrent), maxWaitMillis, scheduler,
+                        metricRegistry));
+    }
+
+    /**
+     * Parses the limits of the components, given as a comma separated list of component=maxConcurrent
+     *
+     * @param value   the limits to be parsed
+     * @return the limits indexed by component
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public static Map<String, Integer> parseLimits(String value) {
+        return parse(value, "limit", Integer::parseInt);
+    }
+
+    /**
+     * Parses the components behind the exchanges, given as a comma separated list of exchange=component
+     *
+     * @param value   the components to be parsed
+     * @return the components indexed by exchange
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public static Map<String, String> parseComponents(String value) {
+        return parse(value, "component", String::trim);
+    }
+
+    private static <T> Map<String, T> parse(String value, String what, Function<String, T> parser) {
+        if (value == null || value.trim().isEmpty())
+            return Collections.emptyMap();
+
+        Map<String, T> entries = new HashMap<>();
+        for (String entry : value.split(",")) {
+            String[] nameAndValue = entry.trim().split("=");
+            if (nameAndValue.length != 2)
+                throw new IllegalArgumentException("Malformed bulkhead " + what + ": " + entry);
+
+            entries.put(nameAndValue[0].trim(), parser.apply(nameAndValue[1].trim()));
+        }
+        return entries;
+    }
+}
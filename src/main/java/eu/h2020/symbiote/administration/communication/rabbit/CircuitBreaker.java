@@ -0,0 +1,122 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of the requests to a downstream component.
+ *
+ * The circuit opens after a number of consecutive failures (timeouts or failed publishes) and then rejects all the
+ * requests for a while, instead of letting each of them wait for the full timeout. When that time is over, the
+ * circuit becomes half-open and lets a single probe request through: the circuit closes if the probe gets a
+ * response and opens again if it fails.
+ */
+public class CircuitBreaker {
+    private static Log log = LogFactory.getLog(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    /**
+     * Snapshot of the state of a circuit breaker, as exposed on the management endpoint
+     */
+    public static class Status {
+        private final State state;
+        private final int consecutiveFailures;
+        private final long openedAt;
+
+        private Status(State state, int consecutiveFailures, long openedAt) {
+            this.state = state;
+            this.consecutiveFailures = consecutiveFailures;
+            this.openedAt = openedAt;
+        }
+
+        public State getState() { return state; }
+        public int getConsecutiveFailures() { return consecutiveFailures; }
+        public long getOpenedAt() { return openedAt; }
+    }
+
+    /**
+     * @param name              the name of the downstream component
+     * @param failureThreshold  the consecutive failures which open the circuit. The circuit never opens if it is 0
+     * @param openMillis        how long the circuit stays open before letting a probe through
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this(name, failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, long openMillis, LongSupplier clock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Asks for permission to send a request. A granted request must be followed by {@link #onSuccess()} or
+     * {@link #onFailure()}.
+     *
+     * @return false if the circuit is open and the request must fail fast
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - openedAt < openMillis)
+                    return false;
+                log.info("Circuit of " + name + " is half-open, probing");
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight)
+                    return false;
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED)
+            log.info("Circuit of " + name + " is closed");
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+
+        if (state == State.HALF_OPEN ||
+                (state == State.CLOSED && failureThreshold > 0 && consecutiveFailures >= failureThreshold)) {
+            log.warn("Circuit of " + name + " is open after " + consecutiveFailures + " consecutive failures");
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Status getStatus() {
+        return new Status(state, consecutiveFailures, openedAt);
+    }
+
+    public String getName() {
+        return name;
+    }
+}
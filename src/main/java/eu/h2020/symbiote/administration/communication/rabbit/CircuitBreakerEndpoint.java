@@ -0,0 +1,27 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Management endpoint (/circuitbreakers) exposing the state of the circuit breakers of the downstream components
+ */
+@Component
+public class CircuitBreakerEndpoint extends AbstractEndpoint<Map<String, CircuitBreaker.Status>> {
+
+    private final RabbitManager rabbitManager;
+
+    @Autowired
+    public CircuitBreakerEndpoint(RabbitManager rabbitManager) {
+        super("circuitbreakers");
+        this.rabbitManager = rabbitManager;
+    }
+
+    @Override
+    public Map<String, CircuitBreaker.Status> invoke() {
+        return rabbitManager.getCircuitBreakers().getStatus();
+    }
+}
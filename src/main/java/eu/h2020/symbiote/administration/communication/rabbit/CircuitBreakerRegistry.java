@@ -0,0 +1,39 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The circuit breakers of the downstream components, created on first use. Each exchange is a separate downstream
+ * component, so that e.g. an unavailable Registry does not block the requests to the AAM.
+ */
+public class CircuitBreakerRegistry {
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * @param failureThreshold  the consecutive failures which open a circuit. The circuits never open if it is 0
+     * @param openMillis        how long a circuit stays open before letting a probe through
+     */
+    public CircuitBreakerRegistry(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public CircuitBreaker get(String name) {
+        return breakers.computeIfAbsent(name, n -> new CircuitBreaker(n, failureThreshold, openMillis));
+    }
+
+    /**
+     * @return the status of all the circuit breakers, sorted by name
+     */
+    public Map<String, CircuitBreaker.Status> getStatus() {
+        Map<String, CircuitBreaker.Status> status = new TreeMap<>();
+        breakers.forEach((name, breaker) -> status.put(name, breaker.getStatus()));
+        return status;
+    }
+}
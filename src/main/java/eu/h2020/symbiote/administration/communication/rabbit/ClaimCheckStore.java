@@ -0,0 +1,28 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import java.io.IOException;
+
+/**
+ * Store of the payloads which are too large to travel inside an AMQP message (see {@link ClaimChecks}). The store has
+ * to be shared with the components answering the requests, which fetch the payloads by their reference.
+ */
+public interface ClaimCheckStore {
+
+    /**
+     * Stores a payload
+     *
+     * @return the reference of the stored payload
+     */
+    String put(byte[] payload) throws IOException;
+
+    /**
+     * @return the payload with the given reference
+     * @throws IOException if there is no such payload
+     */
+    byte[] get(String reference) throws IOException;
+
+    /**
+     * Removes the payload with the given reference, if it is still stored
+     */
+    void remove(String reference) throws IOException;
+}
@@ -0,0 +1,109 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Claim check of the large RPC payloads: instead of travelling inside the AMQP message, a payload larger than the
+ * threshold is put in a {@link ClaimCheckStore} shared with the other components. The message then has an empty body
+ * and carries the reference of the payload (x-claim-check header) and its SHA-256 checksum (x-claim-check-sha256
+ * header), so that the receiver can fetch it and verify it.
+ *
+ * Only the requests of the listed routing keys are offloaded, since the component answering them has to support the
+ * claim checks. The replies carrying a claim check are always fetched.
+ */
+public class ClaimChecks {
+    private static Log log = LogFactory.getLog(ClaimChecks.class);
+
+    public static final String REFERENCE_HEADER = "x-claim-check";
+    public static final String CHECKSUM_HEADER = "x-claim-check-sha256";
+
+    private final ClaimCheckStore store;
+    private final int thresholdBytes;
+    private final Set<String> routingKeys;
+
+    /**
+     * @param store             the store of the payloads. The payloads are never offloaded if it is null
+     * @param thresholdBytes    the size above which the payloads are offloaded (0 = never)
+     * @param routingKeys       the routing keys whose payloads are offloaded
+     */
+    public ClaimChecks(ClaimCheckStore store, int thresholdBytes, Set<String> routingKeys) {
+        this.store = store;
+        this.thresholdBytes = thresholdBytes;
+        this.routingKeys = routingKeys;
+    }
+
+    /**
+     * Puts the payload of a request in the store, if it has to be offloaded
+     *
+     * @return the headers of the claim check, or null if the payload is sent inside the message
+     */
+    public Map<String, Object> offload(String routingKey, byte[] payload) throws IOException {
+        if (store == null || thresholdBytes <= 0 || payload.length <= thresholdBytes || !routingKeys.contains(routingKey))
+            return null;
+
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(CHECKSUM_HEADER, checksum(payload));
+        headers.put(REFERENCE_HEADER, store.put(payload));
+        log.debug("Offloaded payload of " + payload.length + " bytes to " + routingKey + ": " +
+                headers.get(REFERENCE_HEADER));
+        return headers;
+    }
+
+    /**
+     * @return true if the message with these headers carries a claim check instead of its payload
+     */
+    public static boolean isClaimCheck(Map<String, Object> headers) {
+        return headers != null && headers.get(REFERENCE_HEADER) != null;
+    }
+
+    /**
+     * Fetches the payload of a message carrying a claim check
+     *
+     * @throws IOException if the payload cannot be fetched or it does not match its checksum
+     */
+    public byte[] fetch(Map<String, Object> headers) throws IOException {
+        if (store == null)
+            throw new IOException("Received a claim check, but there is no claim check store");
+
+        String reference = String.valueOf(headers.get(REFERENCE_HEADER));
+        byte[] payload = store.get(reference);
+
+        Object checksum = headers.get(CHECKSUM_HEADER);
+        if (checksum != null && !checksum.toString().equals(checksum(payload)))
+            throw new IOException("Checksum mismatch of the payload with claim check " + reference);
+        return payload;
+    }
+
+    /**
+     * Removes an offloaded payload from the store, once its request is answered or abandoned
+     */
+    public void release(Map<String, Object> headers) {
+        String reference = String.valueOf(headers.get(REFERENCE_HEADER));
+        try {
+            store.remove(reference);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to remove payload with claim check " + reference + ": " + e.getMessage());
+        }
+    }
+
+    static String checksum(byte[] payload) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+                hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Recoverable;
+import com.rabbitmq.client.RecoveryListener;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publisher of events which have to reach the broker, like the federation events.
+ *
+ * The messages are published on a dedicated channel in confirm mode without waiting for each confirm. The
+ * outstanding messages are tracked by their delivery tag and the broker acknowledges them in batches (multiple acks).
+ * Nacked messages, messages which could not be published and messages left outstanding on a closed channel are
+ * published again after a delay, up to a maximum number of attempts. While a connection which recovers automatically
+ * is down, the messages are parked without using up their attempts, and published again once it is recovered.
+ *
+ * The publish latency (publish to confirm), the backlog of unconfirmed messages, the parked messages, the nacks, the
+ * retries and the dropped messages are reported in the {@link MetricRegistry}.
+ */
+public class ConfirmingPublisher {
+    private static Log log = LogFactory.getLog(ConfirmingPublisher.class);
+
+    static final String METRIC_PREFIX = "rabbit.publisher.";
+
+    private final Connection connection;
+    private final int maxRetries;
+    private final long retryDelayMillis;
+
+    private final ConcurrentNavigableMap<Long, PendingMessage> outstanding = new ConcurrentSkipListMap<>();
+    private final ScheduledExecutorService retryScheduler;
+    // The messages waiting for the recovery of the connection, guarded by this
+    private final List<PendingMessage> parked = new ArrayList<>();
+
+    private final Timer confirmLatency;
+    private final Counter nacks;
+    private final Counter retries;
+    private final Counter dropped;
+
+    private Channel channel;
+
+    /**
+     * A message waiting for the confirm of the broker
+     */
+    private static class PendingMessage {
+        private final String exchangeName;
+        private final String routingKey;
+        private final AMQP.BasicProperties props;
+        private final byte[] body;
+        private final int attempt;
+        private long publishedAtNanos;
+
+        private PendingMessage(String exchangeName, String routingKey, AMQP.BasicProperties props, byte[] body,
+                               int attempt) {
+            this.exchangeName = exchangeName;
+            this.routingKey = routingKey;
+            this.props = props;
+            this.body = body;
+            this.attempt = attempt;
+        }
+
+        private PendingMessage nextAttempt() {
+            return new PendingMessage(exchangeName, routingKey, props, body, attempt + 1);
+        }
+    }
+
+    /**
+     * @param connection        the connection used for opening the confirm channel
+     * @param metricRegistry    the registry of the publisher metrics
+     * @param maxRetries        how many times a message is published again before it is dropped
+     * @param retryDelayMillis  the delay before publishing a message again
+     */
+    public ConfirmingPublisher(Connection connection, MetricRegistry metricRegistry, int maxRetries,
+                               long retryDelayMillis) {
+        this.connection = connection;
+        this.maxRetries = maxRetries;
+        this.retryDelayMillis = retryDelayMillis;
+
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rabbit-publisher-retries");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.confirmLatency = metricRegistry.timer(METRIC_PREFIX + "confirm.latency");
+        this.nacks = metricRegistry.counter(METRIC_PREFIX + "nacks");
+        this.retries = metricRegistry.counter(METRIC_PREFIX + "retries");
+        this.dropped = metricRegistry.counter(METRIC_PREFIX + "dropped");
+        // A publisher created again on the same registry takes over the backlog gauge
+        metricRegistry.remove(METRIC_PREFIX + "backlog");
+        metricRegistry.remove(METRIC_PREFIX + "parked");
+        metricRegistry.register(METRIC_PREFIX + "backlog", (Gauge<Integer>) outstanding::size);
+        metricRegistry.register(METRIC_PREFIX + "parked", (Gauge<Integer>) this::getParked);
+
+        if (connection instanceof Recoverable)
+            ((Recoverable) connection).addRecoveryListener(new RecoveryListener() {
+                @Override
+                public void handleRecovery(Recoverable recoverable) {
+                    publishParked();
+                }
+
+                @Override
+                public void handleRecoveryStarted(Recoverable recoverable) {
+                }
+            });
+    }
+
+    /**
+     * Publishes a message without waiting for its confirm
+     *
+     * @param exchangeName name of the exchange to send message to
+     * @param routingKey   routing key to send message to
+     * @param props        the properties of the message
+     * @param body         the body of the message
+     */
+    public void publish(String exchangeName, String routingKey, AMQP.BasicProperties props, byte[] body) {
+        publish(new PendingMessage(exchangeName, routingKey, props, body, 0));
+    }
+
+    /**
+     * @return the number of published messages which have not been confirmed yet
+     */
+    public int getBacklog() {
+        return outstanding.size();
+    }
+
+    /**
+     * @return the number of messages waiting for the recovery of the connection
+     */
+    public synchronized int getParked() {
+        return parked.size();
+    }
+
+    /**
+     * Stops retrying and closes the confirm channel. Unconfirmed messages are reported as dropped.
+     */
+    public synchronized void close() {
+        retryScheduler.shutdownNow();
+
+        if (!outstanding.isEmpty()) {
+            log.warn(outstanding.size() + " published messages were not confirmed by the broker");
+            dropped.inc(outstanding.size());
+            outstanding.clear();
+        }
+        if (!parked.isEmpty()) {
+            log.warn(parked.size() + " messages waiting for the recovery of the connection were not published");
+            dropped.inc(parked.size());
+            parked.clear();
+        }
+
+        try {
+            if (channel != null && channel.isOpen())
+                channel.close();
+        } catch (IOException | TimeoutException e) {
+            log.error("", e);
+        }
+    }
+
+    private synchronized void publish(PendingMessage message) {
+        if (parkWhileDown(message))
+            return;
+
+        try {
+            Channel confirmChannel = confirmChannel();
+            long deliveryTag = confirmChannel.getNextPublishSeqNo();
+
+            message.publishedAtNanos = System.nanoTime();
+            outstanding.put(deliveryTag, message);
+            confirmChannel.basicPublish(message.exchangeName, message.routingKey, message.props, message.body);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to publish message to " + message.routingKey, e);
+            outstanding.values().remove(message);
+            retry(message);
+        }
+    }
+
+    /**
+     * Returns the confirm channel, opening a new one if the broker has closed the previous one. A channel closed
+     * together with its connection is not replaced, since the automatic recovery reopens it.
+     */
+    private Channel confirmChannel() throws IOException {
+        if (channel != null && channel.isOpen())
+            return channel;
+        if (!connection.isOpen())
+            throw new IOException("The connection to the broker is down");
+
+        channel = connection.createChannel();
+        channel.confirmSelect();
+        channel.addShutdownListener(cause -> retryUnconfirmed());
+        channel.addConfirmListener(new ConfirmListener() {
+            @Override
+            public void handleAck(long deliveryTag, boolean multiple) {
+                for (PendingMessage message : confirmed(deliveryTag, multiple))
+                    confirmLatency.update(System.nanoTime() - message.publishedAtNanos, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void handleNack(long deliveryTag, boolean multiple) {
+                for (PendingMessage message : confirmed(deliveryTag, multiple)) {
+                    nacks.inc();
+                    log.warn("Broker nacked message to " + message.routingKey);
+                    retry(message);
+                }
+            }
+        });
+
+        return channel;
+    }
+
+    /**
+     * Publishes again the messages which were outstanding on a closed channel, since their confirms will never come.
+     * The delivery tags start again from 1 on the recovered or the new channel.
+     */
+    private synchronized void retryUnconfirmed() {
+        List<PendingMessage> unconfirmed = new ArrayList<>(outstanding.values());
+        outstanding.clear();
+
+        for (PendingMessage message : unconfirmed) {
+            if (!parkWhileDown(message))
+                retry(message);
+        }
+    }
+
+    /**
+     * Parks a message while the connection is down, if it is recovered automatically. Must be called holding the
+     * lock, as {@link #publishParked()} which releases the parked messages once the connection is recovered.
+     *
+     * @return true if the message is parked
+     */
+    private boolean parkWhileDown(PendingMessage message) {
+        if (!(connection instanceof Recoverable) || connection.isOpen())
+            return false;
+
+        parked.add(message);
+        return true;
+    }
+
+    /**
+     * Publishes again the messages parked while the connection was down, with the attempts they had left
+     */
+    private synchronized void publishParked() {
+        if (parked.isEmpty())
+            return;
+
+        List<PendingMessage> messages = new ArrayList<>(parked);
+        parked.clear();
+        log.info("Publishing " + messages.size() + " messages parked while the connection was down");
+        try {
+            // Not on the thread of the recovery, which goes on with the other listeners
+            retryScheduler.execute(() -> messages.forEach(this::publish));
+        } catch (RuntimeException e) {
+            log.warn("Publisher is closed, dropping " + messages.size() + " parked messages");
+            dropped.inc(messages.size());
+        }
+    }
+
+    /**
+     * Removes and returns the messages covered by a confirm. A multiple confirm covers all the outstanding messages
+     * up to and including the delivery tag.
+     */
+    private List<PendingMessage> confirmed(long deliveryTag, boolean multiple) {
+        List<PendingMessage> messages = new ArrayList<>();
+
+        if (multiple) {
+            Map<Long, PendingMessage> batch = outstanding.headMap(deliveryTag, true);
+            messages.addAll(batch.values());
+            batch.clear();
+        } else {
+            PendingMessage message = outstanding.remove(deliveryTag);
+            if (message != null)
+                messages.add(message);
+        }
+        return messages;
+    }
+
+    private void retry(PendingMessage message) {
+        if (message.attempt >= maxRetries) {
+            log.error("Dropping message to " + message.routingKey + " after " + (message.attempt + 1) + " attempts");
+            dropped.inc();
+            return;
+        }
+
+        retries.inc();
+        try {
+            retryScheduler.schedule(() -> publish(message.nextAttempt()), retryDelayMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            log.warn("Publisher is closed, dropping message to " + message.routingKey);
+            dropped.inc();
+        }
+    }
+}
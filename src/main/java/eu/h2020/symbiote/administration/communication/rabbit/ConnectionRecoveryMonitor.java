@@ -0,0 +1,92 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Recoverable;
+import com.rabbitmq.client.RecoveryListener;
+import com.rabbitmq.client.ShutdownSignalException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Follows the automatic recovery of the connections to the broker and reports it in the {@link MetricRegistry}: the
+ * number of connections which are down, the lost connections, the recoveries and how long each connection was down.
+ */
+public class ConnectionRecoveryMonitor {
+    private static Log log = LogFactory.getLog(ConnectionRecoveryMonitor.class);
+
+    static final String METRIC_PREFIX = "rabbit.recovery.";
+
+    private final AtomicInteger connectionsDown = new AtomicInteger();
+    private final Counter connectionsLost;
+    private final Counter recoveries;
+    private final Timer downtime;
+
+    /**
+     * @param metricRegistry    the registry of the recovery metrics
+     */
+    public ConnectionRecoveryMonitor(MetricRegistry metricRegistry) {
+        this.connectionsLost = metricRegistry.counter(METRIC_PREFIX + "connectionsLost");
+        this.recoveries = metricRegistry.counter(METRIC_PREFIX + "recoveries");
+        this.downtime = metricRegistry.timer(METRIC_PREFIX + "downtime");
+
+        // A monitor created again on the same registry takes over the gauge
+        metricRegistry.remove(METRIC_PREFIX + "connectionsDown");
+        metricRegistry.register(METRIC_PREFIX + "connectionsDown", (Gauge<Integer>) connectionsDown::get);
+    }
+
+    /**
+     * Follows the shutdown and the recovery of a connection
+     */
+    public void monitor(Connection connection) {
+        AtomicLong lostAt = new AtomicLong();
+
+        connection.addShutdownListener(cause -> onShutdown(cause, lostAt));
+        if (connection instanceof Recoverable)
+            ((Recoverable) connection).addRecoveryListener(new RecoveryListener() {
+                @Override
+                public void handleRecovery(Recoverable recoverable) {
+                    onRecovery(lostAt);
+                }
+
+                @Override
+                public void handleRecoveryStarted(Recoverable recoverable) {
+                    log.info("Recovering connection to the broker");
+                }
+            });
+    }
+
+    public int getConnectionsDown() {
+        return connectionsDown.get();
+    }
+
+    private void onShutdown(ShutdownSignalException cause, AtomicLong lostAt) {
+        if (cause.isInitiatedByApplication())
+            return;
+
+        if (lostAt.compareAndSet(0, System.nanoTime())) {
+            log.warn("Lost connection to the broker: " + cause.getMessage());
+            connectionsLost.inc();
+            connectionsDown.incrementAndGet();
+        }
+    }
+
+    private void onRecovery(AtomicLong lostAt) {
+        long lost = lostAt.getAndSet(0);
+        recoveries.inc();
+
+        if (lost != 0) {
+            long elapsed = System.nanoTime() - lost;
+            connectionsDown.decrementAndGet();
+            downtime.update(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Recovered connection to the broker after " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.mongodb.MongoException;
+import com.mongodb.gridfs.GridFSDBFile;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.data.mongodb.gridfs.GridFsCriteria.whereFilename;
+
+/**
+ * {@link ClaimCheckStore} keeping the payloads in MongoDB GridFS, where each payload is a file named after its
+ * reference. The failures of MongoDB are reported as {@link IOException}s, as the ones of any other store.
+ */
+public class GridFsClaimCheckStore implements ClaimCheckStore {
+
+    private final GridFsTemplate gridFsTemplate;
+
+    public GridFsClaimCheckStore(GridFsTemplate gridFsTemplate) {
+        this.gridFsTemplate = gridFsTemplate;
+    }
+
+    @Override
+    public String put(byte[] payload) throws IOException {
+        String reference = UUID.randomUUID().toString();
+        try {
+            gridFsTemplate.store(new ByteArrayInputStream(payload), reference);
+        } catch (MongoException e) {
+            throw new IOException("Failed to store the payload with claim check reference " + reference, e);
+        }
+        return reference;
+    }
+
+    @Override
+    public byte[] get(String reference) throws IOException {
+        try {
+            GridFSDBFile file = gridFsTemplate.findOne(query(whereFilename().is(reference)));
+            if (file == null)
+                throw new FileNotFoundException("No payload with claim check reference " + reference);
+
+            try (InputStream in = file.getInputStream()) {
+                return StreamUtils.copyToByteArray(in);
+            }
+        } catch (MongoException e) {
+            throw new IOException("Failed to fetch the payload with claim check reference " + reference, e);
+        }
+    }
+
+    @Override
+    public void remove(String reference) throws IOException {
+        try {
+            gridFsTemplate.delete(query(whereFilename().is(reference)));
+        } catch (MongoException e) {
+            throw new IOException("Failed to remove the payload with claim check reference " + reference, e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the JSON readers and writers of the RabbitMQ payloads.
+ *
+ * An {@link ObjectReader} and an {@link ObjectWriter} are created once for each payload type, so that the type is not
+ * resolved again on every message. They are derived from the application {@link ObjectMapper}, which means that the
+ * RPC and the HTTP paths share the same modules and serializer caches. The readers still fail on unknown properties
+ * and the writers still write dates as timestamps, since the other components expect the default Jackson wire format.
+ *
+ * The responses can also be read once into a tree and bound from it with {@link #treeToValue(JsonNode, Class)}, so
+ * that the error responses are told apart from the successful ones by their shape without parsing them twice. Some
+ * properties can be skipped while reading the tree, so that their values are never materialized.
+ */
+public class JsonCodecRegistry {
+
+    private final ObjectMapper mapper;
+
+    private final ConcurrentMap<Class<?>, ObjectReader> classReaders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<JavaType, ObjectReader> typeReaders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, JavaType> setTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, JavaType> mapTypes = new ConcurrentHashMap<>();
+
+    /**
+     * @param mapper    the mapper from which the readers and the writers are derived
+     * @param payloads  the payload types whose reader and writer are created upfront
+     */
+    public JsonCodecRegistry(ObjectMapper mapper, Class<?>... payloads) {
+        this.mapper = mapper;
+
+        for (Class<?> payload : payloads) {
+            reader(payload);
+            writer(payload);
+        }
+    }
+
+    public ObjectReader reader(Class<?> type) {
+        return classReaders.computeIfAbsent(type, t -> configure(mapper.readerFor(t)));
+    }
+
+    public ObjectReader reader(JavaType type) {
+        return typeReaders.computeIfAbsent(type, t -> configure(mapper.readerFor(t)));
+    }
+
+    public ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, t -> mapper.writerFor(t)
+                .with(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    /**
+     * @return the type of a set of elements of the given type
+     */
+    public JavaType setOf(Class<?> elementType) {
+        return setTypes.computeIfAbsent(elementType,
+                t -> mapper.getTypeFactory().constructCollectionType(Set.class, t));
+    }
+
+    /**
+     * @return the type of a map from String to values of the given type
+     */
+    public JavaType mapOf(Class<?> valueType) {
+        return mapTypes.computeIfAbsent(valueType,
+                t -> mapper.getTypeFactory().constructMapType(HashMap.class, String.class, t));
+    }
+
+    public <T> T read(byte[] content, Class<T> type) throws IOException {
+        return reader(type).readValue(content);
+    }
+
+    public <T> T read(byte[] content, JavaType type) throws IOException {
+        return reader(type).readValue(content);
+    }
+
+    /**
+     * @return the tree of the content
+     * @throws IOException if the content is empty or it is not valid JSON
+     */
+    public JsonNode readTree(byte[] content) throws IOException {
+        JsonNode tree = mapper.readTree(content);
+        if (tree == null || tree.isMissingNode())
+            throw new IOException("No JSON content");
+        return tree;
+    }
+
+    /**
+     * @param skippedProperties the properties which are left out of the tree, at any depth
+     * @return the tree of the content
+     * @throws IOException if the content is empty or it is not valid JSON
+     */
+    public JsonNode readTree(byte[] content, Set<String> skippedProperties) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(content)) {
+            if (parser.nextToken() == null)
+                throw new IOException("No JSON content");
+            return readTree(parser, skippedProperties);
+        }
+    }
+
+    private JsonNode readTree(JsonParser parser, Set<String> skippedProperties) throws IOException {
+        switch (parser.getCurrentToken()) {
+            case START_OBJECT:
+                ObjectNode object = mapper.getNodeFactory().objectNode();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    // The skipped values are tokenized but never decoded
+                    if (skippedProperties.contains(name))
+                        parser.skipChildren();
+                    else
+                        object.set(name, readTree(parser, skippedProperties));
+                }
+                return object;
+            case START_ARRAY:
+                ArrayNode array = mapper.getNodeFactory().arrayNode();
+                while (parser.nextToken() != JsonToken.END_ARRAY)
+                    array.add(readTree(parser, skippedProperties));
+                return array;
+            default:
+                return mapper.readTree(parser);
+        }
+    }
+
+    public <T> T treeToValue(JsonNode tree, Class<T> type) throws IOException {
+        return reader(type).readValue(tree);
+    }
+
+    public <T> T treeToValue(JsonNode tree, JavaType type) throws IOException {
+        return reader(type).readValue(tree);
+    }
+
+    public byte[] write(Object value) throws JsonProcessingException {
+        if (value == null)
+            return mapper.writeValueAsBytes(null);
+        return writer(value.getClass()).writeValueAsBytes(value);
+    }
+
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    private static ObjectReader configure(ObjectReader reader) {
+        return reader.with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+}
@@ -0,0 +1,44 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * {@link ClaimCheckStore} keeping each payload in a file of a local directory. The directory can be shared with the
+ * other components through a common volume, and it stands in for GridFS in the tests.
+ */
+public class LocalClaimCheckStore implements ClaimCheckStore {
+
+    private final Path directory;
+
+    public LocalClaimCheckStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public String put(byte[] payload) throws IOException {
+        String reference = UUID.randomUUID().toString();
+        Files.write(directory.resolve(reference), payload);
+        return reference;
+    }
+
+    @Override
+    public byte[] get(String reference) throws IOException {
+        return Files.readAllBytes(resolve(reference));
+    }
+
+    @Override
+    public void remove(String reference) throws IOException {
+        Files.deleteIfExists(resolve(reference));
+    }
+
+    private Path resolve(String reference) throws IOException {
+        Path file = directory.resolve(reference).normalize();
+        // The references of the replies come from other components
+        if (!directory.equals(file.getParent()))
+            throw new IOException("Invalid claim check reference: " + reference);
+        return file;
+    }
+}
@@ -0,0 +1,100 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression of the AMQP message bodies, signalled through the contentEncoding property of the messages.
+ *
+ * The messages are compressed only if an encoding is configured and they are larger than the threshold, since the
+ * small ones do not gain anything from it. The bodies carrying a gzip or lz4 (LZ4 frame format) content encoding are
+ * always decompressed, whatever the configured encoding.
+ */
+public class PayloadCompression {
+
+    public static final String GZIP = "gzip";
+    public static final String LZ4 = "lz4";
+
+    private final String encoding;
+    private final int thresholdBytes;
+
+    /**
+     * @param encoding          the encoding of the compressed messages (gzip or lz4). The messages are not compressed
+     *                          if it is null or empty
+     * @param thresholdBytes    the size above which the messages are compressed
+     * @throws IllegalArgumentException if the encoding is not supported
+     */
+    public PayloadCompression(String encoding, int thresholdBytes) {
+        if (encoding != null && !encoding.trim().isEmpty()) {
+            this.encoding = encoding.trim().toLowerCase();
+            if (!this.encoding.equals(GZIP) && !this.encoding.equals(LZ4))
+                throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+        } else
+            this.encoding = null;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    /**
+     * @return the content encoding of a message of that size, or null if it is sent uncompressed
+     */
+    public String encodingOf(byte[] message) {
+        return this.encoding != null && message.length > this.thresholdBytes ? this.encoding : null;
+    }
+
+    /**
+     * Compresses a message with the given encoding, as returned by {@link #encodingOf(byte[])}
+     */
+    public static byte[] compress(byte[] message, String encoding) throws IOException {
+        if (encoding == null)
+            return message;
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(message.length / 4);
+        try (OutputStream out = encoding.equals(LZ4) ? new LZ4FrameOutputStream(compressed) :
+                new GZIPOutputStream(compressed)) {
+            out.write(message);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Decompresses a message body according to its content encoding
+     *
+     * @param body      the body of the message
+     * @param encoding  the content encoding of the message, null or identity if it is not compressed
+     * @return the decompressed body
+     * @throws IOException if the encoding is not supported or the body is corrupted
+     */
+    public static byte[] decompress(byte[] body, String encoding) throws IOException {
+        if (encoding == null || encoding.isEmpty() || encoding.equalsIgnoreCase("identity"))
+            return body;
+
+        InputStream compressed = new ByteArrayInputStream(body);
+        switch (encoding.toLowerCase()) {
+            case GZIP:
+                compressed = new GZIPInputStream(compressed);
+                break;
+            case LZ4:
+                compressed = new LZ4FrameInputStream(compressed);
+                break;
+            default:
+                throw new IOException("Unsupported content encoding: " + encoding);
+        }
+
+        try (InputStream in = compressed) {
+            ByteArrayOutputStream decompressed = new ByteArrayOutputStream(body.length * 4);
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1)
+                decompressed.write(buffer, 0, read);
+            return decompressed.toByteArray();
+        }
+    }
+}
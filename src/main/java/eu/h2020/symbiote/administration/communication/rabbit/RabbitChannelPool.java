@@ -0,0 +1,132 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounded pool of AMQP channels shared by all the threads that talk to RabbitMQ.
+ *
+ * AMQP channels must not be used concurrently for publishing, so each channel is guarded by its own lock. Threads are
+ * striped over the channels by their id, which means that two request threads only contend if they fall on the same
+ * stripe. The channels can be spread over several connections, so that the broker does not throttle all the traffic
+ * of Administration through a single socket.
+ */
+public class RabbitChannelPool {
+    private static Log log = LogFactory.getLog(RabbitChannelPool.class);
+
+    private final List<Connection> connections = new ArrayList<>();
+    private final Channel[] channels;
+    private final Object[] locks;
+
+    /**
+     * Callback executed with exclusive access to one of the pooled channels
+     */
+    public interface ChannelCallback<T> {
+        T doWithChannel(Channel channel) throws IOException;
+    }
+
+    /**
+     * Opens the connections and the channels of the pool.
+     *
+     * @param factory           the factory used to open the connections
+     * @param connectionCount   the number of connections over which the channels are spread
+     * @param channelCount      the number of channels in the pool
+     */
+    public RabbitChannelPool(ConnectionFactory factory, int connectionCount, int channelCount)
+            throws IOException, TimeoutException {
+
+        if (connectionCount < 1)
+            connectionCount = 1;
+        if (channelCount < connectionCount)
+            channelCount = connectionCount;
+
+        for (int i = 0; i < connectionCount; i++)
+            connections.add(factory.newConnection());
+
+        channels = new Channel[channelCount];
+        locks = new Object[channelCount];
+        for (int i = 0; i < channelCount; i++) {
+            channels[i] = connectionOf(i).createChannel();
+            locks[i] = new Object();
+        }
+
+        log.info("Opened " + channelCount + " channels over " + connectionCount + " connection(s)");
+    }
+
+    /**
+     * Executes the callback on the channel of the stripe of the current thread. The channel is reopened if the broker
+     * has closed it, e.g. after publishing to an exchange which does not exist.
+     *
+     * @param callback  the action to be performed with the channel
+     * @return the result of the callback
+     * @throws IOException if the callback fails or the connection of the channel is down, waiting to be recovered
+     */
+    public <T> T execute(ChannelCallback<T> callback) throws IOException {
+        int stripe = (int) (Thread.currentThread().getId() % channels.length);
+
+        synchronized (locks[stripe]) {
+            if (!channels[stripe].isOpen()) {
+                // The channels of a lost connection are recovered together with it
+                if (!connectionOf(stripe).isOpen())
+                    throw new IOException("The connection to the broker is down");
+
+                log.debug("Reopening closed channel of stripe " + stripe);
+                channels[stripe] = connectionOf(stripe).createChannel();
+            }
+            return callback.doWithChannel(channels[stripe]);
+        }
+    }
+
+    /**
+     * @return the first connection of the pool, used for channels which are not shared, like the consumer ones
+     */
+    public Connection getConnection() {
+        return connections.get(0);
+    }
+
+    public List<Connection> getConnections() {
+        return Collections.unmodifiableList(connections);
+    }
+
+    public int size() {
+        return channels.length;
+    }
+
+    /**
+     * Closes all the channels and the connections of the pool
+     */
+    public void close() {
+        for (int i = 0; i < channels.length; i++) {
+            synchronized (locks[i]) {
+                try {
+                    if (channels[i] != null && channels[i].isOpen())
+                        channels[i].close();
+                } catch (IOException | TimeoutException e) {
+                    log.error("", e);
+                }
+            }
+        }
+
+        for (Connection connection : connections) {
+            try {
+                if (connection.isOpen())
+                    connection.close();
+            } catch (IOException e) {
+                log.error("", e);
+            }
+        }
+    }
+
+    private Connection connectionOf(int stripe) {
+        return connections.get(stripe % connections.size());
+    }
+}
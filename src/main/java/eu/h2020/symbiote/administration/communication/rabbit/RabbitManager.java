@@ -1,9 +1,13 @@
 package eu.h2020.symbiote.administration.communication.rabbit;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rabbitmq.client.*;
 import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+import eu.h2020.symbiote.administration.exceptions.rabbit.ServiceOverloadedException;
 import eu.h2020.symbiote.core.cci.*;
 import eu.h2020.symbiote.core.internal.*;
 import eu.h2020.symbiote.model.mim.Federation;
@@ -17,18 +21,17 @@ import eu.h2020.symbiote.security.communication.payloads.*;
 import org.apache.commons.lang.builder.ReflectionToStringBuilder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PreDestroy;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Set;
-import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 
 /**
@@ -42,14 +45,68 @@ import java.util.concurrent.TimeoutException;
 public class RabbitManager {
     private static Log log = LogFactory.getLog(RabbitManager.class);
 
+    private static final String REPLY_QUEUE_PREFIX = "symbIoTe.administration.replies.";
+
     @Value("${rabbit.host}")
     private String rabbitHost;
+    @Value("${rabbit.port:5672}")
+    private int rabbitPort;
     @Value("${rabbit.username}")
     private String rabbitUsername;
     @Value("${rabbit.password}")
     private String rabbitPassword;
     @Value("${rabbit.timeoutMillis}")
     private Long rabbitTimeout;
+    @Value("${rabbit.channelPool.size:0}")
+    private int channelPoolSize;
+    @Value("${rabbit.channelPool.connections:1}")
+    private int channelPoolConnections;
+    @Value("${rabbit.publisher.maxRetries:30}")
+    private int publisherMaxRetries;
+    @Value("${rabbit.publisher.retryDelayMillis:1000}")
+    private long publisherRetryDelayMillis;
+    @Value("${rabbit.circuitBreaker.failureThreshold:5}")
+    private int circuitBreakerFailureThreshold;
+    @Value("${rabbit.circuitBreaker.openMillis:30000}")
+    private long circuitBreakerOpenMillis;
+    @Value("${rabbit.adaptiveTimeout.percentile:0}")
+    private double adaptiveTimeoutPercentile;
+    @Value("${rabbit.adaptiveTimeout.headroom:3}")
+    private double adaptiveTimeoutHeadroom;
+    @Value("${rabbit.adaptiveTimeout.minSamples:20}")
+    private int adaptiveTimeoutMinSamples;
+    @Value("${rabbit.adaptiveTimeout.minMillis:1000}")
+    private long adaptiveTimeoutMinMillis;
+    @Value("${rabbit.adaptiveTimeout.maxMillis:60000}")
+    private long adaptiveTimeoutMaxMillis;
+    @Value("${rabbit.adaptiveTimeout.bounds:}")
+    private String adaptiveTimeoutBounds;
+    @Value("${rabbit.recovery.initialIntervalMillis:1000}")
+    private long recoveryInitialIntervalMillis;
+    @Value("${rabbit.recovery.maxIntervalMillis:30000}")
+    private long recoveryMaxIntervalMillis;
+    @Value("${rabbit.bulkhead.maxConcurrent:0}")
+    private int bulkheadMaxConcurrent;
+    @Value("${rabbit.bulkhead.limits:}")
+    private String bulkheadLimits;
+    @Value("${rabbit.bulkhead.components:}")
+    private String bulkheadComponents;
+    @Value("${rabbit.bulkhead.maxWaitMillis:1000}")
+    private long bulkheadMaxWaitMillis;
+    @Value("${rabbit.bulkhead.retryAfterSeconds:5}")
+    private long bulkheadRetryAfterSeconds;
+    @Value("${rabbit.compression.encoding:}")
+    private String compressionEncoding;
+    @Value("${rabbit.compression.thresholdBytes:65536}")
+    private int compressionThresholdBytes;
+    @Value("${rabbit.expiration.enabled:true}")
+    private boolean expirationEnabled;
+    @Value("${rabbit.expiration.deadlineHeader:}")
+    private String expirationDeadlineHeader;
+    @Value("${rabbit.expiration.lateReplyWindowMillis:60000}")
+    private long expirationLateReplyWindowMillis;
+    @Value("${rabbit.claimCheck.thresholdBytes:0}")
+    private int claimCheckThresholdBytes;
 
     @Value("${aam.deployment.owner.username}")
     private String aaMOwnerUsername;
@@ -123,6 +180,9 @@ public class RabbitManager {
     private String platformResourcesRequestedRoutingKey;
     @Value("${rabbit.routingKey.platform.platformDetailsRequested}")
     private String platformDetailsRequestedRoutingKey;
+    // Optional multi-get of platform details. If empty, the details are requested one by one
+    @Value("${rabbit.routingKey.platform.platformsDetailsRequested:}")
+    private String platformsDetailsRequestedRoutingKey;
 
     @Value("${rabbit.routingKey.platform.model.allInformationModelsRequested}")
     private String informationModelsRequestedRoutingKey;
@@ -151,6 +211,9 @@ public class RabbitManager {
     private String sspModificationRequestedRoutingKey;
     @Value("${rabbit.routingKey.ssp.sspDetailsRequested}")
     private String sspDetailsRequestedRoutingKey;
+    // Optional multi-get of ssp details. If empty, the details are requested one by one
+    @Value("${rabbit.routingKey.ssp.sspsDetailsRequested:}")
+    private String sspsDetailsRequestedRoutingKey;
 
     // ------------ Core AAM communication ----------------
 
@@ -202,16 +265,175 @@ public class RabbitManager {
 
     // ----------------------------------------------------
 
-    private Connection connection;
-    private Channel channel;
-    private ObjectMapper mapper;
+    private RabbitChannelPool channelPool;
+    private ConfirmingPublisher eventPublisher;
+    private Channel replyChannel;
+    private String replyQueueName;
+    private JsonCodecRegistry codecs;
+    private CircuitBreakerRegistry circuitBreakers;
+    private BulkheadRegistry bulkheads;
+    private AdaptiveTimeouts timeouts;
+    private MetricRegistry metricRegistry;
+    private RpcMetrics rpcMetrics;
+    private PayloadCompression compression;
+    private ClaimCheckStore claimCheckStore;
+    private ClaimChecks claimChecks;
+
+    // The routing keys whose large requests are offloaded to the claim check store
+    private Set<String> claimCheckRoutingKeys = Collections.emptySet();
+
+    // The views of the responses which are not fully decoded, see sendRpcRequestAsync
+    private static final String RAW_VIEW = "raw";
+    private static final String SUMMARY_VIEW = "summary";
+
+    // The properties of the information models which are skipped by their summaries
+    private static final Set<String> INFORMATION_MODEL_DETAILS = Collections.singleton("rdf");
+
+    // The payloads whose readers and writers are created upfront
+    private static final Class<?>[] RPC_PAYLOADS = {
+            Platform.class, PlatformRegistryResponse.class, SmartSpace.class, SspRegistryResponse.class,
+            InformationModelRequest.class, InformationModelResponse.class, InformationModelListResponse.class,
+            GetAllMappings.class, GetSingleMapping.class, InfoModelMappingRequest.class, InfoModelMappingResponse.class,
+            MappingListResponse.class, CoreResourceRegistryRequest.class, ResourceListResponse.class,
+            ClearDataRequest.class, ClearDataResponse.class, UserManagementRequest.class, ManagementStatus.class,
+            RevocationRequest.class, RevocationResponse.class, PlatformManagementRequest.class,
+            PlatformManagementResponse.class, SmartSpaceManagementRequest.class, SmartSpaceManagementResponse.class,
+            UserDetailsResponse.class, Federation.class, ErrorResponseContainer.class
+    };
+
+    // The routing keys whose identical concurrent requests share a single RPC call
+    private Set<String> coalescedRoutingKeys = Collections.emptySet();
+
+    // RPC calls shared by identical concurrent requests, indexed by their routing key and message
+    private final ConcurrentMap<CoalescedRequest, CompletableFuture<?>> coalescedRequests = new ConcurrentHashMap<>();
+
+    // Pending RPC calls, indexed by the correlationId of the request
+    private final ConcurrentMap<String, CompletableFuture<byte[]>> pendingRpcs = new ConcurrentHashMap<>();
+
+    // Routing keys of the RPC calls which timed out recently, indexed by their correlationId, to tell the late
+    // replies from the orphaned ones
+    private final ConcurrentMap<String, String> abandonedRpcs = new ConcurrentHashMap<>();
+
+    // Completes the pending RPC calls which are not answered in time
+    private final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rabbit-rpc-timeouts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Decodes the raw response of an RPC request
+     */
+    @FunctionalInterface
+    private interface ResponseDecoder<T> {
+        T decode(byte[] responseMsg) throws IOException, CommunicationException;
+    }
+
+    /**
+     * Binds the successful response of an RPC request from its tree
+     */
+    @FunctionalInterface
+    private interface TreeDecoder<T> {
+        T decode(JsonNode response) throws IOException;
+    }
+
+    /**
+     * The routing key and message of a request, which identify the identical requests, together with the view to
+     * which its response is decoded
+     */
+    private static final class CoalescedRequest {
+        private final String routingKey;
+        private final String responseView;
+        private final byte[] message;
+        private final int hash;
+
+        private CoalescedRequest(String routingKey, String responseView, byte[] message) {
+            this.routingKey = routingKey;
+            this.responseView = responseView;
+            this.message = message;
+            this.hash = 31 * Objects.hash(routingKey, responseView) + Arrays.hashCode(message);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CoalescedRequest)) return false;
+            CoalescedRequest that = (CoalescedRequest) o;
+            return Objects.equals(routingKey, that.routingKey) && Objects.equals(responseView, that.responseView)
+                    && Arrays.equals(message, that.message);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 
     /**
      * Default constructor, initializing the JSON mapper.
      */
     public RabbitManager() {
 
-        mapper = new ObjectMapper();
+        codecs = new JsonCodecRegistry(new ObjectMapper(), RPC_PAYLOADS);
+        metricRegistry = new MetricRegistry();
+        rpcMetrics = new RpcMetrics(metricRegistry);
+        compression = new PayloadCompression(null, 0);
+        claimChecks = new ClaimChecks(null, 0, Collections.emptySet());
+        circuitBreakers = new CircuitBreakerRegistry(0, 0);
+        bulkheads = new BulkheadRegistry(metricRegistry, timeoutScheduler, 0, Collections.emptyMap(),
+                Collections.emptyMap(), 0);
+    }
+
+    /**
+     * Derives the JSON readers and writers from the application mapper, so that the RPC and the HTTP paths share the
+     * same modules and serializer caches
+     */
+    @Autowired(required = false)
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.codecs = new JsonCodecRegistry(objectMapper, RPC_PAYLOADS);
+    }
+
+    /**
+     * Uses the application metric registry, so that the RabbitMQ metrics are exposed by the actuator
+     */
+    @Autowired(required = false)
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+        this.rpcMetrics = new RpcMetrics(metricRegistry);
+    }
+
+    /**
+     * Sets the routing keys whose requests are coalesced, given as a comma separated list. Only the routing keys of
+     * idempotent requests, which do not change anything in the component answering them, must be listed.
+     */
+    @Value("${rabbit.coalescing.routingKeys:}")
+    public void setCoalescedRoutingKeys(String routingKeys) {
+        this.coalescedRoutingKeys = parseRoutingKeys(routingKeys);
+    }
+
+    /**
+     * Sets the routing keys whose requests larger than rabbit.claimCheck.thresholdBytes are offloaded to the claim
+     * check store, given as a comma separated list. The components answering them must support the claim checks.
+     */
+    @Value("${rabbit.claimCheck.routingKeys:}")
+    public void setClaimCheckRoutingKeys(String routingKeys) {
+        this.claimCheckRoutingKeys = parseRoutingKeys(routingKeys);
+    }
+
+    /**
+     * Uses the claim check store configured by rabbit.claimCheck.store, if any (see {@link ClaimChecks})
+     */
+    @Autowired(required = false)
+    public void setClaimCheckStore(ClaimCheckStore claimCheckStore) {
+        this.claimCheckStore = claimCheckStore;
+    }
+
+    private static Set<String> parseRoutingKeys(String routingKeys) {
+        Set<String> keys = new HashSet<>();
+        for (String routingKey : routingKeys.split(","))
+            if (!routingKey.trim().isEmpty())
+                keys.add(routingKey.trim());
+        return keys;
     }
 
 
@@ -228,60 +450,92 @@ public class RabbitManager {
 
             // factory.setHost("localhost");
             factory.setHost(this.rabbitHost);
+            factory.setPort(this.rabbitPort);
             factory.setUsername(this.rabbitUsername);
             factory.setPassword(this.rabbitPassword);
 
-            this.connection = factory.newConnection();
-
-            this.channel = this.connection.createChannel();
-            this.channel.exchangeDeclare(this.platformExchangeName,
-                    this.platformExchangeType,
-                    this.platformExchangeDurable,
-                    this.platformExchangeAutodelete,
-                    this.platformExchangeInternal,
-                    null);
-
-            this.channel.exchangeDeclare(this.informationModelExchangeName,
-                    this.informationModelExchangeType,
-                    this.informationModelExchangeDurable,
-                    this.informationModelExchangeAutodelete,
-                    this.informationModelExchangeInternal,
-                    null);
-
-            this.channel.exchangeDeclare(this.mappingExchangeName,
-                    this.mappingExchangeType,
-                    this.mappingExchangeDurable,
-                    this.mappingExchangeAutodelete,
-                    this.mappingExchangeInternal,
-                    null);
-
-            this.channel.exchangeDeclare(this.sspExchangeName,
-                    this.sspExchangeType,
-                    this.sspExchangeDurable,
-                    this.sspExchangeAutodelete,
-                    this.sspExchangeInternal,
-                    null);
-
-            this.channel.exchangeDeclare(this.resourceExchangeName,
-                    this.resourceExchangeType,
-                    this.resourceExchangeDurable,
-                    this.resourceExchangeAutodelete,
-                    this.resourceExchangeInternal,
-                    null);
-
-            this.channel.exchangeDeclare(this.aamExchangeName,
-                    this.aamExchangeType,
-                    this.aamExchangeDurable,
-                    this.aamExchangeAutodelete,
-                    this.aamExchangeInternal,
-                    null);
-
-            this.channel.exchangeDeclare(this.federationExchangeName,
-                    this.federationExchangeType,
-                    this.federationExchangeDurable,
-                    this.federationExchangeAutodelete,
-                    this.federationExchangeInternal,
-                    null);
+            // Reconnect with exponential backoff when the connection is lost, declaring again the exchanges, the reply
+            // queue and its consumer and reopening the channels
+            factory.setAutomaticRecoveryEnabled(true);
+            factory.setTopologyRecoveryEnabled(true);
+            factory.setRecoveryDelayHandler(recoveryAttempt -> Math.min(this.recoveryMaxIntervalMillis,
+                    this.recoveryInitialIntervalMillis << Math.min(Math.max(recoveryAttempt - 1, 0), 16)));
+
+            // By default, one channel per core so that the RPC throughput scales with the request threads
+            int poolSize = this.channelPoolSize > 0 ? this.channelPoolSize : Runtime.getRuntime().availableProcessors();
+            this.channelPool = new RabbitChannelPool(factory, this.channelPoolConnections, poolSize);
+
+            ConnectionRecoveryMonitor recoveryMonitor = new ConnectionRecoveryMonitor(this.metricRegistry);
+            this.channelPool.getConnections().forEach(recoveryMonitor::monitor);
+
+            this.channelPool.execute(channel -> {
+                channel.exchangeDeclare(this.platformExchangeName,
+                        this.platformExchangeType,
+                        this.platformExchangeDurable,
+                        this.platformExchangeAutodelete,
+                        this.platformExchangeInternal,
+                        null);
+
+                channel.exchangeDeclare(this.informationModelExchangeName,
+                        this.informationModelExchangeType,
+                        this.informationModelExchangeDurable,
+                        this.informationModelExchangeAutodelete,
+                        this.informationModelExchangeInternal,
+                        null);
+
+                channel.exchangeDeclare(this.mappingExchangeName,
+                        this.mappingExchangeType,
+                        this.mappingExchangeDurable,
+                        this.mappingExchangeAutodelete,
+                        this.mappingExchangeInternal,
+                        null);
+
+                channel.exchangeDeclare(this.sspExchangeName,
+                        this.sspExchangeType,
+                        this.sspExchangeDurable,
+                        this.sspExchangeAutodelete,
+                        this.sspExchangeInternal,
+                        null);
+
+                channel.exchangeDeclare(this.resourceExchangeName,
+                        this.resourceExchangeType,
+                        this.resourceExchangeDurable,
+                        this.resourceExchangeAutodelete,
+                        this.resourceExchangeInternal,
+                        null);
+
+                channel.exchangeDeclare(this.aamExchangeName,
+                        this.aamExchangeType,
+                        this.aamExchangeDurable,
+                        this.aamExchangeAutodelete,
+                        this.aamExchangeInternal,
+                        null);
+
+                channel.exchangeDeclare(this.federationExchangeName,
+                        this.federationExchangeType,
+                        this.federationExchangeDurable,
+                        this.federationExchangeAutodelete,
+                        this.federationExchangeInternal,
+                        null);
+                return null;
+            });
+
+            declareReplyConsumer();
+
+            this.bulkheads = new BulkheadRegistry(this.metricRegistry, this.timeoutScheduler,
+                    this.bulkheadMaxConcurrent, BulkheadRegistry.parseLimits(this.bulkheadLimits),
+                    BulkheadRegistry.parseComponents(this.bulkheadComponents), this.bulkheadMaxWaitMillis);
+            this.circuitBreakers = new CircuitBreakerRegistry(this.circuitBreakerFailureThreshold,
+                    this.circuitBreakerOpenMillis);
+            this.timeouts = new AdaptiveTimeouts(this.rabbitTimeout,
+                    this.adaptiveTimeoutPercentile, this.adaptiveTimeoutHeadroom, this.adaptiveTimeoutMinSamples,
+                    new AdaptiveTimeouts.Bounds(this.adaptiveTimeoutMinMillis, this.adaptiveTimeoutMaxMillis),
+                    AdaptiveTimeouts.parseBounds(this.adaptiveTimeoutBounds));
+            this.compression = new PayloadCompression(this.compressionEncoding, this.compressionThresholdBytes);
+            this.claimChecks = new ClaimChecks(this.claimCheckStore, this.claimCheckThresholdBytes,
+                    this.claimCheckRoutingKeys);
+            this.eventPublisher = new ConfirmingPublisher(this.channelPool.getConnection(), this.metricRegistry,
+                    this.publisherMaxRetries, this.publisherRetryDelayMillis);
 
         } catch (IOException | TimeoutException e) {
             log.error("", e);
@@ -289,15 +543,117 @@ public class RabbitManager {
     }
 
     /**
-     * Cleanup method, used to close RabbitMQ channel and connection.
+     * Declares the reply queue of this instance and starts the single consumer which dispatches all the RPC responses
+     * to the pending calls, based on their correlationId. The queue is exclusive to the connection, so it is removed
+     * by the broker when Administration disconnects. The queue and the consumer are declared again when the
+     * connection is recovered, but the replies to the pending calls are lost with the old queue: these calls fail
+     * right away instead of waiting for their timeout.
+     */
+    private void declareReplyConsumer() throws IOException {
+        this.replyChannel = this.channelPool.getConnection().createChannel();
+        this.replyQueueName = this.replyChannel.queueDeclare(REPLY_QUEUE_PREFIX + UUID.randomUUID(),
+                false, true, true, null).getQueue();
+
+        this.replyChannel.basicConsume(this.replyQueueName, true, new DefaultConsumer(this.replyChannel) {
+            @Override
+            public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties properties,
+                                       byte[] body) {
+                if (!ClaimChecks.isClaimCheck(properties.getHeaders()))
+                    onReply(properties.getCorrelationId(), properties.getContentEncoding(), body);
+                else
+                    // Not on the thread of the consumer, which dispatches the rest of the replies
+                    CompletableFuture.runAsync(() -> onClaimCheckReply(properties));
+            }
+        });
+        this.replyChannel.addShutdownListener(cause -> {
+            if (!cause.isInitiatedByApplication())
+                failPendingRpcs();
+        });
+        log.debug("Listening for RPC replies on queue " + this.replyQueueName);
+    }
+
+    /**
+     * Completes the pending call of a reply. The replies to the calls which already timed out are counted as late by
+     * {@link RpcMetrics}, the ones matching no call at all as orphaned.
+     */
+    private void onReply(String correlationId, String contentEncoding, byte[] body) {
+        CompletableFuture<byte[]> response = correlationId != null ? pendingRpcs.remove(correlationId) : null;
+
+        if (response != null && contentEncoding == null)
+            response.complete(body);
+        else if (response != null)
+            // Not on the thread of the consumer, which dispatches the rest of the replies
+            CompletableFuture.runAsync(() -> response.complete(decompressReply(body, contentEncoding)));
+        else {
+            String routingKey = correlationId != null ? abandonedRpcs.remove(correlationId) : null;
+            if (routingKey != null) {
+                log.debug("Discarding late reply to " + routingKey + ": " + correlationId);
+                this.rpcMetrics.onLateReply(routingKey);
+            } else {
+                log.debug("Discarding reply with unknown correlationId: " + correlationId);
+                this.rpcMetrics.onOrphanedReply();
+            }
+        }
+    }
+
+    /**
+     * Fetches the payload of a reply carrying a claim check. The call fails as for a timeout if it cannot be fetched.
+     */
+    private void onClaimCheckReply(AMQP.BasicProperties properties) {
+        byte[] body;
+        try {
+            body = this.claimChecks.fetch(properties.getHeaders());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to fetch the claim check of rpc response message", e);
+            body = null;
+        }
+
+        if (body != null)
+            onReply(properties.getCorrelationId(), properties.getContentEncoding(), body);
+        else {
+            CompletableFuture<byte[]> response = properties.getCorrelationId() != null ?
+                    pendingRpcs.remove(properties.getCorrelationId()) : null;
+            if (response != null)
+                response.complete(null);
+        }
+    }
+
+    private static byte[] decompressReply(byte[] body, String contentEncoding) {
+        try {
+            return PayloadCompression.decompress(body, contentEncoding);
+        } catch (IOException e) {
+            log.error("Failed to decompress rpc response message", e);
+            return null;
+        }
+    }
+
+    private void failPendingRpcs() {
+        int failed = 0;
+        for (String correlationId : pendingRpcs.keySet()) {
+            CompletableFuture<byte[]> response = pendingRpcs.remove(correlationId);
+            if (response != null && response.complete(null))
+                failed++;
+        }
+
+        if (failed > 0) {
+            log.warn("Failed " + failed + " pending RPC calls, whose replies were lost with the connection");
+            this.metricRegistry.counter(ConnectionRecoveryMonitor.METRIC_PREFIX + "failedRpcs").inc(failed);
+        }
+    }
+
+    /**
+     * Cleanup method, used to close RabbitMQ channels and connections.
      */
     @PreDestroy
     private void cleanup() {
+        this.timeoutScheduler.shutdownNow();
+        if (this.eventPublisher != null)
+            this.eventPublisher.close();
         try {
-            if (this.channel != null && this.channel.isOpen())
-                this.channel.close();
-            if (this.connection != null && this.connection.isOpen())
-                this.connection.close();
+            if (this.replyChannel != null && this.replyChannel.isOpen())
+                this.replyChannel.close();
+            if (this.channelPool != null)
+                this.channelPool.close();
         } catch (IOException | TimeoutException e) {
             log.error("", e);
         }
@@ -306,84 +662,377 @@ public class RabbitManager {
 
     /**
      * Method used to send message via RPC (Remote Procedure Call) pattern.
-     * In this implementation it covers asynchronous Rabbit communication with synchronous one, as it is used by conventional REST facade.
-     * Before sending a message, a temporary response queue is declared and its name is passed along with the message.
-     * When a consumer handles the message, it returns the result via the response queue.
-     * Since this is a synchronous pattern, it uses timeout of 20 seconds. 
-     * If the response doesn't come in that time, the method returns with null result.
+     * All the requests carry the name of the reply queue of this instance, which is declared once in
+     * {@link #initCommunication()}. A single consumer listens to that queue and completes the future of the call
+     * with the same correlationId, so every RPC costs one publish and one delivery and no thread is parked while
+     * waiting for the response.
+     * If the response doesn't come in time, the future completes with null. The timeout is rabbit.timeoutMillis,
+     * unless rabbit.adaptiveTimeout.percentile is set: the timeout of each routing key is then derived from the
+     * latencies of its recent responses (see {@link AdaptiveTimeouts}).
+     * Each exchange has a circuit breaker: after rabbit.circuitBreaker.failureThreshold consecutive timeouts the
+     * requests to that exchange fail immediately with a {@link CommunicationException}, until a probe request gets a
+     * response again.
+     * The component behind each exchange (rabbit.bulkhead.components) also has a bulkhead (see {@link Bulkhead}),
+     * limiting the requests in flight to rabbit.bulkhead.limits: a request over the limit is queued, without blocking
+     * the caller, up to rabbit.bulkhead.maxWaitMillis for a free slot and then fails with a
+     * {@link ServiceOverloadedException}.
+     * The message and the response are passed as the raw bodies of the deliveries, so that large payloads are
+     * neither copied into Strings nor re-encoded on the way. The messages larger than
+     * rabbit.compression.thresholdBytes are compressed with rabbit.compression.encoding (gzip or lz4, if set) and the
+     * compressed responses are decompressed according to their contentEncoding (see {@link PayloadCompression}).
+     * Unless rabbit.expiration.enabled is false, the requests expire with their timeout, so that the broker drops
+     * the ones which are still queued once nobody waits for their response. If rabbit.expiration.deadlineHeader is
+     * set, the requests also carry a header with that name holding the absolute deadline (epoch milliseconds), for
+     * the responders to discard the requests whose caller has already given up.
+     * The requests of rabbit.claimCheck.routingKeys larger than rabbit.claimCheck.thresholdBytes are put in the claim
+     * check store and only their reference travels in the message, while the replies carrying a claim check are
+     * fetched from the store (see {@link ClaimChecks}).
+     * The latency, outcome and payload sizes of the requests of each routing key are reported by {@link RpcMetrics},
+     * as well as the replies which come after the timeout.
      *
      * @param exchangeName name of the exchange to send message to
      * @param routingKey   routing key to send message to
-     * @param message      message to be sent
+     * @param message      message to be sent, UTF-8 encoded
      * @param contentType  the content type of the message
-     * @return response from the consumer or null if timeout occurs
+     * @return future of the body of the response from the consumer, completed with null if timeout occurs and
+     * failed with {@link CommunicationException} if the circuit of the exchange is open or with
+     * {@link ServiceOverloadedException} if its bulkhead is full
      */
-    public String sendRpcMessage(String exchangeName, String routingKey, String message, String contentType) {
+    public CompletableFuture<byte[]> sendRpcMessageAsync(String exchangeName, String routingKey, byte[] message,
+                                                         String contentType) {
+        Bulkhead bulkhead = this.bulkheads.get(exchangeName);
+        CompletableFuture<Boolean> slot = bulkhead.acquire();
+        if (slot.isDone())
+            return sendRpcMessageAsync(bulkhead, slot.join(), exchangeName, routingKey, message, contentType);
+
+        // Sent once a slot is freed, but not on the thread which freed it, i.e. the one handling a reply
+        return slot.thenComposeAsync(acquired ->
+                sendRpcMessageAsync(bulkhead, acquired, exchangeName, routingKey, message, contentType));
+    }
+
+    private CompletableFuture<byte[]> sendRpcMessageAsync(Bulkhead bulkhead, boolean acquired, String exchangeName,
+                                                          String routingKey, byte[] message, String contentType) {
+        if (!acquired) {
+            CompletableFuture<byte[]> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(
+                    new ServiceOverloadedException(bulkhead.getName(), this.bulkheadRetryAfterSeconds));
+            return rejected;
+        }
+
+        CircuitBreaker circuitBreaker = this.circuitBreakers.get(exchangeName);
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            log.warn("Circuit of " + exchangeName + " is open, rejecting request to " + routingKey);
+            CompletableFuture<byte[]> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new CommunicationException(
+                    "The component behind " + exchangeName + " is not responding. Please, try again later"));
+            return rejected;
+        }
+
         String correlationId = UUID.randomUUID().toString();
-        final BlockingQueue<String> response = new ArrayBlockingQueue<>(1);
-        DefaultConsumer consumer = new DefaultConsumer(channel) {
-            @Override
-            public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties properties, byte[] body)
-                    throws IOException {
-                if (properties.getCorrelationId().equals(correlationId)) {
-                    response.offer(new String(body, "UTF-8"));
-                }
+        CompletableFuture<byte[]> response = new CompletableFuture<>();
+        pendingRpcs.put(correlationId, response);
+        this.rpcMetrics.onRequest(routingKey, message.length);
+
+        long timeoutMillis = this.timeouts.timeoutMillis(routingKey);
+        long sentAt = System.nanoTime();
+
+        ScheduledFuture<?> timeout = this.timeoutScheduler.schedule(() -> {
+            if (response.complete(null)) {
+                log.warn("Timeout while waiting for the response to " + routingKey + " after " + timeoutMillis + " ms");
+                this.timeouts.onTimeout(routingKey, timeoutMillis);
+                this.rpcMetrics.onTimeout(routingKey);
+                abandonRpc(correlationId, routingKey);
             }
-        };
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+
+        response.whenComplete((responseMsg, e) -> {
+            pendingRpcs.remove(correlationId);
+            timeout.cancel(false);
+            bulkhead.release();
+            this.rpcMetrics.onCompleted(routingKey);
+
+            if (responseMsg != null) {
+                long latency = System.nanoTime() - sentAt;
+                circuitBreaker.onSuccess();
+                this.timeouts.onResponse(routingKey, TimeUnit.NANOSECONDS.toMillis(latency));
+                this.rpcMetrics.onResponse(routingKey, latency, responseMsg.length);
+            } else
+                circuitBreaker.onFailure();
+        });
 
         try {
-            // log.debug("Sending message...");
+            String contentEncoding = this.compression.encodingOf(message);
+            byte[] compressed = PayloadCompression.compress(message, contentEncoding);
+
+            Map<String, Object> headers = new HashMap<>();
+            if (this.expirationDeadlineHeader != null && !this.expirationDeadlineHeader.isEmpty())
+                headers.put(this.expirationDeadlineHeader, System.currentTimeMillis() + timeoutMillis);
 
-            String replyQueueName = this.channel.queueDeclare().getQueue();
+            Map<String, Object> claimCheck = this.claimChecks.offload(routingKey, compressed);
+            if (claimCheck != null) {
+                headers.putAll(claimCheck);
+                response.whenComplete((responseMsg, e) -> this.claimChecks.release(claimCheck));
+            }
+            byte[] body = claimCheck != null ? new byte[0] : compressed;
 
-            AMQP.BasicProperties props = new AMQP.BasicProperties()
+            AMQP.BasicProperties.Builder propsBuilder = new AMQP.BasicProperties()
                     .builder()
                     .correlationId(correlationId)
                     .contentType(contentType)
-                    .replyTo(replyQueueName)
-                    .build();
+                    .contentEncoding(contentEncoding)
+                    .replyTo(this.replyQueueName)
+                    .headers(headers.isEmpty() ? null : headers);
+            if (this.expirationEnabled)
+                propsBuilder.expiration(String.valueOf(timeoutMillis));
+            AMQP.BasicProperties props = propsBuilder.build();
+
+            this.channelPool.execute(channel -> {
+                channel.basicPublish(exchangeName, routingKey, props, body);
+                return null;
+            });
+        } catch (IOException | RuntimeException e) {
+            // E.g. the connection is being recovered (ShutdownSignalException) or the claim check store is unreachable
+            log.warn("Failed to send request to " + routingKey + ": " + e.getMessage());
+            if (response.complete(null))
+                this.rpcMetrics.onFailure(routingKey);
+        }
+        return response;
+    }
 
-            this.channel.basicPublish(exchangeName, routingKey, props, message.getBytes());
-            this.channel.basicConsume(replyQueueName, true, consumer);
+    /**
+     * Remembers a call which timed out for rabbit.expiration.lateReplyWindowMillis, so that its reply is counted as
+     * late rather than orphaned
+     */
+    private void abandonRpc(String correlationId, String routingKey) {
+        if (this.expirationLateReplyWindowMillis <= 0)
+            return;
 
+        abandonedRpcs.put(correlationId, String.valueOf(routingKey));
+        this.timeoutScheduler.schedule(() -> abandonedRpcs.remove(correlationId),
+                this.expirationLateReplyWindowMillis, TimeUnit.MILLISECONDS);
+    }
 
-            return response.poll(rabbitTimeout, TimeUnit.MILLISECONDS);
-        } catch (IOException | InterruptedException e) {
-            log.warn("", e);
-        } finally {
-            try {
-                this.channel.basicCancel(consumer.getConsumerTag());
-            } catch (IOException e) {
-                log.error(e.getMessage(), e);
-            }
+    /**
+     * Blocking version of {@link #sendRpcMessageAsync(String, String, byte[], String)} for text messages.
+     *
+     * @param exchangeName name of the exchange to send message to
+     * @param routingKey   routing key to send message to
+     * @param message      message to be sent
+     * @param contentType  the content type of the message
+     * @return response from the consumer or null if timeout occurs or the circuit of the exchange is open
+     */
+    public String sendRpcMessage(String exchangeName, String routingKey, String message, String contentType) {
+        byte[] response;
+        try {
+            response = sendRpcMessageAsync(exchangeName, routingKey, message.getBytes(StandardCharsets.UTF_8),
+                    contentType).join();
+        } catch (CompletionException e) {
+            return null;
         }
-        return null;
+        return response != null ? new String(response, StandardCharsets.UTF_8) : null;
     }
 
     /**
-     * Method used to publish a message
+     * Sends an RPC request and decodes its response. The decoding does not run on the thread of the reply consumer,
+     * so that a large response does not delay the dispatching of the rest. A null response (timeout) stays null.
+     * If the routing key is listed in rabbit.coalescing.routingKeys, a request identical to one which is still in
+     * flight (same routing key and message) is not sent again: it shares the RPC call and the decoded response of
+     * the first one, so the callers must not modify that response.
      *
      * @param exchangeName name of the exchange to send message to
      * @param routingKey   routing key to send message to
      * @param message      message to be sent
      * @param contentType  the content type of the message
+     * @param decoder      the decoder of the response
+     * @return future of the decoded response
+     */
+    private <T> CompletableFuture<T> sendRpcRequestAsync(String exchangeName, String routingKey, byte[] message,
+                                                         String contentType, ResponseDecoder<T> decoder) {
+        return sendRpcRequestAsync(exchangeName, routingKey, message, contentType, null, decoder);
+    }
+
+    /**
+     * Same as {@link #sendRpcRequestAsync(String, String, byte[], String, ResponseDecoder)}, for a request whose
+     * response is decoded to another view than usual, e.g. as {@link RawRegistryResponse} or without some of its
+     * fields. It is only coalesced with the identical requests whose response is decoded to the same view.
      */
-    private void publishMessage(String exchangeName, String routingKey, String message, String contentType) {
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> sendRpcRequestAsync(String exchangeName, String routingKey, byte[] message,
+                                                         String contentType, String responseView,
+                                                         ResponseDecoder<T> decoder) {
+        if (!this.coalescedRoutingKeys.contains(routingKey))
+            return decodeAsync(routingKey, sendRpcMessageAsync(exchangeName, routingKey, message, contentType), decoder);
+
+        CoalescedRequest request = new CoalescedRequest(routingKey, responseView, message);
+        CompletableFuture<T> response = new CompletableFuture<>();
+        CompletableFuture<?> inFlight = this.coalescedRequests.putIfAbsent(request, response);
+        if (inFlight != null) {
+            this.rpcMetrics.onCoalesced(routingKey);
+            return (CompletableFuture<T>) inFlight;
+        }
+
+        decodeAsync(routingKey, sendRpcMessageAsync(exchangeName, routingKey, message, contentType), decoder)
+                .whenComplete((decoded, e) -> {
+                    this.coalescedRequests.remove(request, response);
+                    if (e != null)
+                        response.completeExceptionally(e);
+                    else
+                        response.complete(decoded);
+                });
+        return response;
+    }
+
+    /**
+     * Decodes the response of a request to the routing key, reporting the error and invalid responses to
+     * {@link RpcMetrics}
+     */
+    private <T> CompletableFuture<T> decodeAsync(String routingKey, CompletableFuture<byte[]> responseMsg,
+                                                 ResponseDecoder<T> decoder) {
+        return responseMsg.thenApplyAsync(msg -> {
+            if (msg == null)
+                return null;
 
+            try {
+                return decoder.decode(msg);
+            } catch (IOException e) {
+                log.error("Failed (un)marshalling of rpc response message", e);
+                this.rpcMetrics.onInvalidResponse(routingKey);
+                return null;
+            } catch (CommunicationException e) {
+                this.rpcMetrics.onErrorResponse(routingKey);
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Decodes a response of the Registry, reporting any failure as {@link CommunicationException}
+     */
+    private <T> T readRegistryResponse(byte[] responseMsg, Class<T> type) throws CommunicationException {
+        return readRegistryResponse(responseMsg, tree -> codecs.treeToValue(tree, type));
+    }
+
+    private <T> T readRegistryResponse(byte[] responseMsg, JavaType type) throws CommunicationException {
+        return readRegistryResponse(responseMsg, tree -> codecs.<T>treeToValue(tree, type));
+    }
+
+    private <T> T readRegistryResponse(byte[] responseMsg, TreeDecoder<T> binder) throws CommunicationException {
         try {
-            AMQP.BasicProperties props = new AMQP.BasicProperties()
-                    .builder()
-                    .contentType(contentType)
-                    .build();
+            return readResponse(responseMsg, binder, "Registry");
+        } catch (IOException e) {
+            throw new CommunicationException(e);
+        }
+    }
 
+    /**
+     * Decodes a response which is replaced by an {@link ErrorResponseContainer} when the request fails. The error
+     * message of the container is reported as {@link CommunicationException}.
+     */
+    private <T> T readResponseOrError(byte[] responseMsg, Class<T> type, String component)
+            throws IOException, CommunicationException {
+        return readResponse(responseMsg, tree -> codecs.treeToValue(tree, type), component);
+    }
 
-            this.channel.basicPublish(exchangeName, routingKey, props, message.getBytes());
+    private <T> T readResponseOrError(byte[] responseMsg, JavaType type, String component)
+            throws IOException, CommunicationException {
+        return readResponse(responseMsg, tree -> codecs.<T>treeToValue(tree, type), component);
+    }
 
+    /**
+     * Decoder of all the RPC responses. The response is parsed once into a tree, which is bound either to an
+     * {@link ErrorResponseContainer}, reported as {@link CommunicationException}, or to the expected type depending on
+     * its shape.
+     *
+     * @throws IOException if the response cannot be parsed or bound
+     */
+    private <T> T readResponse(byte[] responseMsg, TreeDecoder<T> binder, String component)
+            throws IOException, CommunicationException {
+        return readResponse(responseMsg, codecs::readTree, binder, component);
+    }
+
+    private <T> T readResponse(byte[] responseMsg, ResponseDecoder<JsonNode> parser, TreeDecoder<T> binder,
+                               String component) throws IOException, CommunicationException {
+        JsonNode tree;
+        try {
+            tree = parser.decode(responseMsg);
         } catch (IOException e) {
-            log.warn("", e);
+            log.error("Error in response from " + component + ".", e);
+            throw e;
+        }
+
+        if (isErrorResponse(tree)) {
+            ErrorResponseContainer error = codecs.treeToValue(tree, ErrorResponseContainer.class);
+            log.error("Error in response from " + component + ": " + error.getErrorMessage());
+            throw new CommunicationException(error.getErrorMessage());
+        }
+
+        try {
+            T response = binder.decode(tree);
+            log.trace("Received response from " + component + ".");
+            return response;
+        } catch (IOException e) {
+            log.error("Error in response from " + component + ".", e);
+            throw e;
         }
     }
 
+    /**
+     * Decodes a response of the Registry keeping its body as raw JSON (see {@link RawRegistryResponse})
+     */
+    private RawRegistryResponse readRawRegistryResponse(byte[] responseMsg) throws IOException, CommunicationException {
+        try {
+            RawRegistryResponse response = RawRegistryResponse.read(codecs.getMapper().getFactory(), responseMsg);
+            log.trace("Received response from Registry.");
+            return response;
+        } catch (IOException e) {
+            log.error("Error in response from Registry.", e);
+            throw e;
+        }
+    }
+
+    private static boolean isErrorResponse(JsonNode tree) {
+        return tree.isObject() && tree.has("errorMessage") && tree.has("errorCode");
+    }
+
+    /**
+     * Waits for the result of an async request, unwrapping the exception with which it failed.
+     */
+    private static <T> T await(CompletableFuture<T> future) throws CommunicationException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CommunicationException)
+                throw (CommunicationException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private static <T> CompletableFuture<T> marshallingFailed(String request, IOException e) {
+        log.error("Failed (un)marshalling of rpc " + request + " message", e);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Method used to publish a message. The message is published again if the broker does not confirm it.
+     *
+     * @param exchangeName name of the exchange to send message to
+     * @param routingKey   routing key to send message to
+     * @param message      message to be sent
+     * @param contentType  the content type of the message
+     */
+    private void publishMessage(String exchangeName, String routingKey, byte[] message, String contentType) {
+
+        AMQP.BasicProperties props = new AMQP.BasicProperties()
+                .builder()
+                .contentType(contentType)
+                .build();
+
+        this.eventPublisher.publish(exchangeName, routingKey, props, message);
+    }
+
     // #################################################
     // Interaction with Registry
     // #################################################
@@ -394,48 +1043,50 @@ public class RabbitManager {
      * @param exchangeName name of the exchange to send message to
      * @param routingKey   routing key to send message to
      * @param platform     platform to be sent
-     * @return response from the consumer or null if timeout occurs
+     * @return future of the response from the consumer, completed with null if timeout occurs
      */
-    public PlatformRegistryResponse sendRegistryPlatformMessage(String exchangeName, String routingKey,
-                                                                Platform platform) throws CommunicationException {
+    public CompletableFuture<PlatformRegistryResponse> sendRegistryPlatformMessageAsync(String exchangeName,
+                                                                                        String routingKey,
+                                                                                        Platform platform) {
 
         log.trace("sendRegistryPlatformMessage");
 
         try {
-            
-            String message = mapper.writeValueAsString(platform);
+            byte[] message = codecs.write(platform);
 
-            String responseMsg = this.sendRpcMessage(exchangeName, routingKey, message, "application/json");
-
-            if (responseMsg == null)
-                return null;
-
-            try {
-                PlatformRegistryResponse response = mapper.readValue(responseMsg, PlatformRegistryResponse.class);
-                log.trace("Received response from Registry.");
-                return response;
-
-            } catch (Exception e){
-
-                log.error("Error in response from Registry.", e);
-                throw new CommunicationException(e);
-            }
-        
+            return sendRpcRequestAsync(exchangeName, routingKey, message, "application/json",
+                    responseMsg -> readRegistryResponse(responseMsg, PlatformRegistryResponse.class));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc resource message", e);
+            return marshallingFailed("resource", e);
         }
-        return null;
     }
 
+    /**
+     * Blocking version of {@link #sendRegistryPlatformMessageAsync(String, String, Platform)}
+     *
+     * @param exchangeName name of the exchange to send message to
+     * @param routingKey   routing key to send message to
+     * @param platform     platform to be sent
+     * @return response from the consumer or null if timeout occurs
+     */
+    public PlatformRegistryResponse sendRegistryPlatformMessage(String exchangeName, String routingKey,
+                                                                Platform platform) throws CommunicationException {
+        return await(sendRegistryPlatformMessageAsync(exchangeName, routingKey, platform));
+    }
 
     /**
      * Method used to send RPC request to create platform.
      *
      * @param platform platform to be created
      */
+    public CompletableFuture<PlatformRegistryResponse> sendPlatformCreationRequestAsync(Platform platform) {
+        if (log.isDebugEnabled())
+            log.debug("sendPlatformCreationRequest to Registry for: " + ReflectionToStringBuilder.toString(platform));
+        return sendRegistryPlatformMessageAsync(this.platformExchangeName, this.platformCreationRequestedRoutingKey, platform);
+    }
+
     public PlatformRegistryResponse sendPlatformCreationRequest(Platform platform) throws CommunicationException  {
-        log.debug("sendPlatformCreationRequest to Registry for: " + ReflectionToStringBuilder.toString(platform));
-        return sendRegistryPlatformMessage(this.platformExchangeName, this.platformCreationRequestedRoutingKey, platform);
+        return await(sendPlatformCreationRequestAsync(platform));
     }
 
     /**
@@ -443,9 +1094,14 @@ public class RabbitManager {
      *
      * @param platform platform to be removed
      */
+    public CompletableFuture<PlatformRegistryResponse> sendPlatformRemovalRequestAsync(Platform platform) {
+        if (log.isDebugEnabled())
+            log.debug("sendPlatformRemovalRequest to Registry for: " + ReflectionToStringBuilder.toString(platform));
+        return sendRegistryPlatformMessageAsync(this.platformExchangeName, this.platformRemovalRequestedRoutingKey, platform);
+    }
+
     public PlatformRegistryResponse sendPlatformRemovalRequest(Platform platform) throws CommunicationException  {
-        log.debug("sendPlatformRemovalRequest to Registry for: " + ReflectionToStringBuilder.toString(platform));
-        return sendRegistryPlatformMessage(this.platformExchangeName, this.platformRemovalRequestedRoutingKey, platform);
+        return await(sendPlatformRemovalRequestAsync(platform));
     }
 
     /**
@@ -453,9 +1109,14 @@ public class RabbitManager {
      *
      * @param platform platform to be modified
      */
+    public CompletableFuture<PlatformRegistryResponse> sendPlatformModificationRequestAsync(Platform platform) {
+        if (log.isDebugEnabled())
+            log.debug("sendPlatformModificationRequest to Registry for: " + ReflectionToStringBuilder.toString(platform));
+        return sendRegistryPlatformMessageAsync(this.platformExchangeName, this.platformModificationRequestedRoutingKey, platform);
+    }
+
     public PlatformRegistryResponse sendPlatformModificationRequest(Platform platform) throws CommunicationException  {
-        log.debug("sendPlatformModificationRequest to Registry for: " + ReflectionToStringBuilder.toString(platform));
-        return sendRegistryPlatformMessage(this.platformExchangeName, this.platformModificationRequestedRoutingKey, platform);
+        return await(sendPlatformModificationRequestAsync(platform));
     }
 
     /**
@@ -465,48 +1126,50 @@ public class RabbitManager {
      * @param exchangeName name of the exchange to send message to
      * @param routingKey   routing key to send message to
      * @param smartSpace   smartSpace to be sent
-     * @return response from the consumer or null if timeout occurs
+     * @return future of the response from the consumer, completed with null if timeout occurs
      */
-    public SspRegistryResponse sendRegistrySmartSpaceMessage(String exchangeName, String routingKey,
-                                                             SmartSpace smartSpace) throws CommunicationException {
+    public CompletableFuture<SspRegistryResponse> sendRegistrySmartSpaceMessageAsync(String exchangeName,
+                                                                                     String routingKey,
+                                                                                     SmartSpace smartSpace) {
 
         log.trace("sendRegistrySmartSpaceMessage");
 
         try {
+            byte[] message = codecs.write(smartSpace);
 
-            String message = mapper.writeValueAsString(smartSpace);
-
-            String responseMsg = this.sendRpcMessage(exchangeName, routingKey, message, "application/json");
-
-            if (responseMsg == null)
-                return null;
-
-            try {
-                SspRegistryResponse response = mapper.readValue(responseMsg, SspRegistryResponse.class);
-                log.trace("Received response from Registry.");
-                return response;
-
-            } catch (Exception e){
-
-                log.error("Error in response from Registry.", e);
-                throw new CommunicationException(e);
-            }
-
+            return sendRpcRequestAsync(exchangeName, routingKey, message, "application/json",
+                    responseMsg -> readRegistryResponse(responseMsg, SspRegistryResponse.class));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc resource message", e);
+            return marshallingFailed("resource", e);
         }
-        return null;
     }
 
+    /**
+     * Blocking version of {@link #sendRegistrySmartSpaceMessageAsync(String, String, SmartSpace)}
+     *
+     * @param exchangeName name of the exchange to send message to
+     * @param routingKey   routing key to send message to
+     * @param smartSpace   smartSpace to be sent
+     * @return response from the consumer or null if timeout occurs
+     */
+    public SspRegistryResponse sendRegistrySmartSpaceMessage(String exchangeName, String routingKey,
+                                                             SmartSpace smartSpace) throws CommunicationException {
+        return await(sendRegistrySmartSpaceMessageAsync(exchangeName, routingKey, smartSpace));
+    }
 
     /**
      * Method used to send RPC request to create smartSpace.
      *
      * @param smartSpace smartSpace to be created
      */
+    public CompletableFuture<SspRegistryResponse> sendSmartSpaceCreationRequestAsync(SmartSpace smartSpace) {
+        if (log.isDebugEnabled())
+            log.debug("sendSmartSpaceCreationRequest to Registry for: " + ReflectionToStringBuilder.toString(smartSpace));
+        return sendRegistrySmartSpaceMessageAsync(this.sspExchangeName, this.sspCreationRequestedRoutingKey, smartSpace);
+    }
+
     public SspRegistryResponse sendSmartSpaceCreationRequest(SmartSpace smartSpace) throws CommunicationException  {
-        log.debug("sendSmartSpaceCreationRequest to Registry for: " + ReflectionToStringBuilder.toString(smartSpace));
-        return sendRegistrySmartSpaceMessage(this.sspExchangeName, this.sspCreationRequestedRoutingKey, smartSpace);
+        return await(sendSmartSpaceCreationRequestAsync(smartSpace));
     }
 
     /**
@@ -514,9 +1177,14 @@ public class RabbitManager {
      *
      * @param smartSpace smartSpace to be removed
      */
+    public CompletableFuture<SspRegistryResponse> sendSmartSpaceRemovalRequestAsync(SmartSpace smartSpace) {
+        if (log.isDebugEnabled())
+            log.debug("sendSmartSpaceRemovalRequest to Registry for: " + ReflectionToStringBuilder.toString(smartSpace));
+        return sendRegistrySmartSpaceMessageAsync(this.sspExchangeName, this.sspRemovalRequestedRoutingKey, smartSpace);
+    }
+
     public SspRegistryResponse sendSmartSpaceRemovalRequest(SmartSpace smartSpace) throws CommunicationException  {
-        log.debug("sendSmartSpaceRemovalRequest to Registry for: " + ReflectionToStringBuilder.toString(smartSpace));
-        return sendRegistrySmartSpaceMessage(this.sspExchangeName, this.sspRemovalRequestedRoutingKey, smartSpace);
+        return await(sendSmartSpaceRemovalRequestAsync(smartSpace));
     }
 
     /**
@@ -524,9 +1192,14 @@ public class RabbitManager {
      *
      * @param smartSpace smartSpace to be modified
      */
+    public CompletableFuture<SspRegistryResponse> sendSmartSpaceModificationRequestAsync(SmartSpace smartSpace) {
+        if (log.isDebugEnabled())
+            log.debug("sendSmartSpaceModificationRequest to Registry for: " + ReflectionToStringBuilder.toString(smartSpace));
+        return sendRegistrySmartSpaceMessageAsync(this.sspExchangeName, this.sspModificationRequestedRoutingKey, smartSpace);
+    }
+
     public SspRegistryResponse sendSmartSpaceModificationRequest(SmartSpace smartSpace) throws CommunicationException  {
-        log.debug("sendSmartSpaceModificationRequest to Registry for: " + ReflectionToStringBuilder.toString(smartSpace));
-        return sendRegistrySmartSpaceMessage(this.sspExchangeName, this.sspModificationRequestedRoutingKey, smartSpace);
+        return await(sendSmartSpaceModificationRequestAsync(smartSpace));
     }
 
 
@@ -534,362 +1207,448 @@ public class RabbitManager {
      * Helper method that provides JSON marshalling, unmarshalling and RabbitMQ communication with the Registry
      *
      * @param platformId     id of the platform which want the details
-     * @return response from the consumer or null if timeout occurs
+     * @return future of the response from the consumer, completed with null if timeout occurs
      */
-    public PlatformRegistryResponse sendGetPlatformDetailsMessage(String platformId) throws CommunicationException {
+    public CompletableFuture<PlatformRegistryResponse> sendGetPlatformDetailsMessageAsync(String platformId) {
 
         log.debug("sendGetPlatformDetailsMessage for platform: " + platformId);
 
-        String responseMsg = this.sendRpcMessage(this.platformExchangeName, this.platformDetailsRequestedRoutingKey,
-                platformId, "text/plain");
-
-        if (responseMsg == null)
-            return null;
-
-        try {
-            PlatformRegistryResponse response = mapper.readValue(responseMsg, PlatformRegistryResponse.class);
-            log.trace("Received response from Registry.");
-            return response;
-
-        } catch (Exception e){
+        return sendRpcRequestAsync(this.platformExchangeName, this.platformDetailsRequestedRoutingKey,
+                platformId.getBytes(StandardCharsets.UTF_8), "text/plain",
+                responseMsg -> readRegistryResponse(responseMsg, PlatformRegistryResponse.class));
+    }
 
-            log.error("Error in response from Registry.", e);
-            throw new CommunicationException(e);
-        }
+    public PlatformRegistryResponse sendGetPlatformDetailsMessage(String platformId) throws CommunicationException {
+        return await(sendGetPlatformDetailsMessageAsync(platformId));
     }
 
     /**
      * Helper method that provides JSON marshalling, unmarshalling and RabbitMQ communication with the Registry
      *
      * @param sspId     id of the ssp which want the details
-     * @return response from the consumer or null if timeout occurs
+     * @return future of the response from the consumer, completed with null if timeout occurs
      */
-    public SspRegistryResponse sendGetSSPDetailsMessage(String sspId) throws CommunicationException {
+    public CompletableFuture<SspRegistryResponse> sendGetSSPDetailsMessageAsync(String sspId) {
 
         log.debug("sendGetSSPDetailsMessage for platform: " + sspId);
 
-        String responseMsg = this.sendRpcMessage(this.sspExchangeName, this.sspDetailsRequestedRoutingKey,
-                sspId, "text/plain");
+        return sendRpcRequestAsync(this.sspExchangeName, this.sspDetailsRequestedRoutingKey,
+                sspId.getBytes(StandardCharsets.UTF_8), "text/plain",
+                responseMsg -> readRegistryResponse(responseMsg, SspRegistryResponse.class));
+    }
 
-        if (responseMsg == null)
-            return null;
+    public SspRegistryResponse sendGetSSPDetailsMessage(String sspId) throws CommunicationException {
+        return await(sendGetSSPDetailsMessageAsync(sspId));
+    }
 
-        try {
-            SspRegistryResponse response = mapper.readValue(responseMsg, SspRegistryResponse.class);
-            log.trace("Received response from Registry.");
-            return response;
+    /**
+     * Requests the details of several platforms from the Registry. If the Registry offers a multi-get routing key
+     * (rabbit.routingKey.platform.platformsDetailsRequested), a single request carrying the JSON array of the ids is
+     * sent and the response is expected to be a JSON object with the response of each id. Otherwise, the single
+     * requests are all published at once and their responses are collected as they arrive.
+     *
+     * @param platformIds   the ids of the platforms
+     * @return future of the responses indexed by platform id. The ids for which no response could be obtained are
+     * missing from the map. The future only fails with a {@link ServiceOverloadedException} if the bulkhead of the
+     * Registry rejects any of the requests
+     */
+    public CompletableFuture<Map<String, PlatformRegistryResponse>> sendGetPlatformDetailsMessagesAsync(
+            Collection<String> platformIds) {
 
-        } catch (Exception e){
+        log.debug("sendGetPlatformDetailsMessages for platforms: " + platformIds);
 
-            log.error("Error in response from Registry.", e);
-            throw new CommunicationException(e);
-        }
+        if (platformsDetailsRequestedRoutingKey == null || platformsDetailsRequestedRoutingKey.isEmpty())
+            return collectResponses(platformIds, this::sendGetPlatformDetailsMessageAsync);
+
+        return sendMultiGetAsync(this.platformExchangeName, this.platformsDetailsRequestedRoutingKey, platformIds,
+                PlatformRegistryResponse.class);
+    }
+
+    public Map<String, PlatformRegistryResponse> sendGetPlatformDetailsMessages(Collection<String> platformIds) {
+        return awaitBatch(sendGetPlatformDetailsMessagesAsync(platformIds));
     }
 
     /**
-     * Method used to get all the available information models from the Registry
+     * Requests the details of several SSPs from the Registry, in the same way as
+     * {@link #sendGetPlatformDetailsMessagesAsync(Collection)}
      *
+     * @param sspIds   the ids of the ssps
+     * @return future of the responses indexed by ssp id, in the same way as
+     * {@link #sendGetPlatformDetailsMessagesAsync(Collection)}
      */
-    public InformationModelListResponse sendListInfoModelsRequest()
-            throws CommunicationException {
+    public CompletableFuture<Map<String, SspRegistryResponse>> sendGetSSPDetailsMessagesAsync(Collection<String> sspIds) {
 
-        log.debug("sendListInfoModelsRequest to Registry");
+        log.debug("sendGetSSPDetailsMessages for ssps: " + sspIds);
 
-        try {
-            // The message is false to indicate that we do not need the rdf of Information Models
-            String responseMsg = this.sendRpcMessage(this.informationModelExchangeName,
-                    this.informationModelsRequestedRoutingKey, "false", "text/plain");
+        if (sspsDetailsRequestedRoutingKey == null || sspsDetailsRequestedRoutingKey.isEmpty())
+            return collectResponses(sspIds, this::sendGetSSPDetailsMessageAsync);
 
-            if (responseMsg == null)
-                return null;
+        return sendMultiGetAsync(this.sspExchangeName, this.sspsDetailsRequestedRoutingKey, sspIds,
+                SspRegistryResponse.class);
+    }
 
-            try {
-                InformationModelListResponse response = mapper.readValue(responseMsg,
-                        InformationModelListResponse.class);
-                log.trace("Received information model details response from Registry.");
-                return response;
+    public Map<String, SspRegistryResponse> sendGetSSPDetailsMessages(Collection<String> sspIds) {
+        return awaitBatch(sendGetSSPDetailsMessagesAsync(sspIds));
+    }
 
-            } catch (Exception e){
+    private <T> CompletableFuture<Map<String, T>> collectResponses(Collection<String> ids,
+                                                                  Function<String, CompletableFuture<T>> request) {
+        Map<String, T> responses = new ConcurrentHashMap<>();
+        AtomicReference<ServiceOverloadedException> overloaded = new AtomicReference<>();
+
+        CompletableFuture<?>[] futures = ids.stream()
+                .distinct()
+                .map(id -> request.apply(id).handle((response, e) -> {
+                    if (overloadOf(e) != null)
+                        overloaded.compareAndSet(null, overloadOf(e));
+                    else if (e != null)
+                        log.warn("Could not get the details of " + id, e);
+                    else if (response != null)
+                        responses.put(id, response);
+                    return null;
+                }))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(futures).thenApply(v -> {
+            if (overloaded.get() != null)
+                throw overloaded.get();
+            return responses;
+        });
+    }
 
-                log.error("Error in information model details response response from Registry.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
+    /**
+     * @return the rejection of a request by its bulkhead, which fails a whole batch so that it is answered with 503,
+     * or null if the request was not rejected
+     */
+    private static ServiceOverloadedException overloadOf(Throwable e) {
+        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+        return cause instanceof ServiceOverloadedException ? (ServiceOverloadedException) cause : null;
+    }
+
+    /**
+     * Waits for a batch of requests, failing with the rejection of its bulkhead if any
+     */
+    private static <T> T awaitBatch(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<Map<String, T>> sendMultiGetAsync(String exchangeName, String routingKey,
+                                                                   Collection<String> ids, Class<T> type) {
+        try {
+            byte[] message = codecs.write(new HashSet<>(ids));
+            JavaType responseType = codecs.mapOf(type);
+
+            return sendRpcRequestAsync(exchangeName, routingKey, message, "application/json",
+                    responseMsg -> this.<Map<String, T>>readRegistryResponse(responseMsg, responseType))
+                    .handle((responses, e) -> {
+                        if (overloadOf(e) != null)
+                            throw overloadOf(e);
+                        if (e != null)
+                            log.warn("Multi-get request to " + routingKey + " failed", e);
+                        return responses != null ? responses : Collections.<String, T>emptyMap();
+                    });
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc information model request message.", e);
+            log.error("Failed (un)marshalling of rpc multi-get message", e);
+            return CompletableFuture.completedFuture(Collections.emptyMap());
         }
-        return null;
     }
 
     /**
-     * Method used to request on an action for an information model
-     * @param request contains the information model
-     * @return response from registry
+     * Method used to get all the available information models from the Registry
+     *
      */
-    public InformationModelResponse sendInfoModelRequest(String routingKey, InformationModelRequest request)
-            throws CommunicationException {
+    public CompletableFuture<InformationModelListResponse> sendListInfoModelsRequestAsync() {
 
-        log.trace("sendInfoModelRequest to Registry");
+        log.debug("sendListInfoModelsRequest to Registry");
 
-        try {
+        // The message is false to indicate that we do not need the rdf of Information Models
+        return sendRpcRequestAsync(this.informationModelExchangeName,
+                this.informationModelsRequestedRoutingKey, "false".getBytes(StandardCharsets.UTF_8), "text/plain",
+                responseMsg -> readResponseOrError(responseMsg, InformationModelListResponse.class, "Registry"));
+    }
 
-            String message = mapper.writeValueAsString(request);
+    public InformationModelListResponse sendListInfoModelsRequest() throws CommunicationException {
+        return await(sendListInfoModelsRequestAsync());
+    }
 
-            // The message is false to indicate that we do not need the rdf of Information Models
-            String responseMsg = this.sendRpcMessage(this.informationModelExchangeName,
-                    routingKey, message, "application/json");
+    /**
+     * Same as {@link #sendListInfoModelsRequestAsync()}, for the callers which only need the summaries of the
+     * information models (id, name, owner, uri...). Their rdf is skipped while parsing the response, so it is never
+     * loaded in memory.
+     * @return future of the response from registry, whose information models have no rdf
+     */
+    public CompletableFuture<InformationModelListResponse> sendListInfoModelSummariesRequestAsync() {
 
-            if (responseMsg == null)
-                return null;
+        log.debug("sendListInfoModelSummariesRequest to Registry");
 
-            try {
-                InformationModelResponse response = mapper.readValue(responseMsg,
-                        InformationModelResponse.class);
-                log.trace("Received information model response from Registry.");
-                return response;
+        return sendRpcRequestAsync(this.informationModelExchangeName,
+                this.informationModelsRequestedRoutingKey, "false".getBytes(StandardCharsets.UTF_8), "text/plain",
+                SUMMARY_VIEW, responseMsg -> readResponse(responseMsg,
+                        msg -> codecs.readTree(msg, INFORMATION_MODEL_DETAILS),
+                        tree -> codecs.treeToValue(tree, InformationModelListResponse.class), "Registry"));
+    }
 
-            } catch (Exception e){
+    public InformationModelListResponse sendListInfoModelSummariesRequest() throws CommunicationException {
+        return await(sendListInfoModelSummariesRequestAsync());
+    }
 
-                log.error("Error in information model details response from Registry.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
+    /**
+     * Same as {@link #sendListInfoModelsRequestAsync()}, keeping the list of information models as raw JSON
+     * @return future of the response from registry
+     */
+    public CompletableFuture<RawRegistryResponse> sendListInfoModelsRawRequestAsync() {
+
+        log.debug("sendListInfoModelsRawRequest to Registry");
+
+        return sendRpcRequestAsync(this.informationModelExchangeName,
+                this.informationModelsRequestedRoutingKey, "false".getBytes(StandardCharsets.UTF_8), "text/plain",
+                RAW_VIEW, this::readRawRegistryResponse);
+    }
+
+    public RawRegistryResponse sendListInfoModelsRawRequest() throws CommunicationException {
+        return await(sendListInfoModelsRawRequestAsync());
+    }
+
+    /**
+     * Method used to request on an action for an information model
+     * @param request contains the information model
+     * @return future of the response from registry
+     */
+    public CompletableFuture<InformationModelResponse> sendInfoModelRequestAsync(String routingKey,
+                                                                                 InformationModelRequest request) {
+
+        log.trace("sendInfoModelRequest to Registry");
+
+        try {
+            byte[] message = codecs.write(request);
+
+            return sendRpcRequestAsync(this.informationModelExchangeName,
+                    routingKey, message, "application/json",
+                    responseMsg -> readResponseOrError(responseMsg, InformationModelResponse.class, "Registry"));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc information model request message.", e);
+            return marshallingFailed("information model request", e);
         }
-        return null;
+    }
+
+    public InformationModelResponse sendInfoModelRequest(String routingKey, InformationModelRequest request)
+            throws CommunicationException {
+        return await(sendInfoModelRequestAsync(routingKey, request));
     }
 
     /**
      * Method used request the registration of an information model
      * @param request contains the information model to be registered
-     * @return response from registry
+     * @return future of the response from registry
      */
+    public CompletableFuture<InformationModelResponse> sendRegisterInfoModelRequestAsync(InformationModelRequest request) {
+        if (log.isDebugEnabled())
+            log.debug("sendRegisterInfoModelRequest to Registry for info model: " + ReflectionToStringBuilder.toString(request));
+        return sendInfoModelRequestAsync(this.informationModelCreationRequestedRoutingKey, request);
+    }
+
     public InformationModelResponse sendRegisterInfoModelRequest(InformationModelRequest request)
             throws CommunicationException {
-        log.debug("sendRegisterInfoModelRequest to Registry for info model: " + ReflectionToStringBuilder.toString(request));
-        return sendInfoModelRequest(this.informationModelCreationRequestedRoutingKey, request);
+        return await(sendRegisterInfoModelRequestAsync(request));
     }
 
     /**
      * Method used request the removal of an information model
      * @param request contains the information model to be deleted
-     * @return response from registry
+     * @return future of the response from registry
      */
+    public CompletableFuture<InformationModelResponse> sendDeleteInfoModelRequestAsync(InformationModelRequest request) {
+        if (log.isDebugEnabled())
+            log.debug("sendDeleteInfoModelRequest to Registry for info model: " + ReflectionToStringBuilder.toString(request));
+        return sendInfoModelRequestAsync(this.informationModelRemovalRequestedRoutingKey, request);
+    }
+
     public InformationModelResponse sendDeleteInfoModelRequest(InformationModelRequest request)
             throws CommunicationException {
-        log.debug("sendDeleteInfoModelRequest to Registry for info model: " + ReflectionToStringBuilder.toString(request));
-        return sendInfoModelRequest(this.informationModelRemovalRequestedRoutingKey, request);
+        return await(sendDeleteInfoModelRequestAsync(request));
     }
 
     /**
      * Method used to get all the available mappings from the Registry
      *
      */
-    public MappingListResponse sendGetAllMappingsRequest(GetAllMappings request)
-            throws CommunicationException {
+    public CompletableFuture<MappingListResponse> sendGetAllMappingsRequestAsync(GetAllMappings request) {
 
         log.debug("sendGetAllMappingsRequest to Registry");
 
         try {
-            String message = mapper.writeValueAsString(request);
+            byte[] message = codecs.write(request);
 
-            // The message is false to indicate that we do not need the rdf of Information Models
-            String responseMsg = this.sendRpcMessage(this.mappingExchangeName,
-                    this.getAllMappingsRoutingKey, message, "application/json");
+            return sendRpcRequestAsync(this.mappingExchangeName,
+                    this.getAllMappingsRoutingKey, message, "application/json",
+                    responseMsg -> readResponseOrError(responseMsg, MappingListResponse.class, "Registry"));
+        } catch (IOException e) {
+            return marshallingFailed("get all mappings request", e);
+        }
+    }
 
-            if (responseMsg == null)
-                return null;
+    public MappingListResponse sendGetAllMappingsRequest(GetAllMappings request) throws CommunicationException {
+        return await(sendGetAllMappingsRequestAsync(request));
+    }
 
-            try {
-                MappingListResponse response = mapper.readValue(responseMsg,
-                        MappingListResponse.class);
-                log.trace("Received all the mapping details response from Registry.");
-                return response;
-
-            } catch (Exception e){
-                log.error("Error in mapping details response response from Registry.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
+    /**
+     * Same as {@link #sendGetAllMappingsRequestAsync(GetAllMappings)}, keeping the list of mappings as raw JSON
+     * @return future of the response from registry
+     */
+    public CompletableFuture<RawRegistryResponse> sendGetAllMappingsRawRequestAsync(GetAllMappings request) {
+
+        log.debug("sendGetAllMappingsRawRequest to Registry");
+
+        try {
+            byte[] message = codecs.write(request);
+
+            return sendRpcRequestAsync(this.mappingExchangeName,
+                    this.getAllMappingsRoutingKey, message, "application/json",
+                    RAW_VIEW, this::readRawRegistryResponse);
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc get all mappings request message.", e);
+            return marshallingFailed("get all mappings request", e);
         }
-        return null;
+    }
+
+    public RawRegistryResponse sendGetAllMappingsRawRequest(GetAllMappings request) throws CommunicationException {
+        return await(sendGetAllMappingsRawRequestAsync(request));
     }
 
     /**
      * Method used to get a single mapping from the Registry
      *
      */
-    public MappingListResponse sendGetSingleMappingsRequest(GetSingleMapping request)
-            throws CommunicationException {
+    public CompletableFuture<MappingListResponse> sendGetSingleMappingsRequestAsync(GetSingleMapping request) {
 
-        log.debug("sendGetSingleMappingsRequest to Registry");
+        log.debug("sendGetSingleMappingsRequest to Registry for mappingId = " + request.getMappingId());
 
         try {
-            String message = mapper.writeValueAsString(request);
-
-            // The message is false to indicate that we do not need the rdf of Information Models
-            String responseMsg = this.sendRpcMessage(this.mappingExchangeName,
-                    this.getSingleMappingRoutingKey, message, "application/json");
-
-            if (responseMsg == null)
-                return null;
+            byte[] message = codecs.write(request);
 
-            try {
-                MappingListResponse response = mapper.readValue(responseMsg,
-                        MappingListResponse.class);
-                log.trace("Received mapping details response from Registry for mappingId = " + request.getMappingId());
-                return response;
-
-            } catch (Exception e){
-                log.error("Error in mapping details response response from Registry.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
+            return sendRpcRequestAsync(this.mappingExchangeName,
+                    this.getSingleMappingRoutingKey, message, "application/json",
+                    responseMsg -> readResponseOrError(responseMsg, MappingListResponse.class, "Registry"));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc get all mappings request message.", e);
+            return marshallingFailed("get single mapping request", e);
         }
-        return null;
+    }
+
+    public MappingListResponse sendGetSingleMappingsRequest(GetSingleMapping request) throws CommunicationException {
+        return await(sendGetSingleMappingsRequestAsync(request));
     }
 
     /**
      * Method used to request on an action for an information model
      * @param request contains the information model
-     * @return response from registry
+     * @return future of the response from registry
      */
-    public InfoModelMappingResponse sendInfoModelMappingRequest(String routingKey, InfoModelMappingRequest request)
-            throws CommunicationException {
+    public CompletableFuture<InfoModelMappingResponse> sendInfoModelMappingRequestAsync(String routingKey,
+                                                                                        InfoModelMappingRequest request) {
 
         log.trace("sendInfoModelMappingRequest to Registry");
 
         try {
+            byte[] message = codecs.write(request);
 
-            String message = mapper.writeValueAsString(request);
-
-            // The message is false to indicate that we do not need the rdf of Information Models
-            String responseMsg = this.sendRpcMessage(this.mappingExchangeName,
-                    routingKey, message, "application/json");
-
-            if (responseMsg == null)
-                return null;
-
-            try {
-                InfoModelMappingResponse response = mapper.readValue(responseMsg,
-                        InfoModelMappingResponse.class);
-                log.trace("Received info model mapping response from Registry.");
-                return response;
-
-            } catch (Exception e){
-
-                log.error("Error in info model mapping response from Registry.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
+            return sendRpcRequestAsync(this.mappingExchangeName,
+                    routingKey, message, "application/json",
+                    responseMsg -> readResponseOrError(responseMsg, InfoModelMappingResponse.class, "Registry"));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc information model request message.", e);
+            return marshallingFailed("information model mapping request", e);
         }
-        return null;
+    }
+
+    public InfoModelMappingResponse sendInfoModelMappingRequest(String routingKey, InfoModelMappingRequest request)
+            throws CommunicationException {
+        return await(sendInfoModelMappingRequestAsync(routingKey, request));
     }
 
     /**
      * Method used request the registration of an information model mapping
      * @param request contains mapping to be registered
-     * @return response from registry
+     * @return future of the response from registry
      */
+    public CompletableFuture<InfoModelMappingResponse> sendRegisterMappingRequestAsync(InfoModelMappingRequest request) {
+        if (log.isDebugEnabled())
+            log.debug("sendRegisterMappingRequest to Registry for mapping: " + ReflectionToStringBuilder.toString(request));
+        return sendInfoModelMappingRequestAsync(this.mappingCreationRequestedRoutingKey, request);
+    }
+
     public InfoModelMappingResponse sendRegisterMappingRequest(InfoModelMappingRequest request)
             throws CommunicationException {
-        log.debug("sendRegisterMappingRequest to Registry for mapping: " + ReflectionToStringBuilder.toString(request));
-        return sendInfoModelMappingRequest(this.mappingCreationRequestedRoutingKey, request);
+        return await(sendRegisterMappingRequestAsync(request));
     }
 
     /**
      * Method used request the removal of an information model mapping
      * @param request contains the mapping to be deleted
-     * @return response from registry
+     * @return future of the response from registry
      */
+    public CompletableFuture<InfoModelMappingResponse> sendDeleteMappingRequestAsync(InfoModelMappingRequest request) {
+        if (log.isDebugEnabled())
+            log.debug("sendDeleteMappingRequest to Registry for mapping: " + ReflectionToStringBuilder.toString(request));
+        return sendInfoModelMappingRequestAsync(this.mappingRemovalRequestedRoutingKey, request);
+    }
+
     public InfoModelMappingResponse sendDeleteMappingRequest(InfoModelMappingRequest request)
             throws CommunicationException {
-        log.debug("sendDeleteInfoModelRequest to Registry for info model: " + ReflectionToStringBuilder.toString(request));
-        return sendInfoModelMappingRequest(this.mappingRemovalRequestedRoutingKey, request);
+        return await(sendDeleteMappingRequestAsync(request));
     }
 
     /**
      * Helper method that provides JSON marshalling, unmarshalling and RabbitMQ communication with the Registry for resource list retrieval
      *
      * @param request      request for resources with id set
-     * @return response from the consumer or null if timeout occurs
+     * @return future of the response from the consumer, completed with null if timeout occurs
      */
-    public ResourceListResponse sendRegistryResourcesRequest(CoreResourceRegistryRequest request)
-            throws CommunicationException {
+    public CompletableFuture<ResourceListResponse> sendRegistryResourcesRequestAsync(CoreResourceRegistryRequest request) {
 
         log.trace("sendRegistryResourcesRequest to Registry");
 
         try {
-            String message = mapper.writeValueAsString(request);
-
-            String responseMsg = this.sendRpcMessage(this.platformExchangeName, this.platformResourcesRequestedRoutingKey,
-                    message, "application/json");
-
-            if (responseMsg == null)
-                return null;
-
-            try {
-                ResourceListResponse response = mapper.readValue(responseMsg, ResourceListResponse.class);
-                log.trace("Received response from Registry.");
-                return response;
+            byte[] message = codecs.write(request);
 
-            } catch (Exception e){
-
-                log.error("Error in response from Registry.", e);
-                throw new CommunicationException(e);
-            }
-        
+            return sendRpcRequestAsync(this.platformExchangeName, this.platformResourcesRequestedRoutingKey,
+                    message, "application/json",
+                    responseMsg -> readRegistryResponse(responseMsg, ResourceListResponse.class));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc resource message", e);
+            return marshallingFailed("resource", e);
         }
-        return null;
+    }
+
+    public ResourceListResponse sendRegistryResourcesRequest(CoreResourceRegistryRequest request)
+            throws CommunicationException {
+        return await(sendRegistryResourcesRequestAsync(request));
     }
 
 
     /**
      * Method used to request the removal of platform resources from the Administrator
      * @param request contains the information model
-     * @return response from registry
+     * @return future of the response from registry
      */
-    public ClearDataResponse sendClearDataRequest(ClearDataRequest request)
-            throws CommunicationException {
+    public CompletableFuture<ClearDataResponse> sendClearDataRequestAsync(ClearDataRequest request) {
 
         log.trace("sendClearDataRequest to Registry");
 
         try {
+            byte[] message = codecs.write(request);
 
-            String message = mapper.writeValueAsString(request);
-
-            // The message is false to indicate that we do not need the rdf of Information Models
-            String responseMsg = this.sendRpcMessage(this.resourceExchangeName
-                    , clearPlatformResourcesRoutingKey, message, "application/json");
-
-            if (responseMsg == null)
-                return null;
-
-            try {
-                ClearDataResponse response = mapper.readValue(responseMsg,
-                        ClearDataResponse.class);
-                log.trace("Received ClearDataResponse from Registry.");
-                return response;
-
-            } catch (Exception e){
-
-                log.error("Error in ClearDataResponse from Registry.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
+            return sendRpcRequestAsync(this.resourceExchangeName,
+                    clearPlatformResourcesRoutingKey, message, "application/json",
+                    responseMsg -> readResponseOrError(responseMsg, ClearDataResponse.class, "Registry"));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc information model request message.", e);
+            return marshallingFailed("clear data request", e);
         }
-        return null;
+    }
+
+    public ClearDataResponse sendClearDataRequest(ClearDataRequest request) throws CommunicationException {
+        return await(sendClearDataRequestAsync(request));
     }
 
 
@@ -901,72 +1660,56 @@ public class RabbitManager {
      * Method used to send RPC request to register user.
      *
      * @param request  request for registration
-     * @return response status
+     * @return future of the response status
      */
-    public ManagementStatus sendUserManagementRequest(UserManagementRequest request) throws CommunicationException {
-        log.debug("sendUserManagementRequest to AAM: " + ReflectionToStringBuilder.toString(request));
+    public CompletableFuture<ManagementStatus> sendUserManagementRequestAsync(UserManagementRequest request) {
+        if (log.isDebugEnabled())
+            log.debug("sendUserManagementRequest to AAM: " + ReflectionToStringBuilder.toString(request));
         try {
-            String message = mapper.writeValueAsString(request);
-
-            String responseMsg = this.sendRpcMessage(this.aamExchangeName, this.userManagementRequestRoutingKey, message, "application/json");
-
-            if (responseMsg == null) {
-                throw new CommunicationException("Communication Problem with AAM");
-            }
-
-            try {
-                ManagementStatus response = mapper.readValue(responseMsg, ManagementStatus.class);
-                log.trace("Received response from AAM.");
-                return response;
-
-            } catch (Exception e){
-
-                log.error("Error in response from AAM.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
-
+            byte[] message = codecs.write(request);
 
+            return decodeAsync(this.userManagementRequestRoutingKey,
+                    sendRpcMessageAsync(this.aamExchangeName, this.userManagementRequestRoutingKey, message, "application/json")
+                            .thenApply(RabbitManager::requireAamResponse),
+                    responseMsg -> readResponseOrError(responseMsg, ManagementStatus.class, "AAM"));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc resource message", e);
+            return marshallingFailed("resource", e);
         }
-        return null;
+    }
+
+    public ManagementStatus sendUserManagementRequest(UserManagementRequest request) throws CommunicationException {
+        return await(sendUserManagementRequestAsync(request));
     }
 
     /**
      * Method used to send RPC request to register user.
      *
      * @param request  request for revocation
-     * @return response status
+     * @return future of the response status
      */
-    public RevocationResponse sendRevocationRequest(RevocationRequest request) throws CommunicationException {
-        log.debug("sendRevocationRequest to AAM: " + ReflectionToStringBuilder.toString(request));
+    public CompletableFuture<RevocationResponse> sendRevocationRequestAsync(RevocationRequest request) {
+        if (log.isDebugEnabled())
+            log.debug("sendRevocationRequest to AAM: " + ReflectionToStringBuilder.toString(request));
         try {
-            String message = mapper.writeValueAsString(request);
-
-            String responseMsg = this.sendRpcMessage(this.aamExchangeName, this.userRevocationRequestRoutingKey, message, "application/json");
-
-            if (responseMsg == null) {
-                throw new CommunicationException("Communication Problem with AAM");
-            }
-
-            try {
-                RevocationResponse response = mapper.readValue(responseMsg, RevocationResponse.class);
-                log.trace("Received response from AAM.");
-                return response;
-
-            } catch (Exception e){
-
-                log.error("Error in response from AAM.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
-
+            byte[] message = codecs.write(request);
 
+            return decodeAsync(this.userRevocationRequestRoutingKey,
+                    sendRpcMessageAsync(this.aamExchangeName, this.userRevocationRequestRoutingKey, message, "application/json")
+                            .thenApply(RabbitManager::requireAamResponse),
+                    responseMsg -> readResponseOrError(responseMsg, RevocationResponse.class, "AAM"));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc resource message", e);
+            return marshallingFailed("resource", e);
         }
-        return null;
+    }
+
+    public RevocationResponse sendRevocationRequest(RevocationRequest request) throws CommunicationException {
+        return await(sendRevocationRequestAsync(request));
+    }
+
+    private static byte[] requireAamResponse(byte[] responseMsg) {
+        if (responseMsg == null)
+            throw new CompletionException(new CommunicationException("Communication Problem with AAM"));
+        return responseMsg;
     }
 
     /**
@@ -974,34 +1717,24 @@ public class RabbitManager {
      *
      * @param request  request for registration
      */
-    public PlatformManagementResponse sendManagePlatformRequest(PlatformManagementRequest request)
-            throws CommunicationException {
+    public CompletableFuture<PlatformManagementResponse> sendManagePlatformRequestAsync(PlatformManagementRequest request) {
 
-        log.debug("sendManagePlatformRequest to AAM: " + ReflectionToStringBuilder.toString(request));
+        if (log.isDebugEnabled())
+            log.debug("sendManagePlatformRequest to AAM: " + ReflectionToStringBuilder.toString(request));
 
         try {
-            String message = mapper.writeValueAsString(request);
-
-            String responseMsg = this.sendRpcMessage(this.aamExchangeName, this.platformManageRequestRoutingKey, message, "application/json");
-
-            if (responseMsg == null)
-                return null;
-
-            try {
-                PlatformManagementResponse response = mapper.readValue(responseMsg, PlatformManagementResponse.class);
-                log.trace("Received ManagePlatformResponse from AAM.");
-                return response;
+            byte[] message = codecs.write(request);
 
-            } catch (Exception e){
-
-                log.error("Error in platform registration response from AAM.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
+            return sendRpcRequestAsync(this.aamExchangeName, this.platformManageRequestRoutingKey, message, "application/json",
+                    responseMsg -> readResponseOrError(responseMsg, PlatformManagementResponse.class, "AAM"));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc resource message", e);
+            return marshallingFailed("resource", e);
         }
-        return null;
+    }
+
+    public PlatformManagementResponse sendManagePlatformRequest(PlatformManagementRequest request)
+            throws CommunicationException {
+        return await(sendManagePlatformRequestAsync(request));
     }
 
     /**
@@ -1009,35 +1742,24 @@ public class RabbitManager {
      *
      * @param request  request for registration
      */
-    public SmartSpaceManagementResponse sendManageSSPRequest(SmartSpaceManagementRequest request)
-            throws CommunicationException {
+    public CompletableFuture<SmartSpaceManagementResponse> sendManageSSPRequestAsync(SmartSpaceManagementRequest request) {
 
-        log.debug("sendManageSSPRequest to AAM: " + ReflectionToStringBuilder.toString(request));
+        if (log.isDebugEnabled())
+            log.debug("sendManageSSPRequest to AAM: " + ReflectionToStringBuilder.toString(request));
 
         try {
-            String message = mapper.writeValueAsString(request);
+            byte[] message = codecs.write(request);
 
-            String responseMsg = this.sendRpcMessage(this.aamExchangeName,
-                    this.sspManageRequestRoutingKey, message, "application/json");
-
-            if (responseMsg == null)
-                return null;
-
-            try {
-                SmartSpaceManagementResponse response = mapper.readValue(responseMsg, SmartSpaceManagementResponse.class);
-                log.trace("Received ManagePlatformResponse from AAM.");
-                return response;
-
-            } catch (Exception e){
-
-                log.error("Error in platform registration response from AAM.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
+            return sendRpcRequestAsync(this.aamExchangeName, this.sspManageRequestRoutingKey, message, "application/json",
+                    responseMsg -> readResponseOrError(responseMsg, SmartSpaceManagementResponse.class, "AAM"));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc resource message", e);
+            return marshallingFailed("resource", e);
         }
-        return null;
+    }
+
+    public SmartSpaceManagementResponse sendManageSSPRequest(SmartSpaceManagementRequest request)
+            throws CommunicationException {
+        return await(sendManageSSPRequestAsync(request));
     }
 
 
@@ -1046,10 +1768,15 @@ public class RabbitManager {
      *
      * @param userCredentials  the credentials of the user trying to login
      */
-    public UserDetailsResponse sendLoginRequest(Credentials userCredentials) throws CommunicationException {
+    public CompletableFuture<UserDetailsResponse> sendLoginRequestAsync(Credentials userCredentials) {
 
-        log.debug("sendLoginRequest to AAM: " + ReflectionToStringBuilder.toString(userCredentials));
-        return sendUserDetailsRequest(userCredentials, OperationType.READ);
+        if (log.isDebugEnabled())
+            log.debug("sendLoginRequest to AAM: " + ReflectionToStringBuilder.toString(userCredentials));
+        return sendUserDetailsRequestAsync(userCredentials, OperationType.READ);
+    }
+
+    public UserDetailsResponse sendLoginRequest(Credentials userCredentials) throws CommunicationException {
+        return await(sendLoginRequestAsync(userCredentials));
     }
 
     /**
@@ -1057,10 +1784,14 @@ public class RabbitManager {
      *
      * @param username  the username
      */
-    public UserDetailsResponse sendForceReadRequest(String username) throws CommunicationException {
+    public CompletableFuture<UserDetailsResponse> sendForceReadRequestAsync(String username) {
 
         log.debug("sendForceReadRequest to AAM: " + username);
-        return sendUserDetailsRequest(new Credentials(username, ""), OperationType.FORCE_READ);
+        return sendUserDetailsRequestAsync(new Credentials(username, ""), OperationType.FORCE_READ);
+    }
+
+    public UserDetailsResponse sendForceReadRequest(String username) throws CommunicationException {
+        return await(sendForceReadRequestAsync(username));
     }
 
     /**
@@ -1069,9 +1800,11 @@ public class RabbitManager {
      * @param userCredentials   the credentials of the user trying to login
      * @param type              the operation type
      */
-    private UserDetailsResponse sendUserDetailsRequest(Credentials userCredentials, OperationType type) throws CommunicationException {
+    private CompletableFuture<UserDetailsResponse> sendUserDetailsRequestAsync(Credentials userCredentials,
+                                                                               OperationType type) {
 
-        log.debug("sendUserDetailsRequest to AAM: " + ReflectionToStringBuilder.toString(userCredentials));
+        if (log.isDebugEnabled())
+            log.debug("sendUserDetailsRequest to AAM: " + ReflectionToStringBuilder.toString(userCredentials));
 
         try {
             UserManagementRequest request = new UserManagementRequest(
@@ -1089,28 +1822,13 @@ public class RabbitManager {
                     ),
                     type
             );
-            String message = mapper.writeValueAsString(request);
+            byte[] message = codecs.write(request);
 
-            String responseMsg = this.sendRpcMessage(this.aamExchangeName, this.getUserDetailsRoutingKey, message, "application/json");
-
-            if (responseMsg == null)
-                return null;
-
-            try {
-                UserDetailsResponse response = mapper.readValue(responseMsg, UserDetailsResponse.class);
-                log.trace("Received login response from AAM.");
-                return response;
-
-            } catch (Exception e){
-
-                log.error("Error in login response from AAM.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
+            return sendRpcRequestAsync(this.aamExchangeName, this.getUserDetailsRoutingKey, message, "application/json",
+                    responseMsg -> readResponseOrError(responseMsg, UserDetailsResponse.class, "AAM"));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc resource message", e);
+            return marshallingFailed("resource", e);
         }
-        return null;
     }
 
 
@@ -1119,35 +1837,25 @@ public class RabbitManager {
      *
      * @param request  request for user management
      */
-    public Set<OwnedService> sendOwnedServiceDetailsRequest(UserManagementRequest request)
-            throws CommunicationException {
+    public CompletableFuture<Set<OwnedService>> sendOwnedServiceDetailsRequestAsync(UserManagementRequest request) {
 
-        log.debug("sendOwnedServiceDetailsRequest to AAM: " + ReflectionToStringBuilder.toString(request));
+        if (log.isDebugEnabled())
+            log.debug("sendOwnedServiceDetailsRequest to AAM: " + ReflectionToStringBuilder.toString(request));
 
         try {
-            String message = mapper.writeValueAsString(request);
-
-            String responseMsg = this.sendRpcMessage(this.aamExchangeName, this.getOwnedPlatformDetailsRoutingKey, message, "application/json");
-
-            if (responseMsg == null)
-                return null;
-
-            try {
-                Set<OwnedService> response = mapper.readValue(responseMsg,
-                        mapper.getTypeFactory().constructCollectionType(Set.class, OwnedService.class));
-                log.trace("Received platform owner details response from AAM.");
-                return response;
-
-            } catch (Exception e){
+            byte[] message = codecs.write(request);
 
-                log.error("Error in owner platform details response from AAM.", e);
-                ErrorResponseContainer error = mapper.readValue(responseMsg, ErrorResponseContainer.class);
-                throw new CommunicationException(error.getErrorMessage());
-            }
+            return sendRpcRequestAsync(this.aamExchangeName, this.getOwnedPlatformDetailsRoutingKey, message, "application/json",
+                    responseMsg -> readResponseOrError(responseMsg,
+                            codecs.setOf(OwnedService.class), "AAM"));
         } catch (IOException e) {
-            log.error("Failed (un)marshalling of rpc resource message.", e);
+            return marshallingFailed("resource", e);
         }
-        return null;
+    }
+
+    public Set<OwnedService> sendOwnedServiceDetailsRequest(UserManagementRequest request)
+            throws CommunicationException {
+        return await(sendOwnedServiceDetailsRequestAsync(request));
     }
 
     /**
@@ -1159,9 +1867,9 @@ public class RabbitManager {
 
         log.debug("Publish federation creation: " + federation);
 
-        String message;
+        byte[] message;
         try {
-            message = mapper.writeValueAsString(federation);
+            message = codecs.write(federation);
             this.publishMessage(this.federationExchangeName, this.federationCreatedRoutingKey, message, "application/json");
         } catch (JsonProcessingException e) {
             log.warn("Failed to publish federation creation due to", e);
@@ -1177,9 +1885,9 @@ public class RabbitManager {
 
         log.debug("Publish federation update: " + federation);
 
-        String message;
+        byte[] message;
         try {
-            message = mapper.writeValueAsString(federation);
+            message = codecs.write(federation);
             this.publishMessage(this.federationExchangeName, this.federationUpdatedRoutingKey, message, "application/json");
         } catch (JsonProcessingException e) {
             log.warn("Failed to publish federation update due to", e);
@@ -1195,20 +1903,19 @@ public class RabbitManager {
 
         log.debug("Publish federation deletion for: " + federationId);
 
-        try {
-            AMQP.BasicProperties props = new AMQP.BasicProperties()
-                    .builder()
-                    .build();
-
+        AMQP.BasicProperties props = new AMQP.BasicProperties()
+                .builder()
+                .build();
 
-            this.channel.basicPublish(this.federationExchangeName, this.federationDeletedRoutingKey, props, federationId.getBytes());
+        this.eventPublisher.publish(this.federationExchangeName, this.federationDeletedRoutingKey, props,
+                federationId.getBytes(StandardCharsets.UTF_8));
+    }
 
-        } catch (IOException e) {
-            log.warn("", e);
-        }
+    public CircuitBreakerRegistry getCircuitBreakers() {
+        return circuitBreakers;
     }
 
     // Used in testing
-    public void setMapper(ObjectMapper mapper) { this.mapper = mapper; }
+    public void setCodecs(JsonCodecRegistry codecs) { this.codecs = codecs; }
 
 }
\ No newline at end of file
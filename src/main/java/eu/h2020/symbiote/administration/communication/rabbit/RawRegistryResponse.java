@@ -0,0 +1,107 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Response of the Registry whose body is kept as raw JSON, for the read-only lists which are passed as they are to
+ * the browser.
+ *
+ * Only the status envelope (status, message and body) is checked by a streaming parser: the body is skipped over and
+ * sliced out of the message, so that no object graph is built for it.
+ */
+public class RawRegistryResponse {
+
+    private final int status;
+    private final String message;
+    private final byte[] body;
+
+    public RawRegistryResponse(int status, String message, byte[] body) {
+        this.status = status;
+        this.message = message;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return the body as raw JSON, or null if the response has none
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Reads the status envelope of a response of the Registry
+     *
+     * @param factory   the factory of the streaming parser
+     * @param content   the response, UTF-8 encoded
+     * @return the response, with the body as raw JSON
+     * @throws IOException if the response is not a valid status envelope
+     * @throws CommunicationException if the response is an
+     * {@link eu.h2020.symbiote.security.communication.payloads.ErrorResponseContainer}
+     */
+    public static RawRegistryResponse read(JsonFactory factory, byte[] content)
+            throws IOException, CommunicationException {
+        Integer status = null;
+        String message = null;
+        byte[] body = null;
+        String errorMessage = null;
+        boolean errorCode = false;
+
+        try (JsonParser parser = factory.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(parser, "Expected a JSON object");
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "status":
+                        if (value != JsonToken.VALUE_NUMBER_INT)
+                            throw new JsonParseException(parser, "Expected an integer status");
+                        status = parser.getIntValue();
+                        break;
+                    case "message":
+                        message = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                        break;
+                    case "body":
+                        if (value != JsonToken.VALUE_NULL) {
+                            int start = (int) parser.getTokenLocation().getByteOffset();
+                            parser.skipChildren();
+                            int end = (int) parser.getCurrentLocation().getByteOffset();
+                            body = Arrays.copyOfRange(content, start, end);
+                        }
+                        break;
+                    case "errorMessage":
+                        errorMessage = parser.getValueAsString();
+                        break;
+                    case "errorCode":
+                        errorCode = true;
+                        break;
+                }
+                // Skips the fields which are not read, as well as the ones of an unexpected type
+                parser.skipChildren();
+            }
+        }
+
+        if (status == null && errorCode)
+            throw new CommunicationException(errorMessage);
+        if (status == null)
+            throw new IOException("The response has no status");
+        return new RawRegistryResponse(status, message, body);
+    }
+}
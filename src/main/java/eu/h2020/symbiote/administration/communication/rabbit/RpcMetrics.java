@@ -0,0 +1,141 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reports the RPC requests of each routing key in the {@link MetricRegistry}, so that they are exposed by the
+ * actuator metrics endpoint:
+ *
+ * <ul>
+ *     <li>rabbit.rpc.[routingKey].latency: timer of the answered requests (count, rates and percentiles)</li>
+ *     <li>rabbit.rpc.[routingKey].timeouts: requests which were not answered in time</li>
+ *     <li>rabbit.rpc.[routingKey].failures: requests which could not be sent to the broker</li>
+ *     <li>rabbit.rpc.[routingKey].errors: responses reporting an error, e.g. an {@link
+ *     eu.h2020.symbiote.security.communication.payloads.ErrorResponseContainer}</li>
+ *     <li>rabbit.rpc.[routingKey].invalid: responses which could not be decoded at all</li>
+ *     <li>rabbit.rpc.[routingKey].inFlight: requests waiting for their response</li>
+ *     <li>rabbit.rpc.[routingKey].coalesced: requests which shared the RPC call of an identical request</li>
+ *     <li>rabbit.rpc.[routingKey].lateReplies: replies which came after the timeout of their request</li>
+ *     <li>rabbit.rpc.[routingKey].requestBytes and responseBytes: histograms of the payload sizes</li>
+ *     <li>rabbit.rpc.inFlight: requests waiting for their response, for all the routing keys</li>
+ *     <li>rabbit.rpc.orphanedReplies: replies matching no request, e.g. sent before a reconnection or long after the
+ *     timeout</li>
+ * </ul>
+ */
+public class RpcMetrics {
+
+    static final String METRIC_PREFIX = "rabbit.rpc.";
+
+    private final MetricRegistry metricRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter orphanedReplies;
+    private final ConcurrentMap<String, RoutingKeyMetrics> routingKeys = new ConcurrentHashMap<>();
+
+    private class RoutingKeyMetrics {
+        private final Timer latency;
+        private final Counter timeouts;
+        private final Counter failures;
+        private final Counter errors;
+        private final Counter invalid;
+        private final Counter inFlight;
+        private final Counter coalesced;
+        private final Counter lateReplies;
+        private final Histogram requestBytes;
+        private final Histogram responseBytes;
+
+        private RoutingKeyMetrics(String routingKey) {
+            String prefix = METRIC_PREFIX + routingKey + ".";
+            this.latency = metricRegistry.timer(prefix + "latency");
+            this.timeouts = metricRegistry.counter(prefix + "timeouts");
+            this.failures = metricRegistry.counter(prefix + "failures");
+            this.errors = metricRegistry.counter(prefix + "errors");
+            this.invalid = metricRegistry.counter(prefix + "invalid");
+            this.inFlight = metricRegistry.counter(prefix + "inFlight");
+            this.coalesced = metricRegistry.counter(prefix + "coalesced");
+            this.lateReplies = metricRegistry.counter(prefix + "lateReplies");
+            this.requestBytes = metricRegistry.histogram(prefix + "requestBytes");
+            this.responseBytes = metricRegistry.histogram(prefix + "responseBytes");
+        }
+    }
+
+    /**
+     * @param metricRegistry    the registry of the RPC metrics
+     */
+    public RpcMetrics(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+        this.orphanedReplies = metricRegistry.counter(METRIC_PREFIX + "orphanedReplies");
+
+        // Metrics created again on the same registry take over the gauge
+        metricRegistry.remove(METRIC_PREFIX + "inFlight");
+        metricRegistry.register(METRIC_PREFIX + "inFlight", (Gauge<Integer>) inFlight::get);
+    }
+
+    /**
+     * Records a request sent to the routing key, which is in flight until {@link #onCompleted(String)}
+     */
+    public void onRequest(String routingKey, int payloadBytes) {
+        RoutingKeyMetrics metrics = metricsOf(routingKey);
+        metrics.requestBytes.update(payloadBytes);
+        metrics.inFlight.inc();
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the end of a request, whatever its outcome
+     */
+    public void onCompleted(String routingKey) {
+        metricsOf(routingKey).inFlight.dec();
+        inFlight.decrementAndGet();
+    }
+
+    public void onResponse(String routingKey, long latencyNanos, int payloadBytes) {
+        RoutingKeyMetrics metrics = metricsOf(routingKey);
+        metrics.latency.update(latencyNanos, TimeUnit.NANOSECONDS);
+        metrics.responseBytes.update(payloadBytes);
+    }
+
+    public void onTimeout(String routingKey) {
+        metricsOf(routingKey).timeouts.inc();
+    }
+
+    public void onFailure(String routingKey) {
+        metricsOf(routingKey).failures.inc();
+    }
+
+    public void onErrorResponse(String routingKey) {
+        metricsOf(routingKey).errors.inc();
+    }
+
+    public void onInvalidResponse(String routingKey) {
+        metricsOf(routingKey).invalid.inc();
+    }
+
+    public void onCoalesced(String routingKey) {
+        metricsOf(routingKey).coalesced.inc();
+    }
+
+    public void onLateReply(String routingKey) {
+        metricsOf(routingKey).lateReplies.inc();
+    }
+
+    public void onOrphanedReply() {
+        orphanedReplies.inc();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private RoutingKeyMetrics metricsOf(String routingKey) {
+        return routingKeys.computeIfAbsent(String.valueOf(routingKey), RoutingKeyMetrics::new);
+    }
+}
@@ -0,0 +1,43 @@
+package eu.h2020.symbiote.administration.config;
+
+import eu.h2020.symbiote.administration.communication.rabbit.ClaimCheckStore;
+import eu.h2020.symbiote.administration.communication.rabbit.GridFsClaimCheckStore;
+import eu.h2020.symbiote.administration.communication.rabbit.LocalClaimCheckStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Store of the large RPC payloads which are sent as claim checks, chosen by rabbit.claimCheck.store. There is no
+ * store, and no payload is offloaded, if it is not set.
+ */
+@Configuration
+public class ClaimCheckConfig {
+
+    /**
+     * Keeps the payloads in the GridFS bucket rabbit.claimCheck.bucket of the Administration database
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rabbit.claimCheck.store", havingValue = "gridfs")
+    public ClaimCheckStore gridFsClaimCheckStore(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter,
+                                                 @Value("${rabbit.claimCheck.bucket:claimChecks}") String bucket) {
+        return new GridFsClaimCheckStore(new GridFsTemplate(mongoDbFactory, mongoConverter, bucket));
+    }
+
+    /**
+     * Keeps the payloads in the directory rabbit.claimCheck.directory, shared with the other components
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rabbit.claimCheck.store", havingValue = "local")
+    public ClaimCheckStore localClaimCheckStore(@Value("${rabbit.claimCheck.directory}") String directory)
+            throws IOException {
+        return new LocalClaimCheckStore(Paths.get(directory));
+    }
+}
@@ -0,0 +1,24 @@
+package eu.h2020.symbiote.administration.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Modules of the application ObjectMapper. Spring Boot installs every {@link Module} bean in the mapper used by Spring
+ * MVC, from which the RabbitMQ readers and writers are derived too.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Replaces the reflection based property access with generated bytecode
+     */
+    @Bean
+    @ConditionalOnProperty(name = "jackson.afterburner.enabled", havingValue = "true")
+    public Module afterburnerModule() {
+        return new AfterburnerModule();
+    }
+}
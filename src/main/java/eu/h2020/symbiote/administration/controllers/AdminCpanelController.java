@@ -26,7 +26,6 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.security.Principal;
-import java.util.List;
 
 /**
  * Spring controller for the User control panel, handles management views and form validation.
@@ -71,7 +70,8 @@ public class AdminCpanelController {
         UsernamePasswordAuthenticationToken token = (UsernamePasswordAuthenticationToken) principal;
         CoreUser user = (CoreUser) token.getPrincipal();
 
-        log.debug("User state is: " + ReflectionToStringBuilder.toString(user));
+        if (log.isDebugEnabled())
+            log.debug("User state is: " + ReflectionToStringBuilder.toString(user));
 
         model.addAttribute("user", user);
 
@@ -111,47 +111,46 @@ public class AdminCpanelController {
 
         log.debug("POST request on /cpanel/delete_information_model for info model with id = " + infoModelIdToDelete);
 
-        // Get InformationModelList from Registry
-        ResponseEntity<?> responseEntity = informationModelService.getInformationModels();
+        // Get the information model from the catalog or the Registry
+        ResponseEntity<?> responseEntity = informationModelService.findInformationModel(infoModelIdToDelete);
         if (responseEntity.getStatusCode() != HttpStatus.OK)
             return responseEntity;
-        else {
-
-            for (InformationModel informationModel : (List<InformationModel>)responseEntity.getBody()) {
-                log.debug(informationModel.getId() + " " + informationModel.getOwner());
-                if (informationModel.getId().equals(infoModelIdToDelete)) {
-
-                    // Ask Registry
-                    try {
-                        InformationModelRequest request = new InformationModelRequest();
-                        request.setBody(informationModel);
-
-                        InformationModelResponse response = rabbitManager.sendDeleteInfoModelRequest(request);
-                        if (response != null) {
-                            if (response.getStatus() != HttpStatus.OK.value()) {
-
-                                return new ResponseEntity<>(response.getMessage(),
-                                        new HttpHeaders(), HttpStatus.valueOf(response.getStatus()));
-                            }
-                        } else {
-                            log.warn("Registry unreachable!");
-                            return new ResponseEntity<>("Registry unreachable!",
-                                    new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
-                        }
-                    } catch (CommunicationException e) {
-                        String message = "Registry threw communication exception: " + e.getMessage();
-                        log.warn(message, e);
-                        return new ResponseEntity<>(message, new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
-                    }
-
-                    return new ResponseEntity<>(new HttpHeaders(), HttpStatus.OK);
-                }
-            }
 
+        InformationModel informationModel = (InformationModel) responseEntity.getBody();
+        if (informationModel == null)
             return new ResponseEntity<>("Information Model NOT FOUND",
                     new HttpHeaders(), HttpStatus.BAD_REQUEST);
+
+        // Ask Registry
+        try {
+            InformationModelRequest request = new InformationModelRequest();
+            request.setBody(informationModel);
+
+            InformationModelResponse response;
+            try {
+                response = rabbitManager.sendDeleteInfoModelRequest(request);
+            } finally {
+                informationModelService.invalidateInformationModels();
+            }
+            if (response != null) {
+                if (response.getStatus() != HttpStatus.OK.value()) {
+
+                    return new ResponseEntity<>(response.getMessage(),
+                            new HttpHeaders(), HttpStatus.valueOf(response.getStatus()));
+                }
+            } else {
+                log.warn("Registry unreachable!");
+                return new ResponseEntity<>("Registry unreachable!",
+                        new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        } catch (CommunicationException e) {
+            String message = "Registry threw communication exception: " + e.getMessage();
+            log.warn(message, e);
+            return new ResponseEntity<>(message, new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
 
+        informationModelService.onInformationModelDeleted(infoModelIdToDelete);
+        return new ResponseEntity<>(new HttpHeaders(), HttpStatus.OK);
     }
 
     @PostMapping("/cpanel/delete_federation")
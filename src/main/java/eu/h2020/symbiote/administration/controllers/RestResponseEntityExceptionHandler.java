@@ -4,11 +4,13 @@ import eu.h2020.symbiote.administration.exceptions.authentication.*;
 import eu.h2020.symbiote.administration.exceptions.generic.GenericHttpErrorException;
 import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
 import eu.h2020.symbiote.administration.exceptions.rabbit.EntityUnreachableException;
+import eu.h2020.symbiote.administration.exceptions.rabbit.ServiceOverloadedException;
 import eu.h2020.symbiote.administration.exceptions.token.VerificationTokenExpired;
 import eu.h2020.symbiote.administration.exceptions.token.VerificationTokenNotFoundException;
 import eu.h2020.symbiote.administration.exceptions.validation.ServiceValidationException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -68,6 +70,18 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
         return response;
     }
 
+    @ExceptionHandler(value = {ServiceOverloadedException.class})
+    protected ResponseEntity<Map<String, Object>> handleServiceOverloaded(ServiceOverloadedException e) {
+        log.warn("In handleServiceOverloaded: " + e.getMessage());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("errorMessage", e.getMessage());
+        return new ResponseEntity<>(response, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(value = {CommunicationException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ResponseBody
@@ -27,7 +27,6 @@ import org.springframework.web.multipart.MultipartFile;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.security.Principal;
-import java.util.Set;
 
 /**
  * Spring controller for the User control panel, handles management views and form validation.
@@ -234,7 +233,16 @@ public class UserCpanelController {
         log.debug("POST request on /cpanel/list_all_info_models");
 
         // Get InformationModelList from Registry
-        return informationModelService.getInformationModels();
+        return informationModelService.listAllInformationModels();
+    }
+
+    @PostMapping("/cpanel/list_info_model_summaries")
+    public ResponseEntity<?> listInformationModelSummaries() {
+
+        log.debug("POST request on /cpanel/list_info_model_summaries");
+
+        // Get InformationModelList from Registry, without the rdf
+        return informationModelService.getInformationModelSummaries();
     }
 
     @PostMapping("/cpanel/list_user_info_models")
@@ -265,14 +273,12 @@ public class UserCpanelController {
     }
 
     @PostMapping("/cpanel/list_all_mappings")
-    @ResponseStatus(HttpStatus.OK)
-    @ResponseBody
-    public Set<OntologyMapping> listAllMappings() throws GenericHttpErrorException {
+    public ResponseEntity<?> listAllMappings() throws GenericHttpErrorException {
 
         log.debug("POST request on /cpanel/list_all_mappings");
 
         // Get InformationModelList from Registry
-        return informationModelService.getAllMappings(new GetAllMappings(false));
+        return informationModelService.listAllMappings(new GetAllMappings(false));
     }
 
     @PostMapping("/cpanel/get_mapping_definition")
@@ -320,8 +326,9 @@ public class UserCpanelController {
     public ResponseEntity<?> createFederation(@Valid @RequestBody Federation federation,
                                               BindingResult bindingResult, Principal principal) {
 
-        log.debug("POST request on /cpanel/create_federation with RequestBody: "
-                + ReflectionToStringBuilder.toString(federation));
+        if (log.isDebugEnabled())
+            log.debug("POST request on /cpanel/create_federation with RequestBody: "
+                    + ReflectionToStringBuilder.toString(federation));
         return federationService.createFederation(federation, bindingResult, principal);
     }
 
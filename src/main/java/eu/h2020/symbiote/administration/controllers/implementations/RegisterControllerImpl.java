@@ -103,7 +103,8 @@ public class RegisterControllerImpl implements RegisterController {
             throws CommunicationException, GenericHttpErrorException, ServiceValidationException {
 
         log.debug("POST request on /administration/register");
-        log.debug("CoreUser = " + ReflectionToStringBuilder.toString(coreUser));
+        if (log.isDebugEnabled())
+            log.debug("CoreUser = " + ReflectionToStringBuilder.toString(coreUser));
 
         userService.validateUserRegistrationForm(coreUser, bindingResult);
         userService.createUserAccount(coreUser, webRequest);
@@ -0,0 +1,19 @@
+package eu.h2020.symbiote.administration.exceptions.rabbit;
+
+/**
+ * Thrown when a request is rejected because too many requests to the same component are already in flight. It is
+ * answered with 503 Service Unavailable and a Retry-After header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String s, long retryAfterSeconds) {
+        super("The component " + s + " is overloaded. Please, try again later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
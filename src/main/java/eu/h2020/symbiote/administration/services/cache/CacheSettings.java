@@ -0,0 +1,58 @@
+package eu.h2020.symbiote.administration.services.cache;
+
+/**
+ * How long the entries of a {@link ReadCache} are kept, and how much memory they may take
+ */
+public class CacheSettings {
+
+    private final long ttlMillis;
+    private final long refreshAheadMillis;
+    private final long maxStaleMillis;
+    private final long maxBytes;
+    private final long negativeTtlMillis;
+
+    /**
+     * @param ttlMillis             how long an entry is fresh (0 = not cached)
+     * @param refreshAheadMillis    how long before it expires an entry in use is refreshed in the background
+     *                              (0 = never)
+     * @param maxStaleMillis        how long after it expired an entry is served if the component cannot be reached
+     *                              (0 = never)
+     * @param maxBytes              the estimated size above which the entries are not cached, or evicted
+     */
+    public CacheSettings(long ttlMillis, long refreshAheadMillis, long maxStaleMillis, long maxBytes) {
+        this(ttlMillis, refreshAheadMillis, maxStaleMillis, maxBytes, 0);
+    }
+
+    /**
+     * @param negativeTtlMillis     how long a negative entry, e.g. telling that there is none, is cached (0 = not
+     *                              cached)
+     */
+    public CacheSettings(long ttlMillis, long refreshAheadMillis, long maxStaleMillis, long maxBytes,
+                         long negativeTtlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.maxStaleMillis = maxStaleMillis;
+        this.maxBytes = maxBytes;
+        this.negativeTtlMillis = negativeTtlMillis;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public long getRefreshAheadMillis() {
+        return refreshAheadMillis;
+    }
+
+    public long getMaxStaleMillis() {
+        return maxStaleMillis;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getNegativeTtlMillis() {
+        return negativeTtlMillis;
+    }
+}
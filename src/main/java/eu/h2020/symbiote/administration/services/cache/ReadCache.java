@@ -0,0 +1,545 @@
+package eu.h2020.symbiote.administration.services.cache;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpHeaders;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-process cache of the data read from another component, e.g. the list of all the information models of the
+ * Registry or the details of the platforms.
+ *
+ * An entry is loaded on the first request and is fresh for the time to live. Shortly before it expires, the next
+ * request triggers a refresh in the background, so that the entries in use are not waited for. The refreshes run on a
+ * small pool of their own, since their loaders block until the component answers, and are skipped when it is busy.
+ * When the component cannot be reached, i.e. the loader fails or returns null, or it answers with a failed response, an
+ * expired entry is still served for a bounded time, marked as stale.
+ *
+ * A failed response of the loader is not cached, unless it is a negative one, e.g. the entry does not exist, which is
+ * cached for a shorter time and neither refreshed nor served stale. A negative response never replaces a cached entry
+ * which is not, so that it cannot hide the entry before it is too stale to be served. Nothing is cached either if its
+ * estimated size exceeds the memory bound. When the cached entries together exceed it, the least recently used ones are evicted.
+ *
+ * The changes made through Administration invalidate the entries right away, while an entry loaded concurrently with
+ * an invalidation is discarded, so that it cannot bring the old content back.
+ *
+ * The cache reports in the {@link MetricRegistry}:
+ *
+ * <ul>
+ *     <li>cache.[name].hits and misses: the requests answered from the cache or not</li>
+ *     <li>cache.[name].negativeHits: the hits on negative entries</li>
+ *     <li>cache.[name].expirations: the misses due to an entry older than the time to live</li>
+ *     <li>cache.[name].refreshes: the entries refreshed in the background</li>
+ *     <li>cache.[name].staleHits: the expired entries served because the component could not be reached</li>
+ *     <li>cache.[name].invalidations: the entries dropped because of a change</li>
+ *     <li>cache.[name].rejected and evictions: the entries not cached or evicted because of the memory bound</li>
+ *     <li>cache.[name].ageMillis: the age of the oldest entry, i.e. how stale the cache can be (0 if empty)</li>
+ *     <li>cache.[name].weightBytes: the estimated size of the cached entries</li>
+ * </ul>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the entries
+ */
+public class ReadCache<K, V> {
+    private static Log log = LogFactory.getLog(ReadCache.class);
+
+    static final String METRIC_PREFIX = "cache.";
+
+    /**
+     * The Warning header of the responses built from stale entries
+     */
+    public static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private static final int REFRESH_THREADS = 4;
+    private static final int REFRESH_QUEUE_SIZE = 256;
+
+    // Shared by all the caches, apart from the common pool which RabbitManager uses to decode the responses
+    private static final Executor REFRESH_EXECUTOR = createRefreshExecutor();
+
+    private static Executor createRefreshExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS,
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(REFRESH_QUEUE_SIZE), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * @return the headers of a response built from the given entries, with a Warning if any of them is stale
+     */
+    public static HttpHeaders headers(Lookup<?>... lookups) {
+        return headers(Arrays.asList(lookups));
+    }
+
+    /**
+     * @return the headers of a response built from the given entries, with a Warning if any of them is stale
+     */
+    public static HttpHeaders headers(Collection<? extends Lookup<?>> lookups) {
+        HttpHeaders headers = new HttpHeaders();
+        for (Lookup<?> lookup : lookups) {
+            if (lookup.isStale()) {
+                headers.add(HttpHeaders.WARNING, STALE_WARNING);
+                break;
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Loads an entry from the component owning it
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws CommunicationException;
+    }
+
+    /**
+     * Loads several entries at once from the component owning them. The keys for which nothing could be loaded are
+     * missing from the map. The future only fails if the component refuses the whole batch, e.g. it is overloaded
+     */
+    @FunctionalInterface
+    public interface BatchLoader<K, V> {
+        CompletableFuture<Map<K, V>> load(Collection<K> keys);
+    }
+
+    /**
+     * An entry, as answered by the cache
+     */
+    public static final class Lookup<V> {
+        private final V value;
+        private final boolean stale;
+        private final long ageMillis;
+
+        private Lookup(V value, boolean stale, long ageMillis) {
+            this.value = value;
+            this.stale = stale;
+            this.ageMillis = ageMillis;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * @return true if the entry expired and is served because the component could not be reached
+         */
+        public boolean isStale() {
+            return stale;
+        }
+
+        public long getAgeMillis() {
+            return ageMillis;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long loadedAt;
+        private final boolean negative;
+
+        private Entry(V value, long weight, long loadedAt, boolean negative) {
+            this.value = value;
+            this.weight = weight;
+            this.loadedAt = loadedAt;
+            this.negative = negative;
+        }
+    }
+
+    private final String name;
+    private final CacheSettings settings;
+    private final ToLongFunction<V> weigher;
+    private final Predicate<V> cacheable;
+    private final Predicate<V> negative;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final Counter expirations;
+    private final Counter refreshes;
+    private final Counter staleHits;
+    private final Counter invalidations;
+    private final Counter rejected;
+    private final Counter evictions;
+
+    // From the least to the most recently used, guarded by this
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<K> refreshing = new HashSet<>();
+    private long weight;
+
+    // Sequence numbers of the invalidations, guarded by this: a load discards the entries invalidated after it
+    // started. The invalidations of single keys only matter while some load is in progress
+    private long sequence;
+    private long allInvalidatedAt;
+    private final Map<K, Long> invalidatedAt = new HashMap<>();
+    private int loading;
+
+    /**
+     * @param name              the name of the cache in the metrics
+     * @param settings          the time to live, refresh, staleness and memory bound of the entries
+     * @param weigher           estimates the size of an entry in bytes
+     * @param cacheable         tells if a loaded entry can be cached, e.g. it is not a failed response
+     * @param metricRegistry    the registry of the cache metrics
+     */
+    public ReadCache(String name, CacheSettings settings, ToLongFunction<V> weigher, Predicate<V> cacheable,
+                     MetricRegistry metricRegistry) {
+        this(name, settings, weigher, cacheable, value -> false, metricRegistry);
+    }
+
+    /**
+     * @param negative          tells if a loaded entry which cannot be cached is a negative one, cached for the
+     *                          negative time to live. The other ones are failed responses
+     */
+    public ReadCache(String name, CacheSettings settings, ToLongFunction<V> weigher, Predicate<V> cacheable,
+                     Predicate<V> negative, MetricRegistry metricRegistry) {
+        this(name, settings, weigher, cacheable, negative, metricRegistry, REFRESH_EXECUTOR,
+                System::currentTimeMillis);
+    }
+
+    ReadCache(String name, CacheSettings settings, ToLongFunction<V> weigher, Predicate<V> cacheable,
+              Predicate<V> negative, MetricRegistry metricRegistry, Executor executor, LongSupplier clock) {
+        this.name = name;
+        this.settings = settings;
+        this.weigher = weigher;
+        this.cacheable = cacheable;
+        this.negative = negative;
+        this.executor = executor;
+        this.clock = clock;
+
+        String prefix = METRIC_PREFIX + name + ".";
+        this.hits = metricRegistry.counter(prefix + "hits");
+        this.negativeHits = metricRegistry.counter(prefix + "negativeHits");
+        this.misses = metricRegistry.counter(prefix + "misses");
+        this.expirations = metricRegistry.counter(prefix + "expirations");
+        this.refreshes = metricRegistry.counter(prefix + "refreshes");
+        this.staleHits = metricRegistry.counter(prefix + "staleHits");
+        this.invalidations = metricRegistry.counter(prefix + "invalidations");
+        this.rejected = metricRegistry.counter(prefix + "rejected");
+        this.evictions = metricRegistry.counter(prefix + "evictions");
+
+        // A cache created again on the same registry takes over the gauges
+        metricRegistry.remove(prefix + "ageMillis");
+        metricRegistry.remove(prefix + "weightBytes");
+        metricRegistry.register(prefix + "ageMillis", (Gauge<Long>) this::getAgeMillis);
+        metricRegistry.register(prefix + "weightBytes", (Gauge<Long>) this::getWeightBytes);
+    }
+
+    /**
+     * @return the cached entry if it is fresh, otherwise the entry returned by the loader, or the expired entry if the
+     * loader fails, returns null or a failed response and it is not too stale
+     * @throws CommunicationException if the loader fails and no entry can be served instead
+     */
+    public Lookup<V> get(K key, Loader<V> loader) throws CommunicationException {
+        long loadSequence;
+        synchronized (this) {
+            Lookup<V> fresh = getFresh(key);
+            if (fresh != null) {
+                if (needsRefresh(key, fresh))
+                    refresh(key, loader, startLoad());
+                return fresh;
+            }
+            loadSequence = startLoad();
+        }
+
+        try {
+            V value;
+            try {
+                value = loader.load();
+            } catch (CommunicationException e) {
+                Lookup<V> stale = getStale(key);
+                if (stale != null)
+                    return stale;
+                throw e;
+            }
+            return loaded(key, value, loadSequence);
+        } finally {
+            endLoad();
+        }
+    }
+
+    /**
+     * Same as {@link #get(Object, Loader)} for several entries, the missing ones being loaded at once
+     *
+     * @return future of the entries indexed by key. The keys for which nothing could be loaded or served are missing
+     * from the map. The future fails as the loader if it fails and some missing entry cannot be served stale
+     */
+    public CompletableFuture<Map<K, Lookup<V>>> getAll(Collection<K> keys, BatchLoader<K, V> loader) {
+        Map<K, Lookup<V>> lookups = new HashMap<>();
+        Set<K> missing = new HashSet<>();
+        Set<K> expiring = new HashSet<>();
+        long refreshSequence = 0;
+        long loadSequence = 0;
+
+        synchronized (this) {
+            for (K key : keys) {
+                Lookup<V> fresh = getFresh(key);
+                if (fresh == null)
+                    missing.add(key);
+                else {
+                    lookups.put(key, fresh);
+                    if (needsRefresh(key, fresh))
+                        expiring.add(key);
+                }
+            }
+            if (!expiring.isEmpty())
+                refreshSequence = startLoad();
+            if (!missing.isEmpty())
+                loadSequence = startLoad();
+        }
+
+        if (!expiring.isEmpty())
+            refreshAll(expiring, loader, refreshSequence);
+        if (missing.isEmpty())
+            return CompletableFuture.completedFuture(lookups);
+
+        long missingSequence = loadSequence;
+        CompletableFuture<Map<K, V>> loaded;
+        try {
+            loaded = loader.load(missing);
+        } catch (RuntimeException e) {
+            endLoad();
+            throw e;
+        }
+        return loaded.handle((values, e) -> {
+            try {
+                if (e != null)
+                    log.warn("Could not load the " + name + " of " + missing, e);
+
+                for (K key : missing) {
+                    Lookup<V> lookup = loaded(key, values != null ? values.get(key) : null, missingSequence);
+                    if (lookup.getValue() != null)
+                        lookups.put(key, lookup);
+                    else if (e != null)
+                        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+                }
+                return lookups;
+            } finally {
+                endLoad();
+            }
+        });
+    }
+
+    /**
+     * Drops an entry, after a change made through Administration
+     */
+    public synchronized void invalidate(K key) {
+        if (loading > 0)
+            invalidatedAt.put(key, ++sequence);
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            invalidations.inc();
+            weight -= entry.weight;
+        }
+    }
+
+    /**
+     * Drops all the entries, after a change made through Administration
+     */
+    public synchronized void invalidateAll() {
+        allInvalidatedAt = ++sequence;
+        invalidatedAt.clear();
+        invalidations.inc(entries.size());
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return the sequence number of a load which is starting, to be ended by {@link #endLoad()}
+     */
+    private long startLoad() {
+        loading++;
+        return sequence;
+    }
+
+    private synchronized void endLoad() {
+        if (--loading == 0)
+            invalidatedAt.clear();
+    }
+
+    private boolean invalidatedSince(K key, long loadSequence) {
+        return allInvalidatedAt > loadSequence || invalidatedAt.getOrDefault(key, 0L) > loadSequence;
+    }
+
+    private Lookup<V> getFresh(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.inc();
+            return null;
+        }
+
+        long age = clock.getAsLong() - entry.loadedAt;
+        if (age >= (entry.negative ? settings.getNegativeTtlMillis() : settings.getTtlMillis())) {
+            misses.inc();
+            expirations.inc();
+            if (!isServableStale(entry, age))
+                remove(key);
+            return null;
+        }
+
+        hits.inc();
+        if (entry.negative)
+            negativeHits.inc();
+        return new Lookup<>(entry.value, false, age);
+    }
+
+    private boolean needsRefresh(K key, Lookup<V> fresh) {
+        return !entries.get(key).negative
+                && fresh.getAgeMillis() >= settings.getTtlMillis() - settings.getRefreshAheadMillis()
+                && refreshing.add(key);
+    }
+
+    private synchronized Lookup<V> getStale(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null)
+            return null;
+
+        long age = clock.getAsLong() - entry.loadedAt;
+        if (!isServableStale(entry, age)) {
+            remove(key);
+            return null;
+        }
+
+        staleHits.inc();
+        return new Lookup<>(entry.value, true, age);
+    }
+
+    private boolean isServableStale(Entry<V> entry, long age) {
+        return !entry.negative && age < settings.getTtlMillis() + settings.getMaxStaleMillis();
+    }
+
+    private Lookup<V> loaded(K key, V value, long loadSequence) {
+        if (value == null || !cacheable.test(value) && !negative.test(value)) {
+            Lookup<V> stale = getStale(key);
+            return stale != null ? stale : new Lookup<>(value, false, 0);
+        }
+
+        store(key, value, loadSequence);
+        return new Lookup<>(value, false, 0);
+    }
+
+    private void refresh(K key, Loader<V> loader, long loadSequence) {
+        execute(Collections.singleton(key), () -> {
+            try {
+                V value = loader.load();
+                if (value != null)
+                    store(key, value, loadSequence);
+            } catch (Exception e) {
+                log.debug("Could not refresh the " + name + " of " + key, e);
+            } finally {
+                synchronized (this) {
+                    refreshing.remove(key);
+                }
+                endLoad();
+            }
+        });
+    }
+
+    private void refreshAll(Set<K> keys, BatchLoader<K, V> loader, long loadSequence) {
+        execute(keys, () -> {
+            try {
+                loader.load(keys).whenComplete((values, e) -> {
+                    if (values != null) {
+                        values.forEach((key, value) -> {
+                            if (value != null)
+                                store(key, value, loadSequence);
+                        });
+                    }
+                    refreshed(keys);
+                });
+            } catch (RuntimeException e) {
+                log.debug("Could not refresh the " + name + " of " + keys, e);
+                refreshed(keys);
+            }
+        });
+    }
+
+    private void execute(Set<K> keys, Runnable refresh) {
+        try {
+            executor.execute(refresh);
+            refreshes.inc(keys.size());
+        } catch (RejectedExecutionException e) {
+            // The entries are refreshed by a later request, or loaded again once expired
+            log.debug("Too many refreshes in progress, skipping the refresh of the " + name + " of " + keys);
+            refreshed(keys);
+        }
+    }
+
+    private synchronized void refreshed(Set<K> keys) {
+        refreshing.removeAll(keys);
+        endLoad();
+    }
+
+    private void store(K key, V value, long loadSequence) {
+        if (settings.getTtlMillis() > 0 && cacheable.test(value))
+            put(key, value, false, loadSequence);
+        else if (settings.getNegativeTtlMillis() > 0 && negative.test(value))
+            put(key, value, true, loadSequence);
+    }
+
+    private void put(K key, V value, boolean negativeEntry, long loadSequence) {
+        long entryWeight = weigher.applyAsLong(value);
+        if (entryWeight > settings.getMaxBytes()) {
+            log.debug("The " + name + " of " + key + " is too large to be cached: " + entryWeight + " bytes");
+            rejected.inc();
+            return;
+        }
+
+        synchronized (this) {
+            // Otherwise the entry was loaded before a change, which it may not include
+            if (invalidatedSince(key, loadSequence))
+                return;
+
+            Entry<V> current = entries.get(key);
+            if (negativeEntry && current != null && !current.negative)
+                return;
+
+            remove(key);
+            entries.put(key, new Entry<>(value, entryWeight, clock.getAsLong(), negativeEntry));
+            weight += entryWeight;
+
+            Iterator<Entry<V>> leastRecentlyUsed = entries.values().iterator();
+            while (weight > settings.getMaxBytes()) {
+                weight -= leastRecentlyUsed.next().weight;
+                leastRecentlyUsed.remove();
+                evictions.inc();
+            }
+        }
+    }
+
+    private void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null)
+            weight -= entry.weight;
+    }
+
+    public synchronized long getAgeMillis() {
+        long now = clock.getAsLong();
+        return entries.values().stream().mapToLong(entry -> now - entry.loadedAt).max().orElse(0);
+    }
+
+    public synchronized long getWeightBytes() {
+        return weight;
+    }
+}
@@ -155,7 +155,7 @@ public class FederationService {
 
         // Checking if the information model exist
         if (federation.getInformationModel() != null) {
-            ResponseEntity informationModelsResponse = informationModelService.getInformationModels();
+            ResponseEntity informationModelsResponse = informationModelService.getInformationModelSummaries();
             if (informationModelsResponse.getStatusCode() != HttpStatus.OK) {
                 responseBody.put("error", informationModelsResponse.getBody());
                 return new ResponseEntity<>(responseBody, new HttpHeaders(), informationModelsResponse.getStatusCode());
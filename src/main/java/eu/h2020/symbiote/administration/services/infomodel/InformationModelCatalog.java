@@ -0,0 +1,168 @@
+package eu.h2020.symbiote.administration.services.infomodel;
+
+import eu.h2020.symbiote.model.mim.InformationModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Local copy of the information models of the Registry, indexed by id and by owner.
+ *
+ * The catalog is loaded and then periodically refreshed as a whole from the Registry, while the information models
+ * registered or deleted through Administration are added or removed right away. A refresh loaded before such a change
+ * is discarded, since it may not include it, and the next one brings the catalog up to date with the changes made by
+ * the other components. If the catalog has not been refreshed for longer than its maximum staleness, e.g. because
+ * the Registry is unreachable, it is not used until the next successful refresh.
+ *
+ * The lookups do not lock: the indexes are never changed once published, and each change publishes new ones.
+ */
+public class InformationModelCatalog {
+
+    private static final class Indexes {
+        private final Map<String, InformationModel> byId;
+        private final Map<String, List<InformationModel>> byOwner;
+
+        private Indexes(Map<String, InformationModel> byId, Map<String, List<InformationModel>> byOwner) {
+            this.byId = byId;
+            this.byOwner = byOwner;
+        }
+
+        private Indexes copy() {
+            return new Indexes(new HashMap<>(byId), new HashMap<>(byOwner));
+        }
+    }
+
+    private final long maxStaleMillis;
+    private final LongSupplier clock;
+
+    private volatile Indexes indexes;
+    private volatile long refreshedAt;
+    private long version;
+
+    /**
+     * @param maxStaleMillis    how long the catalog is used after its last successful refresh. It is used for ever
+     *                          if it is 0
+     */
+    public InformationModelCatalog(long maxStaleMillis) {
+        this(maxStaleMillis, System::currentTimeMillis);
+    }
+
+    InformationModelCatalog(long maxStaleMillis, LongSupplier clock) {
+        this.maxStaleMillis = maxStaleMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @return true once the catalog is loaded from the Registry and as long as it is not too stale, otherwise the
+     * lookups have to ask the Registry
+     */
+    public boolean isLoaded() {
+        return indexes != null && (maxStaleMillis <= 0 || clock.getAsLong() - refreshedAt <= maxStaleMillis);
+    }
+
+    /**
+     * @return the information model with the given id, or null if there is none
+     */
+    public InformationModel getById(String id) {
+        Indexes current = indexes;
+        return current != null ? current.byId.get(id) : null;
+    }
+
+    /**
+     * @return the information models of the given owner
+     */
+    public List<InformationModel> getByOwner(String owner) {
+        Indexes current = indexes;
+        List<InformationModel> informationModels = current != null ? current.byOwner.get(owner) : null;
+        return informationModels != null ? informationModels : Collections.emptyList();
+    }
+
+    /**
+     * @return the version of the catalog, to be passed to {@link #replace(Collection, long)} with the information
+     * models loaded afterwards
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Replaces the content of the catalog with the information models loaded from the Registry
+     *
+     * @param informationModels the information models
+     * @param loadedVersion     the version of the catalog before they were loaded
+     * @return false if the catalog changed while they were loaded, in which case it is left as it is
+     */
+    public synchronized boolean replace(Collection<InformationModel> informationModels, long loadedVersion) {
+        if (loadedVersion != version)
+            return false;
+
+        Indexes loaded = new Indexes(new HashMap<>(), new HashMap<>());
+        Map<String, List<InformationModel>> byOwner = new HashMap<>();
+        for (InformationModel informationModel : informationModels) {
+            loaded.byId.put(informationModel.getId(), informationModel);
+            if (informationModel.getOwner() != null)
+                byOwner.computeIfAbsent(informationModel.getOwner(), owner -> new ArrayList<>()).add(informationModel);
+        }
+        byOwner.forEach((owner, ownerModels) -> loaded.byOwner.put(owner, Collections.unmodifiableList(ownerModels)));
+
+        refreshedAt = clock.getAsLong();
+        indexes = loaded;
+        version++;
+        return true;
+    }
+
+    /**
+     * Adds an information model registered through Administration, or replaces it if it is already in the catalog
+     */
+    public synchronized void put(InformationModel informationModel) {
+        version++;
+        if (indexes == null || informationModel.getId() == null)
+            return;
+
+        Indexes updated = indexes.copy();
+        remove(updated, informationModel.getId());
+        updated.byId.put(informationModel.getId(), informationModel);
+        if (informationModel.getOwner() != null) {
+            List<InformationModel> ownerModels = new ArrayList<>(updated.byOwner.getOrDefault(
+                    informationModel.getOwner(), Collections.emptyList()));
+            ownerModels.add(informationModel);
+            updated.byOwner.put(informationModel.getOwner(), Collections.unmodifiableList(ownerModels));
+        }
+        indexes = updated;
+    }
+
+    /**
+     * Removes an information model deleted through Administration
+     */
+    public synchronized void remove(String id) {
+        version++;
+        if (indexes == null || !indexes.byId.containsKey(id))
+            return;
+
+        Indexes updated = indexes.copy();
+        remove(updated, id);
+        indexes = updated;
+    }
+
+    /**
+     * Removes an information model from indexes which are not published yet
+     */
+    private static void remove(Indexes indexes, String id) {
+        InformationModel removed = indexes.byId.remove(id);
+        if (removed == null || removed.getOwner() == null)
+            return;
+
+        List<InformationModel> ownerModels = new ArrayList<>(indexes.byOwner.getOrDefault(removed.getOwner(),
+                Collections.emptyList()));
+        ownerModels.removeIf(informationModel -> id.equals(informationModel.getId()));
+        if (ownerModels.isEmpty())
+            indexes.byOwner.remove(removed.getOwner());
+        else
+            indexes.byOwner.put(removed.getOwner(), Collections.unmodifiableList(ownerModels));
+    }
+}
@@ -1,11 +1,15 @@
 package eu.h2020.symbiote.administration.services.infomodel;
 
+import com.codahale.metrics.MetricRegistry;
 import eu.h2020.symbiote.administration.communication.rabbit.RabbitManager;
+import eu.h2020.symbiote.administration.communication.rabbit.RawRegistryResponse;
 import eu.h2020.symbiote.administration.exceptions.generic.GenericBadRequestException;
 import eu.h2020.symbiote.administration.exceptions.generic.GenericHttpErrorException;
 import eu.h2020.symbiote.administration.exceptions.generic.GenericInternalServerErrorException;
 import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
 import eu.h2020.symbiote.administration.model.CoreUser;
+import eu.h2020.symbiote.administration.services.cache.CacheSettings;
+import eu.h2020.symbiote.administration.services.cache.ReadCache;
 import eu.h2020.symbiote.core.cci.InfoModelMappingRequest;
 import eu.h2020.symbiote.core.cci.InfoModelMappingResponse;
 import eu.h2020.symbiote.core.cci.InformationModelRequest;
@@ -21,14 +25,18 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.commons.validator.routines.UrlValidator;
 import org.apache.tomcat.util.http.fileupload.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletResponse;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -36,6 +44,9 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -43,12 +54,185 @@ import java.util.zip.ZipOutputStream;
 public class InformationModelService {
     private static Log log = LogFactory.getLog(InformationModelService.class);
 
+    private static final String FULL_VIEW = "full";
+    private static final String SUMMARY_VIEW = "summary";
+
     private RabbitManager rabbitManager;
+    private boolean registryPassthrough;
+    private MetricRegistry metricRegistry = new MetricRegistry();
+    private ReadCache<String, InformationModelListResponse> informationModels;
+    private ReadCache<String, RawRegistryResponse> rawInformationModels;
+    private ReadCache<Boolean, MappingListResponse> mappings;
+    private ReadCache<Boolean, RawRegistryResponse> rawMappings;
+    private InformationModelCatalog catalog;
+    private ScheduledExecutorService catalogRefresher;
+
+    @Value("${symbiote.core.administration.cache.informationModels.ttlMillis:0}")
+    private long informationModelsTtlMillis;
+
+    @Value("${symbiote.core.administration.cache.informationModels.refreshAheadMillis:0}")
+    private long informationModelsRefreshAheadMillis;
+
+    @Value("${symbiote.core.administration.cache.informationModels.maxStaleMillis:0}")
+    private long informationModelsMaxStaleMillis;
+
+    @Value("${symbiote.core.administration.cache.informationModels.maxBytes:67108864}")
+    private long informationModelsMaxBytes;
+
+    @Value("${symbiote.core.administration.cache.mappings.ttlMillis:0}")
+    private long mappingsTtlMillis;
+
+    @Value("${symbiote.core.administration.cache.mappings.refreshAheadMillis:0}")
+    private long mappingsRefreshAheadMillis;
+
+    @Value("${symbiote.core.administration.cache.mappings.maxStaleMillis:0}")
+    private long mappingsMaxStaleMillis;
 
+    @Value("${symbiote.core.administration.cache.mappings.maxBytes:67108864}")
+    private long mappingsMaxBytes;
+
+    @Value("${symbiote.core.administration.catalog.informationModels.refreshMillis:0}")
+    private long catalogRefreshMillis;
+
+    @Value("${symbiote.core.administration.catalog.informationModels.maxStaleMillis:0}")
+    private long catalogMaxStaleMillis;
+
+    /**
+     * @param registryPassthrough   if true, the lists of all the information models and mappings are passed from the
+     *                              Registry to the browser as raw JSON, without being deserialized
+     */
     @Autowired
-    public InformationModelService(RabbitManager rabbitManager) {
+    public InformationModelService(RabbitManager rabbitManager,
+                                   @Value("${symbiote.core.administration.registry.passthrough:false}")
+                                           boolean registryPassthrough) {
         Assert.notNull(rabbitManager,"RabbitManager can not be null!");
         this.rabbitManager = rabbitManager;
+        this.registryPassthrough = registryPassthrough;
+    }
+
+    /**
+     * Uses the application metric registry, so that the cache metrics are exposed by the actuator
+     */
+    @Autowired(required = false)
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * Creates the caches of the lists of the information models and mappings, and starts refreshing the catalog
+     */
+    @PostConstruct
+    public void init() {
+        CacheSettings informationModelSettings = new CacheSettings(informationModelsTtlMillis,
+                informationModelsRefreshAheadMillis, informationModelsMaxStaleMillis, informationModelsMaxBytes);
+        CacheSettings mappingSettings = new CacheSettings(mappingsTtlMillis, mappingsRefreshAheadMillis,
+                mappingsMaxStaleMillis, mappingsMaxBytes);
+
+        informationModels = new ReadCache<>("informationModels", informationModelSettings,
+                InformationModelService::estimateSize, InformationModelService::isOk, metricRegistry);
+        rawInformationModels = new ReadCache<>("rawInformationModels", informationModelSettings,
+                InformationModelService::estimateSize, InformationModelService::isOk, metricRegistry);
+        mappings = new ReadCache<>("mappings", mappingSettings,
+                InformationModelService::estimateSize, InformationModelService::isOk, metricRegistry);
+        rawMappings = new ReadCache<>("rawMappings", mappingSettings,
+                InformationModelService::estimateSize, InformationModelService::isOk, metricRegistry);
+
+        catalog = new InformationModelCatalog(catalogMaxStaleMillis);
+        startCatalogRefresh();
+    }
+
+    /**
+     * Starts loading the catalog of the information models, and refreshing it periodically, if it is enabled
+     */
+    private void startCatalogRefresh() {
+        if (catalogRefreshMillis <= 0)
+            return;
+
+        catalogRefresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "information-model-catalog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        catalogRefresher.scheduleWithFixedDelay(this::refreshCatalog, 0, catalogRefreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopCatalogRefresh() {
+        if (catalogRefresher != null)
+            catalogRefresher.shutdownNow();
+    }
+
+    /**
+     * Loads the summaries of all the information models from the Registry into the catalog
+     */
+    void refreshCatalog() {
+        try {
+            long version = catalog.getVersion();
+            InformationModelListResponse response = rabbitManager.sendListInfoModelSummariesRequest();
+            if (response == null || !isOk(response))
+                log.info("Could not refresh the catalog of the information models: " +
+                        (response != null ? response.getMessage() : "Registry unreachable!"));
+            else if (!catalog.replace(response.getBody(), version))
+                log.debug("The catalog of the information models changed while being refreshed");
+        } catch (Exception e) {
+            log.info("Could not refresh the catalog of the information models", e);
+        }
+    }
+
+    /**
+     * Removes an information model from the catalog, once the Registry confirmed that it is deleted
+     */
+    public void onInformationModelDeleted(String id) {
+        catalog.remove(id);
+    }
+
+    /**
+     * Finds an information model by id, in the catalog if it is loaded and otherwise in the list of the Registry. An
+     * information model missing from the catalog is looked for in the list as well, since it may have been registered
+     * by another component since the last refresh.
+     *
+     * The information model is always a summary, without its rdf, whether it comes from the catalog or from the
+     * Registry. It is all the Registry needs to delete it.
+     *
+     * @return a response with the information model as body, or without body if there is none with this id, or the
+     * error response of the Registry
+     */
+    public ResponseEntity<?> findInformationModel(String id) {
+        if (catalog.isLoaded()) {
+            InformationModel informationModel = catalog.getById(id);
+            if (informationModel != null)
+                return new ResponseEntity<>(informationModel, new HttpHeaders(), HttpStatus.OK);
+        }
+
+        ResponseEntity<?> responseEntity = getInformationModelSummaries();
+        if (responseEntity.getStatusCode() != HttpStatus.OK)
+            return responseEntity;
+
+        @SuppressWarnings("unchecked")
+        List<InformationModel> informationModels = (List<InformationModel>) responseEntity.getBody();
+        for (InformationModel informationModel : informationModels) {
+            if (informationModel.getId().equals(id))
+                return new ResponseEntity<>(informationModel, new HttpHeaders(), HttpStatus.OK);
+        }
+        return new ResponseEntity<>(new HttpHeaders(), HttpStatus.OK);
+    }
+
+    /**
+     * Drops the cached lists of the information models. It is called after each request which may have registered or
+     * deleted an information model, whether it succeeded or not, since a failed response does not mean that nothing
+     * changed in the Registry.
+     */
+    public void invalidateInformationModels() {
+        informationModels.invalidateAll();
+        rawInformationModels.invalidateAll();
+    }
+
+    /**
+     * Drops the cached lists of the mappings, in the same way as {@link #invalidateInformationModels()}
+     */
+    public void invalidateMappings() {
+        mappings.invalidateAll();
+        rawMappings.invalidateAll();
     }
 
     public ResponseEntity<?> listUserInformationModels(Principal principal) {
@@ -58,8 +242,15 @@ public class InformationModelService {
         UsernamePasswordAuthenticationToken token = (UsernamePasswordAuthenticationToken) principal;
         CoreUser user = (CoreUser) token.getPrincipal();
 
+        // An owner without information models in the catalog may have registered some since the last refresh
+        if (catalog.isLoaded()) {
+            List<InformationModel> userInfoModels = catalog.getByOwner(user.getUsername());
+            if (!userInfoModels.isEmpty())
+                return new ResponseEntity<>(userInfoModels, new HttpHeaders(), HttpStatus.OK);
+        }
+
         // Get InformationModelList from Registry
-        ResponseEntity<?> responseEntity = getInformationModels();
+        ResponseEntity<?> responseEntity = getInformationModelSummaries();
         if (responseEntity.getStatusCode() != HttpStatus.OK)
             return responseEntity;
         else {
@@ -72,7 +263,7 @@ public class InformationModelService {
                 if (informationModel.getOwner().equals(user.getUsername()))
                     userInfoModels.add(informationModel);
             }
-            return new ResponseEntity<>(userInfoModels, new HttpHeaders(), HttpStatus.OK);
+            return new ResponseEntity<>(userInfoModels, responseEntity.getHeaders(), HttpStatus.OK);
         }
     }
 
@@ -87,7 +278,8 @@ public class InformationModelService {
         CoreUser user = (CoreUser) token.getPrincipal();
         Map<String, String> response = new HashMap<>();
 
-        log.debug("User state is: " + ReflectionToStringBuilder.toString(user));
+        if (log.isDebugEnabled())
+            log.debug("User state is: " + ReflectionToStringBuilder.toString(user));
 
         if (name.length() < 2 || name.length() > 30)
             response.put("info_model_reg_error_name", "The name should have from 2 to 30 characters");
@@ -122,7 +314,11 @@ public class InformationModelService {
             InformationModelRequest request = new InformationModelRequest();
             request.setBody(informationModel);
 
-            registryResponse = rabbitManager.sendRegisterInfoModelRequest(request);
+            try {
+                registryResponse = rabbitManager.sendRegisterInfoModelRequest(request);
+            } finally {
+                invalidateInformationModels();
+            }
             if (registryResponse != null) {
                 if (registryResponse.getStatus() != HttpStatus.OK.value()) {
                     String message = "Registry responded with: " + registryResponse.getStatus();
@@ -152,9 +348,24 @@ public class InformationModelService {
                     new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
 
+        if (registryResponse.getBody() != null)
+            catalog.put(summaryOf(registryResponse.getBody()));
         return new ResponseEntity<>(registryResponse.getBody(), new HttpHeaders(), HttpStatus.CREATED);
     }
 
+    /**
+     * @return a copy of the information model without its rdf, as the ones in the catalog
+     */
+    private static InformationModel summaryOf(InformationModel informationModel) {
+        InformationModel summary = new InformationModel();
+        summary.setId(informationModel.getId());
+        summary.setUri(informationModel.getUri());
+        summary.setName(informationModel.getName());
+        summary.setOwner(informationModel.getOwner());
+        summary.setRdfFormat(informationModel.getRdfFormat());
+        return summary;
+    }
+
     public ResponseEntity<?> deleteInformationModel(String infoModelIdToDelete, Principal principal) {
 
         log.trace("deleteInformationModel");
@@ -163,50 +374,47 @@ public class InformationModelService {
         UsernamePasswordAuthenticationToken token = (UsernamePasswordAuthenticationToken) principal;
         CoreUser user = (CoreUser) token.getPrincipal();
 
-        // Get InformationModelList from Registry
-        ResponseEntity<?> responseEntity = getInformationModels();
+        // Get the information model from the catalog or the Registry
+        ResponseEntity<?> responseEntity = findInformationModel(infoModelIdToDelete);
         if (responseEntity.getStatusCode() != HttpStatus.OK)
             return responseEntity;
-        else {
-            @SuppressWarnings("unchecked")
-            List<InformationModel> informationModels = (List<InformationModel>) responseEntity.getBody();
-
-            for (InformationModel informationModel : informationModels) {
-                log.debug(informationModel.getId() + " " + informationModel.getOwner());
-                if (informationModel.getId().equals(infoModelIdToDelete) &&
-                        informationModel.getOwner().equals(user.getUsername())) {
-
-                    // Ask Registry
-                    try {
-                        InformationModelRequest request = new InformationModelRequest();
-                        request.setBody(informationModel);
-
-                        InformationModelResponse response = rabbitManager.sendDeleteInfoModelRequest(request);
-                        if (response != null) {
-                            if (response.getStatus() != HttpStatus.OK.value()) {
-
-                                return new ResponseEntity<>(response.getMessage(),
-                                        new HttpHeaders(), HttpStatus.valueOf(response.getStatus()));
-                            }
-                        } else {
-                            log.warn("Registry unreachable!");
-                            return new ResponseEntity<>("Registry unreachable!",
-                                    new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
-                        }
-                    } catch (CommunicationException e) {
-                        log.info("", e);
-                        String message = "Registry threw communication exception: " + e.getMessage();
-                        log.warn(message);
-                        return new ResponseEntity<>(message, new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
-                    }
-
-                    return new ResponseEntity<>(new HttpHeaders(), HttpStatus.OK);
-                }
-            }
 
+        InformationModel informationModel = (InformationModel) responseEntity.getBody();
+        if (informationModel == null || !informationModel.getOwner().equals(user.getUsername()))
             return new ResponseEntity<>("You do not own the Information Model that you tried to delete",
                     new HttpHeaders(), HttpStatus.BAD_REQUEST);
+
+        // Ask Registry
+        try {
+            InformationModelRequest request = new InformationModelRequest();
+            request.setBody(informationModel);
+
+            InformationModelResponse response;
+            try {
+                response = rabbitManager.sendDeleteInfoModelRequest(request);
+            } finally {
+                invalidateInformationModels();
+            }
+            if (response != null) {
+                if (response.getStatus() != HttpStatus.OK.value()) {
+
+                    return new ResponseEntity<>(response.getMessage(),
+                            new HttpHeaders(), HttpStatus.valueOf(response.getStatus()));
+                }
+            } else {
+                log.warn("Registry unreachable!");
+                return new ResponseEntity<>("Registry unreachable!",
+                        new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        } catch (CommunicationException e) {
+            log.info("", e);
+            String message = "Registry threw communication exception: " + e.getMessage();
+            log.warn(message);
+            return new ResponseEntity<>(message, new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
+
+        onInformationModelDeleted(infoModelIdToDelete);
+        return new ResponseEntity<>(new HttpHeaders(), HttpStatus.OK);
     }
 
     public OntologyMapping registerInfoModelMapping(String name, String sourceModelId, String destinationModelId,
@@ -257,7 +465,11 @@ public class InformationModelService {
             InfoModelMappingRequest request = new InfoModelMappingRequest();
             request.setBody(ontologyMapping);
 
-            registryResponse = rabbitManager.sendRegisterMappingRequest(request);
+            try {
+                registryResponse = rabbitManager.sendRegisterMappingRequest(request);
+            } finally {
+                invalidateMappings();
+            }
             if (registryResponse != null) {
                 if (registryResponse.getStatus() < 200
                         || registryResponse.getStatus() >= 300) {
@@ -305,7 +517,12 @@ public class InformationModelService {
             InfoModelMappingRequest request = new InfoModelMappingRequest();
             request.setBody(ontologyMapping);
 
-            InfoModelMappingResponse response = rabbitManager.sendDeleteMappingRequest(request);
+            InfoModelMappingResponse response;
+            try {
+                response = rabbitManager.sendDeleteMappingRequest(request);
+            } finally {
+                invalidateMappings();
+            }
             if (response != null) {
                 if (response.getStatus() != HttpStatus.OK.value()) {
                     throw new GenericHttpErrorException(response.getMessage(), HttpStatus.valueOf(response.getStatus()));
@@ -348,17 +565,114 @@ public class InformationModelService {
         }
     }
 
+    /**
+     * Lists all the information models, passing them as raw JSON from the Registry if the passthrough is enabled
+     */
+    public ResponseEntity<?> listAllInformationModels() {
+        return registryPassthrough ? getRawInformationModels() : getInformationModels();
+    }
+
     public ResponseEntity<?> getInformationModels() {
         try {
-            InformationModelListResponse informationModelListResponse = rabbitManager.sendListInfoModelsRequest();
-            if (informationModelListResponse != null && informationModelListResponse.getStatus() == HttpStatus.OK.value()) {
-                return new ResponseEntity<>(informationModelListResponse.getBody(),
-                        new HttpHeaders(), HttpStatus.OK);
+            return toResponseEntity(informationModels.get(FULL_VIEW, rabbitManager::sendListInfoModelsRequest));
+        } catch (CommunicationException e) {
+            log.info("", e);
+            return new ResponseEntity<>("Communication exception while retrieving the information models: " +
+                    e.getMessage(), new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Same as {@link #getInformationModels()}, for the callers which only need the ids, names and owners: the rdf of
+     * the information models is not loaded
+     */
+    public ResponseEntity<?> getInformationModelSummaries() {
+        try {
+            return toResponseEntity(
+                    informationModels.get(SUMMARY_VIEW, rabbitManager::sendListInfoModelSummariesRequest));
+        } catch (CommunicationException e) {
+            log.info("", e);
+            return new ResponseEntity<>("Communication exception while retrieving the information models: " +
+                    e.getMessage(), new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private ResponseEntity<?> toResponseEntity(ReadCache.Lookup<InformationModelListResponse> lookup) {
+        InformationModelListResponse informationModelListResponse = lookup.getValue();
+        if (informationModelListResponse != null && informationModelListResponse.getStatus() == HttpStatus.OK.value()) {
+            return new ResponseEntity<>(informationModelListResponse.getBody(),
+                    ReadCache.headers(lookup), HttpStatus.OK);
+
+        } else {
+            if (informationModelListResponse != null)
+                return new ResponseEntity<>(informationModelListResponse.getMessage(),
+                        new HttpHeaders(), HttpStatus.valueOf(informationModelListResponse.getStatus()));
+            else
+                return new ResponseEntity<>("Could not retrieve the information models from registry",
+                        new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
+
+        }
+    }
+
+    private static boolean isOk(InformationModelListResponse response) {
+        return response.getStatus() == HttpStatus.OK.value() && response.getBody() != null;
+    }
+
+    private static boolean isOk(MappingListResponse response) {
+        return response.getStatus() == HttpStatus.OK.value() && response.getBody() != null;
+    }
+
+    private static boolean isOk(RawRegistryResponse response) {
+        return response.getStatus() == HttpStatus.OK.value() && response.getBody() != null;
+    }
+
+    /**
+     * Estimates the size in memory of a list of information models, from the strings which make up most of it
+     */
+    private static long estimateSize(InformationModelListResponse response) {
+        long size = 0;
+        for (InformationModel informationModel : response.getBody()) {
+            size += 64 + 2L * (length(informationModel.getId()) + length(informationModel.getName())
+                    + length(informationModel.getOwner()) + length(informationModel.getUri())
+                    + length(informationModel.getRdf()));
+        }
+        return size;
+    }
+
+    /**
+     * Estimates the size in memory of a list of mappings, in the same way
+     */
+    private static long estimateSize(MappingListResponse response) {
+        long size = 0;
+        for (OntologyMapping mapping : response.getBody()) {
+            size += 64 + 2L * (length(mapping.getId()) + length(mapping.getName()) + length(mapping.getOwner())
+                    + length(mapping.getSourceModelId()) + length(mapping.getDestinationModelId())
+                    + length(mapping.getDefinition()));
+        }
+        return size;
+    }
+
+    private static long estimateSize(RawRegistryResponse response) {
+        return response.getBody().length;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private ResponseEntity<?> getRawInformationModels() {
+        try {
+            ReadCache.Lookup<RawRegistryResponse> lookup =
+                    rawInformationModels.get(FULL_VIEW, rabbitManager::sendListInfoModelsRawRequest);
+            RawRegistryResponse response = lookup.getValue();
+            if (response != null && response.getStatus() == HttpStatus.OK.value()) {
+                return ResponseEntity.ok().headers(ReadCache.headers(lookup))
+                        .contentType(MediaType.APPLICATION_JSON_UTF8).body(response.getBody());
 
             } else {
-                if (informationModelListResponse != null)
-                    return new ResponseEntity<>(informationModelListResponse.getMessage(),
-                            new HttpHeaders(), HttpStatus.valueOf(informationModelListResponse.getStatus()));
+                if (response != null)
+                    return new ResponseEntity<>(response.getMessage(),
+                            new HttpHeaders(), HttpStatus.valueOf(response.getStatus()));
                 else
                     return new ResponseEntity<>("Could not retrieve the information models from registry",
                             new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -371,12 +685,47 @@ public class InformationModelService {
         }
     }
 
+    /**
+     * Lists all the mappings, passing them as raw JSON from the Registry if the passthrough is enabled
+     */
+    public ResponseEntity<?> listAllMappings(GetAllMappings getAllMappings)
+            throws GenericHttpErrorException {
+        if (!registryPassthrough) {
+            ReadCache.Lookup<MappingListResponse> lookup = getMappings(getAllMappings);
+            return ResponseEntity.ok().headers(ReadCache.headers(lookup)).body(lookup.getValue().getBody());
+        }
+
+        ReadCache.Lookup<RawRegistryResponse> lookup;
+        try {
+            lookup = rawMappings.get(getAllMappings.isReturnDefinitions(),
+                    () -> rabbitManager.sendGetAllMappingsRawRequest(getAllMappings));
+            RawRegistryResponse response = lookup.getValue();
+            if (response == null)
+                throw new GenericInternalServerErrorException("Registry unreachable!");
+
+            if (response.getStatus() != HttpStatus.OK.value())
+                throw new GenericHttpErrorException(response.getMessage(),
+                        HttpStatus.valueOf(response.getStatus()));
+        } catch (CommunicationException e) {
+            String message = "Registry threw communication exception: " + e.getMessage();
+            throw new GenericInternalServerErrorException(message);
+        }
+        return ResponseEntity.ok().headers(ReadCache.headers(lookup))
+                .contentType(MediaType.APPLICATION_JSON_UTF8).body(lookup.getValue().getBody());
+    }
+
     public Set<OntologyMapping> getAllMappings(GetAllMappings getAllMappings)
             throws GenericHttpErrorException {
-        MappingListResponse mappingListResponse;
+        return getMappings(getAllMappings).getValue().getBody();
+    }
+
+    private ReadCache.Lookup<MappingListResponse> getMappings(GetAllMappings getAllMappings)
+            throws GenericHttpErrorException {
+        ReadCache.Lookup<MappingListResponse> lookup;
         try {
-            mappingListResponse = rabbitManager.sendGetAllMappingsRequest(
-                    getAllMappings);
+            lookup = mappings.get(getAllMappings.isReturnDefinitions(),
+                    () -> rabbitManager.sendGetAllMappingsRequest(getAllMappings));
+            MappingListResponse mappingListResponse = lookup.getValue();
             if (mappingListResponse == null)
                 throw new GenericInternalServerErrorException("Registry unreachable!");
 
@@ -387,7 +736,7 @@ public class InformationModelService {
             String message = "Registry threw communication exception: " + e.getMessage();
             throw new GenericInternalServerErrorException(message);
         }
-        return mappingListResponse.getBody();
+        return lookup;
     }
 
     private OntologyMapping getSingleMapping(GetSingleMapping getSingleMapping)
@@ -0,0 +1,120 @@
+package eu.h2020.symbiote.administration.services.ownedservices;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.h2020.symbiote.administration.communication.rabbit.RabbitManager;
+import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+import eu.h2020.symbiote.administration.services.cache.CacheSettings;
+import eu.h2020.symbiote.administration.services.cache.ReadCache;
+import eu.h2020.symbiote.security.commons.enums.AccountStatus;
+import eu.h2020.symbiote.security.commons.enums.OperationType;
+import eu.h2020.symbiote.security.commons.enums.UserRole;
+import eu.h2020.symbiote.security.communication.payloads.Credentials;
+import eu.h2020.symbiote.security.communication.payloads.OwnedService;
+import eu.h2020.symbiote.security.communication.payloads.UserDetails;
+import eu.h2020.symbiote.security.communication.payloads.UserManagementRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caches the services owned by each user, as listed by the AAM, indexed by service id. The services of a user are
+ * dropped whenever a platform or SSP is registered, updated or deleted on their behalf, and expire after a short time
+ * to live otherwise, since they can also be changed through the AAM directly.
+ */
+@Service
+public class OwnedServicesCache {
+
+    // The owned services are small and rather uniform, so they are weighed by their number
+    private static final long ESTIMATED_SERVICE_SIZE = 512;
+
+    private final RabbitManager rabbitManager;
+    private final String aaMOwnerUsername;
+    private final String aaMOwnerPassword;
+    private MetricRegistry metricRegistry = new MetricRegistry();
+    private ReadCache<String, Map<String, OwnedService>> ownedServices;
+
+    @Value("${symbiote.core.administration.cache.ownedServices.ttlMillis:0}")
+    private long ttlMillis;
+
+    @Value("${symbiote.core.administration.cache.ownedServices.maxBytes:16777216}")
+    private long maxBytes;
+
+    @Autowired
+    public OwnedServicesCache(RabbitManager rabbitManager,
+                              @Value("${aam.deployment.owner.username}") String aaMOwnerUsername,
+                              @Value("${aam.deployment.owner.password}") String aaMOwnerPassword) {
+        Assert.notNull(rabbitManager,"RabbitManager can not be null!");
+        this.rabbitManager = rabbitManager;
+
+        Assert.notNull(aaMOwnerUsername,"aaMOwnerUsername can not be null!");
+        this.aaMOwnerUsername = aaMOwnerUsername;
+
+        Assert.notNull(aaMOwnerPassword,"aaMOwnerPassword can not be null!");
+        this.aaMOwnerPassword = aaMOwnerPassword;
+    }
+
+    /**
+     * Uses the application metric registry, so that the cache metrics are exposed by the actuator
+     */
+    @Autowired(required = false)
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        // The ownership checks must not rely on stale services, so they are neither refreshed ahead nor served stale
+        ownedServices = new ReadCache<>("ownedServices", new CacheSettings(ttlMillis, 0, 0, maxBytes),
+                services -> ESTIMATED_SERVICE_SIZE * (services.size() + 1), services -> true, metricRegistry);
+    }
+
+    /**
+     * @param username  the user
+     * @return the services owned by the user indexed by service id, or null if the AAM could not be reached
+     */
+    public Map<String, OwnedService> getOwnedServices(String username) throws CommunicationException {
+        return ownedServices.get(username, () -> loadOwnedServices(username)).getValue();
+    }
+
+    /**
+     * Drops the services owned by the user, after a request which may have changed them
+     */
+    public void invalidate(String username) {
+        ownedServices.invalidate(username);
+    }
+
+    private Map<String, OwnedService> loadOwnedServices(String username) throws CommunicationException {
+        UserManagementRequest ownedServiceDetailsRequest = new UserManagementRequest(
+                new Credentials(aaMOwnerUsername, aaMOwnerPassword),
+                new Credentials(username, ""),
+                new UserDetails(
+                        new Credentials(username, ""),
+                        "",
+                        UserRole.NULL,
+                        AccountStatus.ACTIVE,
+                        new HashMap<>(),
+                        new HashMap<>(),
+                        true,
+                        false
+                ),
+                OperationType.CREATE
+        );
+
+        Set<OwnedService> ownedServicesSet = rabbitManager.sendOwnedServiceDetailsRequest(ownedServiceDetailsRequest);
+        if (ownedServicesSet == null)
+            return null;
+
+        Map<String, OwnedService> servicesById = new LinkedHashMap<>();
+        for (OwnedService ownedService : ownedServicesSet)
+            servicesById.put(ownedService.getServiceInstanceId(), ownedService);
+        return Collections.unmodifiableMap(servicesById);
+    }
+}
@@ -1,26 +1,18 @@
 package eu.h2020.symbiote.administration.services.ownedservices;
 
-import eu.h2020.symbiote.administration.communication.rabbit.RabbitManager;
 import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+import eu.h2020.symbiote.administration.exceptions.rabbit.ServiceOverloadedException;
 import eu.h2020.symbiote.administration.model.*;
-import eu.h2020.symbiote.administration.services.platform.PlatformService;
-import eu.h2020.symbiote.administration.services.ssp.SSPService;
+import eu.h2020.symbiote.administration.services.cache.ReadCache;
 import eu.h2020.symbiote.core.cci.PlatformRegistryResponse;
 import eu.h2020.symbiote.core.cci.SspRegistryResponse;
 import eu.h2020.symbiote.model.mim.Platform;
 import eu.h2020.symbiote.model.mim.SmartSpace;
-import eu.h2020.symbiote.security.commons.enums.AccountStatus;
-import eu.h2020.symbiote.security.commons.enums.OperationType;
-import eu.h2020.symbiote.security.commons.enums.UserRole;
-import eu.h2020.symbiote.security.communication.payloads.Credentials;
 import eu.h2020.symbiote.security.communication.payloads.OwnedService;
-import eu.h2020.symbiote.security.communication.payloads.UserDetails;
-import eu.h2020.symbiote.security.communication.payloads.UserManagementRequest;
 import org.apache.commons.lang.builder.ReflectionToStringBuilder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -30,6 +22,8 @@ import org.springframework.util.Assert;
 
 import java.security.Principal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,28 +31,18 @@ public class OwnedServicesService {
 
     private static Log log = LogFactory.getLog(OwnedServicesService.class);
 
-    private final RabbitManager rabbitManager;
-    private final PlatformService platformService;
-    private final SSPService sspService;
-    private final String aaMOwnerUsername;
-    private final String aaMOwnerPassword;
+    private final OwnedServicesCache ownedServicesCache;
+    private final ServiceDetailsCache serviceDetailsCache;
 
     @Autowired
-    public OwnedServicesService(RabbitManager rabbitManager,
-                                PlatformService platformService,
-                                SSPService sspService,
-                                @Value("${aam.deployment.owner.username}") String aaMOwnerUsername,
-                                @Value("${aam.deployment.owner.password}") String aaMOwnerPassword) {
+    public OwnedServicesService(OwnedServicesCache ownedServicesCache,
+                                ServiceDetailsCache serviceDetailsCache) {
 
-        this.rabbitManager = rabbitManager;
-        this.platformService = platformService;
-        this.sspService = sspService;
+        Assert.notNull(ownedServicesCache,"OwnedServicesCache can not be null!");
+        this.ownedServicesCache = ownedServicesCache;
 
-        Assert.notNull(aaMOwnerUsername,"aaMOwnerUsername can not be null!");
-        this.aaMOwnerUsername = aaMOwnerUsername;
-
-        Assert.notNull(aaMOwnerPassword,"aaMOwnerPassword can not be null!");
-        this.aaMOwnerPassword = aaMOwnerPassword;
+        Assert.notNull(serviceDetailsCache,"ServiceDetailsCache can not be null!");
+        this.serviceDetailsCache = serviceDetailsCache;
     }
 
     public ResponseEntity<ListUserServicesResponse> listUserServices(Principal principal) {
@@ -73,37 +57,29 @@ public class OwnedServicesService {
         Set<OwnedService> ownedSSPDetailsSet = new HashSet<>();
         String responseMessage;
         HttpStatus httpStatus;
-
-        UserManagementRequest ownedServiceDetailsRequest = new UserManagementRequest(
-                new Credentials(aaMOwnerUsername, aaMOwnerPassword),
-                new Credentials(user.getUsername(), ""),
-                new UserDetails(
-                        new Credentials(user.getUsername(), ""),
-                        "",
-                        UserRole.NULL,
-                        AccountStatus.ACTIVE,
-                        new HashMap<>(),
-                        new HashMap<>(),
-                        true,
-                        false
-                ),
-                OperationType.CREATE
-        );
+        HttpHeaders headers = new HttpHeaders();
 
         // Get OwnedPlatformDetails from AAM
         try {
-            Set<OwnedService> ownedServicesSet =
-                    rabbitManager.sendOwnedServiceDetailsRequest(ownedServiceDetailsRequest);
-            if (ownedServicesSet != null) {
+            Map<String, OwnedService> ownedServices = ownedServicesCache.getOwnedServices(user.getUsername());
+            if (ownedServices != null) {
 
                 // Distinguish Platforms from SSPs
-                divideServices(ownedServicesSet, ownedPlatformDetailsSet, ownedSSPDetailsSet);
+                divideServices(ownedServices.values(), ownedPlatformDetailsSet, ownedSSPDetailsSet);
+
+                // Get Platform and SSP details from the cache or the Registry. All the requests are sent before
+                // waiting for any response
+                CompletableFuture<Map<String, ReadCache.Lookup<PlatformRegistryResponse>>> platformResponses =
+                        serviceDetailsCache.getPlatformDetails(serviceIds(ownedPlatformDetailsSet));
+                CompletableFuture<Map<String, ReadCache.Lookup<SspRegistryResponse>>> sspResponses =
+                        serviceDetailsCache.getSSPDetails(serviceIds(ownedSSPDetailsSet));
 
-                // Get Platform details from Registry
-                getPlatformDetails(ownedPlatformDetailsSet, unavailablePlatforms, availablePlatforms);
+                getPlatformDetails(ownedPlatformDetailsSet, await(platformResponses), unavailablePlatforms, availablePlatforms);
+                getSSPDetails(ownedSSPDetailsSet, await(sspResponses), unavailableSSPs, availableSSPs);
 
-                // Get SSP details from Registry
-                getSSPDetails(ownedSSPDetailsSet, unavailableSSPs, availableSSPs);
+                List<ReadCache.Lookup<?>> lookups = new ArrayList<>(platformResponses.join().values());
+                lookups.addAll(sspResponses.join().values());
+                headers = ReadCache.headers(lookups);
 
                 if (unavailablePlatforms.size() == 0 && unavailableSSPs.size() == 0) {
                     responseMessage = "All the owned service details were successfully received";
@@ -128,7 +104,7 @@ public class OwnedServicesService {
                 constructAvailableSSPDetails(ownedSSPDetailsSet, availableSSPs),
                 unavailablePlatforms,
                 unavailableSSPs);
-        return new ResponseEntity<>(response, new HttpHeaders(), httpStatus);
+        return new ResponseEntity<>(response, headers, httpStatus);
     }
 
     public ResponseEntity getOwnedPlatformDetails(Principal principal) {
@@ -138,28 +114,11 @@ public class OwnedServicesService {
         String responseMessage;
         HttpStatus httpStatus;
 
-        UserManagementRequest ownedPlatformDetailsRequest = new UserManagementRequest(
-                new Credentials(aaMOwnerUsername, aaMOwnerPassword),
-                new Credentials(user.getUsername(), ""),
-                new UserDetails(
-                        new Credentials(user.getUsername(), ""),
-                        "",
-                        UserRole.NULL,
-                        AccountStatus.ACTIVE,
-                        new HashMap<>(),
-                        new HashMap<>(),
-                        true,
-                        false
-                ),
-                OperationType.CREATE
-        );
-
         // Get OwnedPlatformDetails from AAM
         try {
-            Set<OwnedService> ownedServicesSet =
-                    rabbitManager.sendOwnedServiceDetailsRequest(ownedPlatformDetailsRequest);
-            if (ownedServicesSet != null) {
-                Set<OwnedService> response = ownedServicesSet.stream()
+            Map<String, OwnedService> ownedServices = ownedServicesCache.getOwnedServices(user.getUsername());
+            if (ownedServices != null) {
+                Set<OwnedService> response = ownedServices.values().stream()
                         .filter(ownedService -> ownedService.getServiceType().equals(OwnedService.ServiceType.PLATFORM))
                         .collect(Collectors.toSet());
                 return new ResponseEntity<>(response, new HttpHeaders(), HttpStatus.OK);
@@ -177,7 +136,21 @@ public class OwnedServicesService {
         return new ResponseEntity<>(responseMessage, new HttpHeaders(), httpStatus);
     }
 
-    private void divideServices(Set<OwnedService> ownedServicesSet, Set<OwnedService> ownedPlatformDetailsSet,
+    /**
+     * Waits for the details of the services. If the Registry is overloaded, the {@link ServiceOverloadedException} is
+     * thrown as it is, to be answered with 503 and Retry-After
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ServiceOverloadedException)
+                throw (ServiceOverloadedException) e.getCause();
+            throw e;
+        }
+    }
+
+    private void divideServices(Collection<OwnedService> ownedServicesSet, Set<OwnedService> ownedPlatformDetailsSet,
                                 Set<OwnedService> ownedSSPDetailsSet) {
         for (OwnedService ownedService : ownedServicesSet) {
             if (ownedService.getServiceType() == OwnedService.ServiceType.PLATFORM)
@@ -188,35 +161,47 @@ public class OwnedServicesService {
 
     }
 
-    private void getPlatformDetails(Set<OwnedService> ownedPlatformDetailsSet, ArrayList<String> unavailablePlatforms,
+    private Set<String> serviceIds(Set<OwnedService> ownedServices) {
+        return ownedServices.stream().map(OwnedService::getServiceInstanceId).collect(Collectors.toSet());
+    }
+
+    private void getPlatformDetails(Set<OwnedService> ownedPlatformDetailsSet,
+                                    Map<String, ReadCache.Lookup<PlatformRegistryResponse>> registryResponses,
+                                    ArrayList<String> unavailablePlatforms,
                                     ArrayList<Platform> availablePlatforms) {
         for (OwnedService platformDetails : ownedPlatformDetailsSet) {
-            log.debug("OwnedPlatformDetails: " + ReflectionToStringBuilder.toString(platformDetails));
+            if (log.isDebugEnabled())
+                log.debug("OwnedPlatformDetails: " + ReflectionToStringBuilder.toString(platformDetails));
 
-            // Get Platform information from Registry
-            ResponseEntity registryResponse = platformService.getPlatformDetailsFromRegistry(platformDetails.getServiceInstanceId());
-            log.debug("registryResponse = " + ReflectionToStringBuilder.toString(registryResponse));
+            ReadCache.Lookup<PlatformRegistryResponse> lookup = registryResponses.get(platformDetails.getServiceInstanceId());
+            PlatformRegistryResponse registryResponse = lookup != null ? lookup.getValue() : null;
+            if (log.isDebugEnabled() && registryResponse != null)
+                log.debug("registryResponse = " + ReflectionToStringBuilder.toString(registryResponse));
 
-            if (registryResponse.getStatusCode() != HttpStatus.OK)
+            if (registryResponse == null || registryResponse.getStatus() != HttpStatus.OK.value())
                 unavailablePlatforms.add(platformDetails.getInstanceFriendlyName());
-            else if (registryResponse.getStatusCode() == HttpStatus.OK)
-                availablePlatforms.add(((PlatformRegistryResponse) registryResponse.getBody()).getBody());
+            else
+                availablePlatforms.add(registryResponse.getBody());
         }
     }
 
-    private void getSSPDetails(Set<OwnedService> ownedSSPDetailsSet, ArrayList<String> unavailableSSPs,
+    private void getSSPDetails(Set<OwnedService> ownedSSPDetailsSet,
+                               Map<String, ReadCache.Lookup<SspRegistryResponse>> registryResponses,
+                               ArrayList<String> unavailableSSPs,
                                ArrayList<SmartSpace> availableSmartSpaces) {
         for (OwnedService sspDetails : ownedSSPDetailsSet) {
-            log.debug("ownedSSPDetailsSet: " + ReflectionToStringBuilder.toString(sspDetails));
+            if (log.isDebugEnabled())
+                log.debug("ownedSSPDetailsSet: " + ReflectionToStringBuilder.toString(sspDetails));
 
-            // Get SSP information from Registry
-            ResponseEntity registryResponse = sspService.getSSPDetailsFromRegistry(sspDetails.getServiceInstanceId());
-            log.debug("registryResponse = " + ReflectionToStringBuilder.toString(registryResponse));
+            ReadCache.Lookup<SspRegistryResponse> lookup = registryResponses.get(sspDetails.getServiceInstanceId());
+            SspRegistryResponse registryResponse = lookup != null ? lookup.getValue() : null;
+            if (log.isDebugEnabled() && registryResponse != null)
+                log.debug("registryResponse = " + ReflectionToStringBuilder.toString(registryResponse));
 
-            if (registryResponse.getStatusCode() != HttpStatus.OK)
+            if (registryResponse == null || registryResponse.getStatus() != HttpStatus.OK.value())
                 unavailableSSPs.add(sspDetails.getInstanceFriendlyName());
-            else if (registryResponse.getStatusCode() == HttpStatus.OK)
-                availableSmartSpaces.add(((SspRegistryResponse) registryResponse.getBody()).getBody());
+            else
+                availableSmartSpaces.add(registryResponse.getBody());
         }
     }
 
@@ -0,0 +1,123 @@
+package eu.h2020.symbiote.administration.services.ownedservices;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.h2020.symbiote.administration.communication.rabbit.RabbitManager;
+import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+import eu.h2020.symbiote.administration.services.cache.CacheSettings;
+import eu.h2020.symbiote.administration.services.cache.ReadCache;
+import eu.h2020.symbiote.core.cci.PlatformRegistryResponse;
+import eu.h2020.symbiote.core.cci.SspRegistryResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Near-cache of the details of the platforms and SSPs read from the Registry, bounded in memory and evicting the least
+ * recently used details. The services which the Registry reports as not found are remembered for a short time too,
+ * while its other failed answers are not cached and the stale details are served instead. The details of a service are
+ * dropped whenever it is registered, updated or deleted through Administration.
+ */
+@Service
+public class ServiceDetailsCache {
+
+    // The details of a service are small and rather uniform, so they are not weighed one by one
+    private static final long ESTIMATED_DETAILS_SIZE = 4096;
+
+    private final RabbitManager rabbitManager;
+    private MetricRegistry metricRegistry = new MetricRegistry();
+    private ReadCache<String, PlatformRegistryResponse> platformDetails;
+    private ReadCache<String, SspRegistryResponse> sspDetails;
+
+    @Value("${symbiote.core.administration.cache.serviceDetails.ttlMillis:0}")
+    private long ttlMillis;
+
+    @Value("${symbiote.core.administration.cache.serviceDetails.refreshAheadMillis:0}")
+    private long refreshAheadMillis;
+
+    @Value("${symbiote.core.administration.cache.serviceDetails.maxStaleMillis:0}")
+    private long maxStaleMillis;
+
+    @Value("${symbiote.core.administration.cache.serviceDetails.maxBytes:16777216}")
+    private long maxBytes;
+
+    @Value("${symbiote.core.administration.cache.serviceDetails.notFoundTtlMillis:0}")
+    private long notFoundTtlMillis;
+
+    @Autowired
+    public ServiceDetailsCache(RabbitManager rabbitManager) {
+        Assert.notNull(rabbitManager,"RabbitManager can not be null!");
+        this.rabbitManager = rabbitManager;
+    }
+
+    /**
+     * Uses the application metric registry, so that the cache metrics are exposed by the actuator
+     */
+    @Autowired(required = false)
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        CacheSettings settings = new CacheSettings(ttlMillis, refreshAheadMillis, maxStaleMillis, maxBytes,
+                notFoundTtlMillis);
+        platformDetails = new ReadCache<>("platformDetails", settings, response -> ESTIMATED_DETAILS_SIZE,
+                response -> response.getStatus() == HttpStatus.OK.value(),
+                response -> response.getStatus() == HttpStatus.NOT_FOUND.value(), metricRegistry);
+        sspDetails = new ReadCache<>("sspDetails", settings, response -> ESTIMATED_DETAILS_SIZE,
+                response -> response.getStatus() == HttpStatus.OK.value(),
+                response -> response.getStatus() == HttpStatus.NOT_FOUND.value(), metricRegistry);
+    }
+
+    /**
+     * @param platformId    the id of the platform
+     * @return the details of the platform, whose value is null if the Registry could not be reached
+     */
+    public ReadCache.Lookup<PlatformRegistryResponse> getPlatformDetails(String platformId)
+            throws CommunicationException {
+        return platformDetails.get(platformId, () -> rabbitManager.sendGetPlatformDetailsMessage(platformId));
+    }
+
+    /**
+     * @param sspId     the id of the SSP
+     * @return the details of the SSP, whose value is null if the Registry could not be reached
+     */
+    public ReadCache.Lookup<SspRegistryResponse> getSSPDetails(String sspId) throws CommunicationException {
+        return sspDetails.get(sspId, () -> rabbitManager.sendGetSSPDetailsMessage(sspId));
+    }
+
+    /**
+     * @param platformIds   the ids of the platforms
+     * @return future of the details indexed by platform id. The ids for which no details could be obtained are missing
+     * from the map. The future fails with a {@link eu.h2020.symbiote.administration.exceptions.rabbit.ServiceOverloadedException}
+     * if the Registry is overloaded and some details cannot be served from the cache
+     */
+    public CompletableFuture<Map<String, ReadCache.Lookup<PlatformRegistryResponse>>> getPlatformDetails(
+            Collection<String> platformIds) {
+        return platformDetails.getAll(platformIds, rabbitManager::sendGetPlatformDetailsMessagesAsync);
+    }
+
+    /**
+     * @param sspIds    the ids of the SSPs
+     * @return future of the details indexed by SSP id, in the same way as {@link #getPlatformDetails(Collection)}
+     */
+    public CompletableFuture<Map<String, ReadCache.Lookup<SspRegistryResponse>>> getSSPDetails(
+            Collection<String> sspIds) {
+        return sspDetails.getAll(sspIds, rabbitManager::sendGetSSPDetailsMessagesAsync);
+    }
+
+    public void invalidatePlatform(String platformId) {
+        platformDetails.invalidate(platformId);
+    }
+
+    public void invalidateSSP(String sspId) {
+        sspDetails.invalidate(sspId);
+    }
+}
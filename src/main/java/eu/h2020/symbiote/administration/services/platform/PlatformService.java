@@ -6,8 +6,11 @@ import eu.h2020.symbiote.administration.model.CoreUser;
 import eu.h2020.symbiote.administration.model.Description;
 import eu.h2020.symbiote.administration.model.PlatformConfigurationMessage;
 import eu.h2020.symbiote.administration.model.PlatformDetails;
+import eu.h2020.symbiote.administration.services.cache.ReadCache;
 import eu.h2020.symbiote.administration.services.infomodel.InformationModelService;
 import eu.h2020.symbiote.administration.services.ownedservices.CheckServiceOwnershipService;
+import eu.h2020.symbiote.administration.services.ownedservices.OwnedServicesCache;
+import eu.h2020.symbiote.administration.services.ownedservices.ServiceDetailsCache;
 import eu.h2020.symbiote.administration.services.validation.ValidationService;
 import eu.h2020.symbiote.core.cci.PlatformRegistryResponse;
 import eu.h2020.symbiote.model.mim.InformationModel;
@@ -49,6 +52,8 @@ public class PlatformService {
     private ValidationService validationService;
     private InformationModelService informationModelService;
     private CheckServiceOwnershipService checkServiceOwnershipService;
+    private ServiceDetailsCache serviceDetailsCache;
+    private OwnedServicesCache ownedServicesCache;
     private String aaMOwnerUsername;
     private String aaMOwnerPassword;
 
@@ -59,6 +64,8 @@ public class PlatformService {
                            ValidationService validationService,
                            InformationModelService informationModelService,
                            CheckServiceOwnershipService checkServiceOwnershipService,
+                           ServiceDetailsCache serviceDetailsCache,
+                           OwnedServicesCache ownedServicesCache,
                            @Value("${aam.deployment.owner.username}") String aaMOwnerUsername,
                            @Value("${aam.deployment.owner.password}") String aaMOwnerPassword) {
 
@@ -76,7 +83,13 @@ public class PlatformService {
 
         Assert.notNull(checkServiceOwnershipService,"CheckServiceOwnershipService can not be null!");
         this.checkServiceOwnershipService = checkServiceOwnershipService;
-        
+
+        Assert.notNull(serviceDetailsCache,"ServiceDetailsCache can not be null!");
+        this.serviceDetailsCache = serviceDetailsCache;
+
+        Assert.notNull(ownedServicesCache,"OwnedServicesCache can not be null!");
+        this.ownedServicesCache = ownedServicesCache;
+
         Assert.notNull(aaMOwnerUsername,"aaMOwnerUsername can not be null!");
         this.aaMOwnerUsername = aaMOwnerUsername;
 
@@ -92,11 +105,12 @@ public class PlatformService {
         CoreUser user = (CoreUser) token.getPrincipal();
         String password = (String) token.getCredentials();
 
-        log.debug("User state is: " + ReflectionToStringBuilder.toString(user));
+        if (log.isDebugEnabled())
+            log.debug("User state is: " + ReflectionToStringBuilder.toString(user));
         log.debug(platformDetails.toString());
 
         List<String> validInfoModelIds = new ArrayList<>();
-        ResponseEntity<?> listOfInformationModels = informationModelService.getInformationModels();
+        ResponseEntity<?> listOfInformationModels = informationModelService.getInformationModelSummaries();
 
         if (listOfInformationModels.getStatusCode() != HttpStatus.OK) {
             log.debug("Could not get information models from Registry");
@@ -122,7 +136,7 @@ public class PlatformService {
                 platformDetails.getInterworkingServices().get(0).getUrl(),
                 platformDetails.getName(), platformDetails.getId(), OperationType.CREATE);
         try {
-            PlatformManagementResponse aamResponse = rabbitManager.sendManagePlatformRequest(aamRequest);
+            PlatformManagementResponse aamResponse = sendManagePlatformRequest(aamRequest);
             if(aamResponse != null) {
                 log.debug("AAM responded with: " + aamResponse.getRegistrationStatus());
 
@@ -141,7 +155,12 @@ public class PlatformService {
                     registryRequest.setDescription(descriptions);
 
                     try {
-                        PlatformRegistryResponse registryResponse = rabbitManager.sendPlatformCreationRequest(registryRequest);
+                        PlatformRegistryResponse registryResponse;
+                        try {
+                            registryResponse = rabbitManager.sendPlatformCreationRequest(registryRequest);
+                        } finally {
+                            serviceDetailsCache.invalidatePlatform(registryRequest.getId());
+                        }
                         if (registryResponse != null) {
                             if (registryResponse.getStatus() == HttpStatus.OK.value()) {
                                 // Platform registered successfully
@@ -205,7 +224,7 @@ public class PlatformService {
         String password = (String) token.getCredentials();
 
         List<String> validInfoModelIds = new ArrayList<>();
-        ResponseEntity<?> listOfInformationModels = informationModelService.getInformationModels();
+        ResponseEntity<?> listOfInformationModels = informationModelService.getInformationModelSummaries();
 
         ResponseEntity<?> ownedPlatformDetailsResponse = checkServiceOwnershipService.checkIfUserOwnsService(
                 platformDetails.getId(), user, OwnedService.ServiceType.PLATFORM);
@@ -238,7 +257,7 @@ public class PlatformService {
                 platformDetails.getName(), platformDetails.getId(), OperationType.UPDATE);
 
         try {
-            PlatformManagementResponse aamResponse = rabbitManager.sendManagePlatformRequest(aamRequest);
+            PlatformManagementResponse aamResponse = sendManagePlatformRequest(aamRequest);
             if(aamResponse != null) {
                 log.debug("AAM responded with: " + aamResponse.getRegistrationStatus());
 
@@ -257,7 +276,12 @@ public class PlatformService {
                     registryRequest.setDescription(descriptions);
 
                     try {
-                        PlatformRegistryResponse registryResponse = rabbitManager.sendPlatformModificationRequest(registryRequest);
+                        PlatformRegistryResponse registryResponse;
+                        try {
+                            registryResponse = rabbitManager.sendPlatformModificationRequest(registryRequest);
+                        } finally {
+                            serviceDetailsCache.invalidatePlatform(registryRequest.getId());
+                        }
                         if (registryResponse != null) {
                             if (registryResponse.getStatus() == HttpStatus.OK.value()) {
                                 // Platform updated successfully
@@ -331,7 +355,12 @@ public class PlatformService {
             Platform registryRequest = new Platform();
             registryRequest.setId(platformIdToDelete);
 
-            PlatformRegistryResponse registryResponse = rabbitManager.sendPlatformRemovalRequest(registryRequest);
+            PlatformRegistryResponse registryResponse;
+            try {
+                registryResponse = rabbitManager.sendPlatformRemovalRequest(registryRequest);
+            } finally {
+                serviceDetailsCache.invalidatePlatform(platformIdToDelete);
+            }
             if (registryResponse != null) {
                 if (registryResponse.getStatus() != HttpStatus.OK.value()) {
                     log.debug(registryResponse.getMessage());
@@ -357,7 +386,7 @@ public class PlatformService {
                 new Credentials(aaMOwnerUsername, aaMOwnerPassword), new Credentials(user.getUsername(), password),
                 "", "", platformIdToDelete, OperationType.DELETE);
         try {
-            PlatformManagementResponse aamResponse = rabbitManager.sendManagePlatformRequest(aamRequest);
+            PlatformManagementResponse aamResponse = sendManagePlatformRequest(aamRequest);
             if(aamResponse != null) {
                 log.debug("AAM responded with: " + aamResponse.getRegistrationStatus());
 
@@ -438,7 +467,7 @@ public class PlatformService {
 
         // Send deletion message to AAM
         try {
-            PlatformManagementResponse aamResponse = rabbitManager.sendManagePlatformRequest(aamRequest);
+            PlatformManagementResponse aamResponse = sendManagePlatformRequest(aamRequest);
 
             // Todo: Check what happens when platform deletion request is not successful at this stage
             if (aamResponse != null) {
@@ -467,7 +496,7 @@ public class PlatformService {
 
         // Send deletion message to AAM
         try {
-            PlatformManagementResponse aamResponse = rabbitManager.sendManagePlatformRequest(aamRequest);
+            PlatformManagementResponse aamResponse = sendManagePlatformRequest(aamRequest);
 
             // Todo: Check what happens when platform deletion request is not successful at this stage
             if (aamResponse != null) {
@@ -501,13 +530,14 @@ public class PlatformService {
     public ResponseEntity getPlatformDetailsFromRegistry(String platformId) {
 
         try {
-            PlatformRegistryResponse registryResponse = rabbitManager.sendGetPlatformDetailsMessage(platformId);
+            ReadCache.Lookup<PlatformRegistryResponse> lookup = serviceDetailsCache.getPlatformDetails(platformId);
+            PlatformRegistryResponse registryResponse = lookup.getValue();
             if (registryResponse != null) {
                 if (registryResponse.getStatus() != HttpStatus.OK.value()) {
                     log.debug(registryResponse.getMessage());
                     return new ResponseEntity<>(new HttpHeaders(), HttpStatus.NOT_FOUND);
                 } else {
-                    return new ResponseEntity<>(registryResponse, new HttpHeaders(), HttpStatus.OK);
+                    return new ResponseEntity<>(registryResponse, ReadCache.headers(lookup), HttpStatus.OK);
                 }
             } else {
                 String message = "Registry unreachable!";
@@ -523,4 +553,16 @@ public class PlatformService {
                     new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Sends the request to the AAM, and drops the cached services of the platform owner, which it may change
+     */
+    private PlatformManagementResponse sendManagePlatformRequest(PlatformManagementRequest aamRequest)
+            throws CommunicationException {
+        try {
+            return rabbitManager.sendManagePlatformRequest(aamRequest);
+        } finally {
+            ownedServicesCache.invalidate(aamRequest.getPlatformOwnerCredentials().getUsername());
+        }
+    }
 }
@@ -5,8 +5,11 @@ import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException
 import eu.h2020.symbiote.administration.model.CoreUser;
 import eu.h2020.symbiote.administration.model.Description;
 import eu.h2020.symbiote.administration.model.SSPDetails;
+import eu.h2020.symbiote.administration.services.cache.ReadCache;
 import eu.h2020.symbiote.administration.services.infomodel.InformationModelService;
 import eu.h2020.symbiote.administration.services.ownedservices.CheckServiceOwnershipService;
+import eu.h2020.symbiote.administration.services.ownedservices.OwnedServicesCache;
+import eu.h2020.symbiote.administration.services.ownedservices.ServiceDetailsCache;
 import eu.h2020.symbiote.administration.services.validation.ValidationService;
 import eu.h2020.symbiote.core.cci.SspRegistryResponse;
 import eu.h2020.symbiote.model.mim.InformationModel;
@@ -43,6 +46,8 @@ public class SSPService {
     private final CheckServiceOwnershipService checkServiceOwnershipService;
     private final ValidationService validationService;
     private final InformationModelService informationModelService;
+    private final ServiceDetailsCache serviceDetailsCache;
+    private final OwnedServicesCache ownedServicesCache;
     private String aaMOwnerUsername;
     private String aaMOwnerPassword;
 
@@ -52,6 +57,8 @@ public class SSPService {
                       ValidationService validationService,
                       CheckServiceOwnershipService checkServiceOwnershipService,
                       InformationModelService informationModelService,
+                      ServiceDetailsCache serviceDetailsCache,
+                      OwnedServicesCache ownedServicesCache,
                       @Value("${aam.deployment.owner.username}") String aaMOwnerUsername,
                       @Value("${aam.deployment.owner.password}") String aaMOwnerPassword) {
 
@@ -67,6 +74,12 @@ public class SSPService {
         Assert.notNull(informationModelService,"InformationModelService can not be null!");
         this.informationModelService = informationModelService;
 
+        Assert.notNull(serviceDetailsCache,"ServiceDetailsCache can not be null!");
+        this.serviceDetailsCache = serviceDetailsCache;
+
+        Assert.notNull(ownedServicesCache,"OwnedServicesCache can not be null!");
+        this.ownedServicesCache = ownedServicesCache;
+
         Assert.notNull(aaMOwnerUsername,"aaMOwnerUsername can not be null!");
         this.aaMOwnerUsername = aaMOwnerUsername;
 
@@ -82,7 +95,8 @@ public class SSPService {
         CoreUser user = (CoreUser) token.getPrincipal();
         String password = (String) token.getCredentials();
 
-        log.debug("User state is: " + ReflectionToStringBuilder.toString(user));
+        if (log.isDebugEnabled())
+            log.debug("User state is: " + ReflectionToStringBuilder.toString(user));
         log.debug(sspDetails.toString());
 
         if (bindingResult.hasErrors())
@@ -102,7 +116,7 @@ public class SSPService {
                     sspDetails.getId(),
                     sspDetails.getExposingSiteLocalAddress());
 
-            SmartSpaceManagementResponse aamResponse = rabbitManager.sendManageSSPRequest(aamRequest);
+            SmartSpaceManagementResponse aamResponse = sendManageSSPRequest(aamRequest);
 
             if(aamResponse != null) {
                 log.debug("AAM responded with: " + aamResponse.getManagementStatus());
@@ -126,7 +140,12 @@ public class SSPService {
                     smartSpaceRequest.setDescription(descriptions);
 
                     try {
-                        SspRegistryResponse registryResponse = rabbitManager.sendSmartSpaceCreationRequest(smartSpaceRequest);
+                        SspRegistryResponse registryResponse;
+                        try {
+                            registryResponse = rabbitManager.sendSmartSpaceCreationRequest(smartSpaceRequest);
+                        } finally {
+                            serviceDetailsCache.invalidateSSP(smartSpaceRequest.getId());
+                        }
                         if (registryResponse != null) {
                             if (registryResponse.getStatus() == HttpStatus.OK.value()) {
                                 // SSP registered successfully
@@ -204,7 +223,7 @@ public class SSPService {
         String password = (String) token.getCredentials();
 
         List<String> validInfoModelIds = new ArrayList<>();
-        ResponseEntity<?> listOfInformationModels = informationModelService.getInformationModels();
+        ResponseEntity<?> listOfInformationModels = informationModelService.getInformationModelSummaries();
 
         if (listOfInformationModels.getStatusCode() != HttpStatus.OK) {
             log.debug("Could not get information models from Registry");
@@ -251,7 +270,7 @@ public class SSPService {
                     sspDetails.getExposingSiteLocalAddress()
             );
 
-            SmartSpaceManagementResponse aamResponse = rabbitManager.sendManageSSPRequest(aamRequest);
+            SmartSpaceManagementResponse aamResponse = sendManageSSPRequest(aamRequest);
             if(aamResponse != null) {
                 log.debug("AAM responded with: " + aamResponse.getManagementStatus());
 
@@ -274,7 +293,12 @@ public class SSPService {
                     registryRequest.setDescription(descriptions);
 
                     try {
-                        SspRegistryResponse registryResponse = rabbitManager.sendSmartSpaceModificationRequest(registryRequest);
+                        SspRegistryResponse registryResponse;
+                        try {
+                            registryResponse = rabbitManager.sendSmartSpaceModificationRequest(registryRequest);
+                        } finally {
+                            serviceDetailsCache.invalidateSSP(registryRequest.getId());
+                        }
                         if (registryResponse != null) {
                             if (registryResponse.getStatus() == HttpStatus.OK.value()) {
                                 // SSP updated successfully
@@ -351,7 +375,12 @@ public class SSPService {
             SmartSpace registryRequest = new SmartSpace();
             registryRequest.setId(sspIdToDelete);
 
-            SspRegistryResponse registryResponse = rabbitManager.sendSmartSpaceRemovalRequest(registryRequest);
+            SspRegistryResponse registryResponse;
+            try {
+                registryResponse = rabbitManager.sendSmartSpaceRemovalRequest(registryRequest);
+            } finally {
+                serviceDetailsCache.invalidateSSP(sspIdToDelete);
+            }
             if (registryResponse != null) {
                 if (registryResponse.getStatus() != HttpStatus.OK.value()) {
                     log.debug(registryResponse.getMessage());
@@ -384,7 +413,7 @@ public class SSPService {
                     sspIdToDelete,
                     true);
 
-            SmartSpaceManagementResponse aamResponse = rabbitManager.sendManageSSPRequest(aamRequest);
+            SmartSpaceManagementResponse aamResponse = sendManageSSPRequest(aamRequest);
 
             if(aamResponse != null) {
                 log.debug("AAM responded with: " + aamResponse.getManagementStatus());
@@ -425,7 +454,7 @@ public class SSPService {
                     initialRequest.getInstanceId(),
                     initialRequest.isExposingSiteLocalAddress());
 
-            SmartSpaceManagementResponse aamResponse = rabbitManager.sendManageSSPRequest(aamRequest);
+            SmartSpaceManagementResponse aamResponse = sendManageSSPRequest(aamRequest);
 
             // Todo: Check what happens when ssp deletion request is not successful at this stage
             if (aamResponse != null) {
@@ -445,13 +474,14 @@ public class SSPService {
     public ResponseEntity getSSPDetailsFromRegistry(String sspId) {
 
         try {
-            SspRegistryResponse registryResponse = rabbitManager.sendGetSSPDetailsMessage(sspId);
+            ReadCache.Lookup<SspRegistryResponse> lookup = serviceDetailsCache.getSSPDetails(sspId);
+            SspRegistryResponse registryResponse = lookup.getValue();
             if (registryResponse != null) {
                 if (registryResponse.getStatus() != HttpStatus.OK.value()) {
                     log.debug(registryResponse.getMessage());
                     return new ResponseEntity<>(new HttpHeaders(), HttpStatus.NOT_FOUND);
                 } else {
-                    return new ResponseEntity<>(registryResponse, new HttpHeaders(), HttpStatus.OK);
+                    return new ResponseEntity<>(registryResponse, ReadCache.headers(lookup), HttpStatus.OK);
                 }
             } else {
                 String message = "Registry unreachable!";
@@ -494,7 +524,7 @@ public class SSPService {
                     sspDetails.getServiceInstanceId(),
                     sspDetails.isExposingSiteLocalAddress());
 
-            SmartSpaceManagementResponse aamResponse = rabbitManager.sendManageSSPRequest(aamRequest);
+            SmartSpaceManagementResponse aamResponse = sendManageSSPRequest(aamRequest);
 
             // Todo: Check what happens when ssp deletion request is not successful at this stage
             if (aamResponse != null) {
@@ -510,4 +540,16 @@ public class SSPService {
             log.info("", e);
         }
     }
+
+    /**
+     * Sends the request to the AAM, and drops the cached services of the SSP owner, which it may change
+     */
+    private SmartSpaceManagementResponse sendManageSSPRequest(SmartSpaceManagementRequest aamRequest)
+            throws CommunicationException {
+        try {
+            return rabbitManager.sendManageSSPRequest(aamRequest);
+        } finally {
+            ownedServicesCache.invalidate(aamRequest.getServiceOwnerCredentials().getUsername());
+        }
+    }
 }
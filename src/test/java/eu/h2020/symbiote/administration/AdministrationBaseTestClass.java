@@ -39,8 +39,10 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.security.cert.CertificateException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -159,6 +161,14 @@ public abstract class AdministrationBaseTestClass {
         return mapper.writeValueAsString(o);
     }
 
+    protected <T> CompletableFuture<T> rpcResponse(T response) {
+        return CompletableFuture.completedFuture(response);
+    }
+
+    protected CompletableFuture<byte[]> rpcResponse(String response) {
+        return CompletableFuture.completedFuture(response != null ? response.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
     private List<GrantedAuthority> sampleUserAuthorities() {
 
         List<GrantedAuthority> grantedAuths = new ArrayList<>();
@@ -1,9 +1,24 @@
 package eu.h2020.symbiote.administration;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import eu.h2020.symbiote.administration.communication.rabbit.AdaptiveTimeouts;
+import eu.h2020.symbiote.administration.communication.rabbit.BulkheadRegistry;
+import eu.h2020.symbiote.administration.communication.rabbit.CircuitBreaker;
+import eu.h2020.symbiote.administration.communication.rabbit.CircuitBreakerRegistry;
+import eu.h2020.symbiote.administration.communication.rabbit.ClaimCheckStore;
+import eu.h2020.symbiote.administration.communication.rabbit.ClaimChecks;
+import eu.h2020.symbiote.administration.communication.rabbit.JsonCodecRegistry;
+import eu.h2020.symbiote.administration.communication.rabbit.LocalClaimCheckStore;
+import eu.h2020.symbiote.administration.communication.rabbit.RabbitChannelPool;
 import eu.h2020.symbiote.administration.communication.rabbit.RabbitManager;
 import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+import eu.h2020.symbiote.administration.exceptions.rabbit.ServiceOverloadedException;
 import eu.h2020.symbiote.core.cci.InformationModelResponse;
 import eu.h2020.symbiote.core.cci.PlatformRegistryResponse;
 import eu.h2020.symbiote.core.cci.SspRegistryResponse;
@@ -18,12 +33,24 @@ import eu.h2020.symbiote.security.commons.enums.OperationType;
 import eu.h2020.symbiote.security.commons.enums.UserRole;
 import eu.h2020.symbiote.security.communication.payloads.*;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -45,9 +72,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(samplePlatformRegistryResponseSuccess()))
+        doReturn(rpcResponse(serialize(samplePlatformRegistryResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         PlatformRegistryResponse response = rabbitManager.sendRegistryPlatformMessage("exchangeName",
                 "routingKey", samplePlatform());
@@ -58,9 +85,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(200, response.getStatus());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         response = rabbitManager.sendRegistryPlatformMessage("exchangeName",
                 "routingKey", samplePlatform());
@@ -68,15 +95,15 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertNull(response);
 
         // Throw Exception while deseriallizing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(PlatformRegistryResponse.class));
-        doReturn(serialize(samplePlatformRegistryResponseSuccess()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(PlatformRegistryResponse.class));
+        doReturn(rpcResponse(serialize(samplePlatformRegistryResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendRegistryPlatformMessage("exchangeName",
                     "routingKey", samplePlatform());
@@ -87,8 +114,8 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw JsonProcessingException while serializing the request
-        // Call writeValueAsString
-        when(om.writeValueAsString(any(String.class))).thenThrow(new JsonProcessingException("") {});
+        // Call write
+        doThrow(new JsonProcessingException("") {}).when(codecs).write(any());
         response = rabbitManager.sendRegistryPlatformMessage("exchangeName",
                 "routingKey", samplePlatform());
 
@@ -99,9 +126,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
     @Test
     public void sendPlatformCreationRequestSuccess() throws Exception {
 
-        doReturn(serialize(samplePlatformRegistryResponseSuccess()))
+        doReturn(rpcResponse(serialize(samplePlatformRegistryResponseSuccess())))
             .when(rabbitManager)
-            .sendRpcMessage(any(), any(), any(), eq("application/json"));
+            .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         PlatformRegistryResponse response = rabbitManager.sendPlatformCreationRequest(samplePlatform());
 
@@ -115,9 +142,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
     @Test
     public void sendPlatformCreationRequestFail() throws Exception {
 
-        doReturn(serialize(samplePlatformResponseFail()))
+        doReturn(rpcResponse(serialize(samplePlatformResponseFail())))
             .when(rabbitManager)
-            .sendRpcMessage(any(), any(), any(), eq("application/json"));
+            .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         PlatformRegistryResponse response = rabbitManager.sendPlatformCreationRequest(samplePlatform());
 
@@ -135,9 +162,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         newResponse.setBody(newPlatform);
         String serializedResponse = serialize(newResponse);
 
-        doReturn(serializedResponse)
+        doReturn(rpcResponse(serializedResponse))
             .when(rabbitManager)
-            .sendRpcMessage(any(), any(), any(), eq("application/json"));
+            .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         PlatformRegistryResponse response = rabbitManager.sendPlatformModificationRequest(newPlatform);
 
@@ -152,9 +179,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
     @Test
     public void sendPlatformRemovalRequest() throws Exception {
 
-        doReturn(serialize(samplePlatformRegistryResponseSuccess()))
+        doReturn(rpcResponse(serialize(samplePlatformRegistryResponseSuccess())))
             .when(rabbitManager)
-            .sendRpcMessage(any(), any(), any(), eq("application/json"));
+            .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         PlatformRegistryResponse response = rabbitManager.sendPlatformRemovalRequest(sampleEmptyPlatform());
 
@@ -168,9 +195,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(sampleSspRegistryResponseSuccess()))
+        doReturn(rpcResponse(serialize(sampleSspRegistryResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         SspRegistryResponse response = rabbitManager.sendRegistrySmartSpaceMessage("exchangeName",
                 "routingKey", sampleSmartSpace());
@@ -181,9 +208,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(200, response.getStatus());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         response = rabbitManager.sendRegistrySmartSpaceMessage("exchangeName",
                 "routingKey", sampleSmartSpace());
@@ -191,15 +218,15 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertNull(response);
 
         // Throw Exception while deseriallizing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(SspRegistryResponse.class));
-        doReturn(serialize(sampleSspRegistryResponseSuccess()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(SspRegistryResponse.class));
+        doReturn(rpcResponse(serialize(sampleSspRegistryResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendRegistrySmartSpaceMessage("exchangeName",
                     "routingKey", sampleSmartSpace());
@@ -210,8 +237,8 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw JsonProcessingException while serializing the request
-        // Call writeValueAsString
-        when(om.writeValueAsString(any(String.class))).thenThrow(new JsonProcessingException("") {});
+        // Call write
+        doThrow(new JsonProcessingException("") {}).when(codecs).write(any());
         response = rabbitManager.sendRegistrySmartSpaceMessage("exchangeName",
                 "routingKey", sampleSmartSpace());
 
@@ -222,9 +249,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
     @Test
     public void sendSmartSpaceCreationRequestSuccess() throws Exception {
 
-        doReturn(serialize(sampleSspRegistryResponseSuccess()))
+        doReturn(rpcResponse(serialize(sampleSspRegistryResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         SspRegistryResponse response = rabbitManager.sendSmartSpaceCreationRequest(sampleSmartSpace());
 
@@ -237,9 +264,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
     @Test
     public void sendSmartSpaceCreationRequestFail() throws Exception {
 
-        doReturn(serialize(sampleSspRegistryResponseFail()))
+        doReturn(rpcResponse(serialize(sampleSspRegistryResponseFail())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         SspRegistryResponse response = rabbitManager.sendSmartSpaceCreationRequest(sampleSmartSpace());
 
@@ -257,9 +284,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         newResponse.setBody(newSmartSpace);
         String serializedResponse = serialize(newResponse);
 
-        doReturn(serializedResponse)
+        doReturn(rpcResponse(serializedResponse))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         SspRegistryResponse response = rabbitManager.sendSmartSpaceModificationRequest(newSmartSpace);
 
@@ -274,9 +301,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
     @Test
     public void sendSmartSpaceRemovalRequest() throws Exception {
 
-        doReturn(serialize(sampleSspRegistryResponseSuccess()))
+        doReturn(rpcResponse(serialize(sampleSspRegistryResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         SspRegistryResponse response = rabbitManager.sendSmartSpaceRemovalRequest(sampleSmartSpace());
 
@@ -290,9 +317,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(samplePlatformRegistryResponseSuccess()))
+        doReturn(rpcResponse(serialize(samplePlatformRegistryResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("text/plain"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
 
         PlatformRegistryResponse response = rabbitManager.sendGetPlatformDetailsMessage("platformId");
 
@@ -302,24 +329,24 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(200, response.getStatus());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("text/plain"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
 
         response = rabbitManager.sendGetPlatformDetailsMessage("platformId");
 
         assertNull(response);
 
         // Throw Exception while deserializing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(PlatformRegistryResponse.class));
-        doReturn(serialize(samplePlatformRegistryResponseSuccess()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(PlatformRegistryResponse.class));
+        doReturn(rpcResponse(serialize(samplePlatformRegistryResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("text/plain"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
         try {
             rabbitManager.sendGetPlatformDetailsMessage("platformId");
         } catch (CommunicationException e) {
@@ -329,14 +356,174 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
     }
 
+    @Test
+    public void sendGetPlatformDetailsMessages() throws Exception {
+
+        // Stand-in Registry answering the single requests, which does not respond for platform2
+        doAnswer(invocation -> {
+            String platformId = new String((byte[]) invocation.getArguments()[2], StandardCharsets.UTF_8);
+            if (platformId.equals(platform2Id))
+                return rpcResponse(null);
+            return rpcResponse(serialize(samplePlatformRegistryResponseSuccess(platformId)));
+        }).when(rabbitManager)
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
+
+        Map<String, PlatformRegistryResponse> responses =
+                rabbitManager.sendGetPlatformDetailsMessages(Arrays.asList(platform1Id, platform2Id, platform3Id));
+
+        assertEquals(2, responses.size());
+        assertEquals(platform1Id, responses.get(platform1Id).getBody().getId());
+        assertEquals(platform3Id, responses.get(platform3Id).getBody().getId());
+        assertFalse(responses.containsKey(platform2Id));
+    }
+
+    @Test
+    public void sendGetPlatformDetailsMessagesWithMultiGet() throws Exception {
+        ReflectionTestUtils.setField(rabbitManager, "platformsDetailsRequestedRoutingKey", "multiGet");
+
+        // Stand-in Registry answering the multi-get request with the details of all the requested platforms
+        doAnswer(invocation -> {
+            Set<String> platformIds = new ObjectMapper().readValue((byte[]) invocation.getArguments()[2],
+                    new TypeReference<Set<String>>() {});
+            Map<String, PlatformRegistryResponse> response = new HashMap<>();
+            for (String platformId : platformIds)
+                response.put(platformId, samplePlatformRegistryResponseSuccess(platformId));
+            return rpcResponse(serialize(response));
+        }).when(rabbitManager)
+                .sendRpcMessageAsync(any(), eq("multiGet"), any(), eq("application/json"));
+
+        Map<String, PlatformRegistryResponse> responses =
+                rabbitManager.sendGetPlatformDetailsMessages(Arrays.asList(platform1Id, platform2Id));
+
+        assertEquals(2, responses.size());
+        assertEquals(platform1Id, responses.get(platform1Id).getBody().getId());
+        assertEquals(platform2Id, responses.get(platform2Id).getBody().getId());
+        verify(rabbitManager, times(1)).sendRpcMessageAsync(any(), any(), any(), any());
+
+        // A failed multi-get leaves all the platforms unavailable
+        doReturn(rpcResponse("not a map of responses"))
+                .when(rabbitManager)
+                .sendRpcMessageAsync(any(), eq("multiGet"), any(), eq("application/json"));
+
+        responses = rabbitManager.sendGetPlatformDetailsMessages(Arrays.asList(platform1Id, platform2Id));
+        assertTrue(responses.isEmpty());
+    }
+
+    @Test
+    public void sendGetPlatformDetailsMessagesWithFullBulkhead() throws Exception {
+
+        // The bulkhead of the Registry rejects the request for platform2
+        doAnswer(invocation -> {
+            String platformId = new String((byte[]) invocation.getArguments()[2], StandardCharsets.UTF_8);
+            if (platformId.equals(platform2Id)) {
+                CompletableFuture<byte[]> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new ServiceOverloadedException("registry", 5));
+                return rejected;
+            }
+            return rpcResponse(serialize(samplePlatformRegistryResponseSuccess(platformId)));
+        }).when(rabbitManager)
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
+
+        try {
+            rabbitManager.sendGetPlatformDetailsMessages(Arrays.asList(platform1Id, platform2Id, platform3Id));
+            fail("The batch should be rejected");
+        } catch (ServiceOverloadedException e) {
+            assertEquals(5, e.getRetryAfterSeconds());
+        }
+
+        // The same for a multi-get request
+        ReflectionTestUtils.setField(rabbitManager, "platformsDetailsRequestedRoutingKey", "multiGet");
+        CompletableFuture<byte[]> rejected = new CompletableFuture<>();
+        rejected.completeExceptionally(new ServiceOverloadedException("registry", 5));
+        doReturn(rejected).when(rabbitManager)
+                .sendRpcMessageAsync(any(), eq("multiGet"), any(), eq("application/json"));
+
+        try {
+            rabbitManager.sendGetPlatformDetailsMessages(Arrays.asList(platform1Id, platform2Id));
+            fail("The batch should be rejected");
+        } catch (ServiceOverloadedException e) {
+            assertEquals(5, e.getRetryAfterSeconds());
+        }
+    }
+
+    @Test
+    public void sendGetPlatformDetailsMessageWithOpenCircuit() throws Exception {
+        CircuitBreakerRegistry circuitBreakers = new CircuitBreakerRegistry(1, 60000);
+        ReflectionTestUtils.setField(rabbitManager, "circuitBreakers", circuitBreakers);
+        ReflectionTestUtils.setField(rabbitManager, "platformExchangeName", "symbIoTe.platform");
+
+        // The Registry did not answer the last request
+        CircuitBreaker circuitBreaker = circuitBreakers.get("symbIoTe.platform");
+        circuitBreaker.tryAcquire();
+        circuitBreaker.onFailure();
+
+        try {
+            rabbitManager.sendGetPlatformDetailsMessage("platformId");
+            fail("The request should fail fast");
+        } catch (CommunicationException e) {
+            assertTrue(e.getMessage().contains("symbIoTe.platform"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN,
+                rabbitManager.getCircuitBreakers().getStatus().get("symbIoTe.platform").getState());
+    }
+
+    @Test
+    public void sendGetPlatformDetailsMessageWithFullBulkhead() throws Exception {
+        BulkheadRegistry bulkheads = new BulkheadRegistry(new MetricRegistry(),
+                Executors.newSingleThreadScheduledExecutor(), 0, BulkheadRegistry.parseLimits("registry=1"),
+                BulkheadRegistry.parseComponents("symbIoTe.platform=registry"), 0);
+        ReflectionTestUtils.setField(rabbitManager, "bulkheads", bulkheads);
+        ReflectionTestUtils.setField(rabbitManager, "platformExchangeName", "symbIoTe.platform");
+        ReflectionTestUtils.setField(rabbitManager, "bulkheadRetryAfterSeconds", 5L);
+
+        // Another request to the Registry is in flight
+        bulkheads.get("symbIoTe.platform").acquire();
+
+        try {
+            rabbitManager.sendGetPlatformDetailsMessage("platformId");
+            fail("The request should be rejected");
+        } catch (ServiceOverloadedException e) {
+            assertEquals(5, e.getRetryAfterSeconds());
+        }
+        assertEquals(1, bulkheads.get("symbIoTe.platform").getRejected());
+    }
+
+    @Test
+    public void sendGetPlatformDetailsMessageAsync() throws Exception {
+
+        // Successful Message
+        doReturn(rpcResponse(serialize(samplePlatformRegistryResponseSuccess())))
+                .when(rabbitManager)
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
+
+        PlatformRegistryResponse response = rabbitManager.sendGetPlatformDetailsMessageAsync("platformId").get();
+
+        assertNotNull(response);
+        assertEquals(200, response.getStatus());
+
+        // The future completes exceptionally when the response cannot be deserialized
+        doReturn(rpcResponse("not a platform response"))
+                .when(rabbitManager)
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
+
+        CompletableFuture<PlatformRegistryResponse> future = rabbitManager.sendGetPlatformDetailsMessageAsync("platformId");
+
+        try {
+            future.get();
+            fail("The future should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CommunicationException);
+        }
+    }
+
     @Test
     public void sendGetSSPDetailsMessage() throws Exception {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(sampleSspRegistryResponseSuccess()))
+        doReturn(rpcResponse(serialize(sampleSspRegistryResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("text/plain"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
 
         SspRegistryResponse response = rabbitManager.sendGetSSPDetailsMessage(ssp1Id);
 
@@ -346,24 +533,24 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(200, response.getStatus());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("text/plain"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
 
         response = rabbitManager.sendGetSSPDetailsMessage(ssp1Id);
 
         assertNull(response);
 
         // Throw Exception while deserializing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(SspRegistryResponse.class));
-        doReturn(serialize(samplePlatformRegistryResponseSuccess()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(SspRegistryResponse.class));
+        doReturn(rpcResponse(serialize(samplePlatformRegistryResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("text/plain"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
         try {
             rabbitManager.sendGetSSPDetailsMessage(ssp1Id);
         } catch (CommunicationException e) {
@@ -379,9 +566,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(sampleInformationModelListResponseSuccess()))
+        doReturn(rpcResponse(serialize(sampleInformationModelListResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("text/plain"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
 
         InformationModelListResponse response = rabbitManager.sendListInfoModelsRequest();
 
@@ -392,24 +579,24 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(informationModelId, response.getBody().get(0).getId());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("text/plain"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
 
         response = rabbitManager.sendListInfoModelsRequest();
 
         assertNull(response);
 
         // Throw Exception while deserializing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(InformationModelListResponse.class));
-        doReturn(serialize(sampleErrorResponse()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(InformationModelListResponse.class));
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("text/plain"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
         try {
             rabbitManager.sendListInfoModelsRequest();
         } catch (CommunicationException e) {
@@ -419,21 +606,75 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw IOException while deserializing the ErrorResponseContainer
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(ErrorResponseContainer.class));
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(ErrorResponseContainer.class));
         response = rabbitManager.sendListInfoModelsRequest();
 
         assertNull(response);
     }
 
+    @Test
+    public void sendListInfoModelSummariesRequest() throws Exception {
+        // Successful Message
+        doReturn(rpcResponse(serialize(sampleInformationModelListResponseSuccess())))
+                .when(rabbitManager)
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
+
+        InformationModelListResponse response = rabbitManager.sendListInfoModelSummariesRequest();
+
+        assertNotNull(response);
+        assertEquals(200, response.getStatus());
+        assertEquals(informationModelId, response.getBody().get(0).getId());
+        assertEquals(sampleInformationModel().getOwner(), response.getBody().get(0).getOwner());
+        assertNull(response.getBody().get(0).getRdf());
+
+        // Error response
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
+                .when(rabbitManager)
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
+        try {
+            rabbitManager.sendListInfoModelSummariesRequest();
+            fail("The error should be reported");
+        } catch (CommunicationException e) {
+            assertEquals(sampleErrorResponse().getErrorMessage(), e.getMessage());
+        }
+    }
+
+    @Test
+    public void sendListInfoModelsRequestCoalesced() throws Exception {
+        ReflectionTestUtils.setField(rabbitManager, "informationModelsRequestedRoutingKey", "allInformationModels");
+        rabbitManager.setCoalescedRoutingKeys("allInformationModels");
+
+        CompletableFuture<byte[]> registryResponse = new CompletableFuture<>();
+        doReturn(registryResponse)
+                .when(rabbitManager)
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
+
+        // Both requests are in flight together
+        CompletableFuture<InformationModelListResponse> first = rabbitManager.sendListInfoModelsRequestAsync();
+        CompletableFuture<InformationModelListResponse> second = rabbitManager.sendListInfoModelsRequestAsync();
+        verify(rabbitManager, times(1)).sendRpcMessageAsync(any(), eq("allInformationModels"), any(), any());
+
+        registryResponse.complete(serialize(sampleInformationModelListResponseSuccess()).getBytes(StandardCharsets.UTF_8));
+        assertEquals(informationModelId, first.get().getBody().get(0).getId());
+        assertSame(first.get(), second.get());
+
+        // A request sent after the response gets its own call
+        doReturn(rpcResponse(serialize(sampleInformationModelListResponseSuccess())))
+                .when(rabbitManager)
+                .sendRpcMessageAsync(any(), any(), any(), eq("text/plain"));
+        assertNotSame(first.get(), rabbitManager.sendListInfoModelsRequest());
+        verify(rabbitManager, times(2)).sendRpcMessageAsync(any(), eq("allInformationModels"), any(), any());
+    }
+
 
     @Test
     public void sendInfoModelRequest() throws Exception {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(sampleInformationModelResponseSuccess()))
+        doReturn(rpcResponse(serialize(sampleInformationModelResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         InformationModelResponse response = rabbitManager.sendInfoModelRequest("", sampleInformationModelRequest());
 
@@ -444,24 +685,24 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(informationModelId, response.getBody().getId());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         response = rabbitManager.sendInfoModelRequest("", sampleInformationModelRequest());
 
         assertNull(response);
 
         // Throw Exception while deserializing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(InformationModelResponse.class));
-        doReturn(serialize(sampleErrorResponse()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(InformationModelResponse.class));
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendInfoModelRequest("", sampleInformationModelRequest());
         } catch (CommunicationException e) {
@@ -471,7 +712,7 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw IOException while deserializing the ErrorResponseContainer
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(ErrorResponseContainer.class));
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(ErrorResponseContainer.class));
         response = rabbitManager.sendInfoModelRequest("", sampleInformationModelRequest());
 
         assertNull(response);
@@ -481,9 +722,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
     @Test
     public void sendRegisterInfoModelRequest() throws Exception {
 
-        doReturn(serialize(sampleInformationModelResponseSuccess()))
+        doReturn(rpcResponse(serialize(sampleInformationModelResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         InformationModelResponse response = rabbitManager.sendRegisterInfoModelRequest(sampleInformationModelRequest());
 
@@ -498,9 +739,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
     @Test
     public void sendDeleteInfoModelRequest() throws Exception {
 
-        doReturn(serialize(sampleInformationModelResponseSuccess()))
+        doReturn(rpcResponse(serialize(sampleInformationModelResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         InformationModelResponse response = rabbitManager.sendDeleteInfoModelRequest(sampleInformationModelRequest());
 
@@ -518,9 +759,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(sampleResourceListResponseSuccess()))
+        doReturn(rpcResponse(serialize(sampleResourceListResponseSuccess())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         ResourceListResponse response = rabbitManager.sendRegistryResourcesRequest(sampleCoreResourceRegistryRequest());
 
@@ -531,24 +772,24 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(resourceId, response.getBody().get(0).getId());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         response = rabbitManager.sendRegistryResourcesRequest(sampleCoreResourceRegistryRequest());
 
         assertNull(response);
 
         // Throw Exception while deserializing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(ResourceListResponse.class));
-        doReturn(serialize(sampleErrorResponse()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(ResourceListResponse.class));
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendRegistryResourcesRequest(sampleCoreResourceRegistryRequest());
         } catch (CommunicationException e) {
@@ -558,8 +799,8 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw JsonProcessingException while serializing the request
-        // Call writeValueAsString
-        when(om.writeValueAsString(any(String.class))).thenThrow(new JsonProcessingException("") {});
+        // Call write
+        doThrow(new JsonProcessingException("") {}).when(codecs).write(any());
         response = rabbitManager.sendRegistryResourcesRequest(sampleCoreResourceRegistryRequest());
 
         assertNull(response);
@@ -570,9 +811,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(new ClearDataResponse(200, "Done", "done")))
+        doReturn(rpcResponse(serialize(new ClearDataResponse(200, "Done", "done"))))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         ClearDataResponse response = rabbitManager.sendClearDataRequest(new ClearDataRequest());
 
@@ -581,24 +822,24 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(200, response.getStatus());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         response = rabbitManager.sendClearDataRequest(new ClearDataRequest());
 
         assertNull(response);
 
         // Throw Exception while deserializing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(ClearDataRequest.class));
-        doReturn(serialize(sampleErrorResponse()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(ClearDataRequest.class));
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendClearDataRequest(new ClearDataRequest());
         } catch (CommunicationException e) {
@@ -608,8 +849,8 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw JsonProcessingException while serializing the request
-        // Call writeValueAsString
-        when(om.writeValueAsString(any(String.class))).thenThrow(new JsonProcessingException("") {});
+        // Call write
+        doThrow(new JsonProcessingException("") {}).when(codecs).write(any());
         response = rabbitManager.sendClearDataRequest(new ClearDataRequest());
 
         assertNull(response);
@@ -624,9 +865,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(ManagementStatus.OK))
+        doReturn(rpcResponse(serialize(ManagementStatus.OK)))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         ManagementStatus response = rabbitManager.sendUserManagementRequest(sampleUserManagementRequest(UserRole.SERVICE_OWNER));
 
@@ -634,9 +875,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(ManagementStatus.OK, response);
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         try {
             rabbitManager.sendUserManagementRequest(sampleUserManagementRequest(UserRole.SERVICE_OWNER));
@@ -648,15 +889,15 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
 
         // Throw Exception while deserializing the response
         communicationCaught = false;
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(ManagementStatus.class));
-        doReturn(serialize(sampleErrorResponse()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(ManagementStatus.class));
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendUserManagementRequest(sampleUserManagementRequest(UserRole.SERVICE_OWNER));
         } catch (CommunicationException e) {
@@ -666,8 +907,8 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw JsonProcessingException while serializing the request
-        // Call writeValueAsString
-        when(om.writeValueAsString(any(String.class))).thenThrow(new JsonProcessingException("") {});
+        // Call write
+        doThrow(new JsonProcessingException("") {}).when(codecs).write(any());
         response = rabbitManager.sendUserManagementRequest(sampleUserManagementRequest(UserRole.SERVICE_OWNER));
 
         assertNull(response);
@@ -679,9 +920,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(new RevocationResponse(true, HttpStatus.OK)))
+        doReturn(rpcResponse(serialize(new RevocationResponse(true, HttpStatus.OK))))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         RevocationResponse response = rabbitManager.sendRevocationRequest(new RevocationRequest());
 
@@ -690,9 +931,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(HttpStatus.OK, response.getStatus());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         try {
             rabbitManager.sendRevocationRequest(new RevocationRequest());
@@ -704,15 +945,15 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
 
         // Throw Exception while deserializing the response
         communicationCaught = false;
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(RevocationRequest.class));
-        doReturn(serialize(sampleErrorResponse()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(RevocationRequest.class));
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendRevocationRequest(new RevocationRequest());
         } catch (CommunicationException e) {
@@ -722,8 +963,8 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw JsonProcessingException while serializing the request
-        // Call writeValueAsString
-        when(om.writeValueAsString(any(String.class))).thenThrow(new JsonProcessingException("") {});
+        // Call write
+        doThrow(new JsonProcessingException("") {}).when(codecs).write(any());
         response = rabbitManager.sendRevocationRequest(new RevocationRequest());
 
         assertNull(response);
@@ -735,9 +976,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(samplePlatformManagementResponse(ManagementStatus.OK)))
+        doReturn(rpcResponse(serialize(samplePlatformManagementResponse(ManagementStatus.OK))))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         PlatformManagementResponse response = rabbitManager.sendManagePlatformRequest(samplePlatformManagementRequest(OperationType.CREATE));
 
@@ -745,9 +986,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(ManagementStatus.OK, response.getRegistrationStatus());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         response = rabbitManager.sendManagePlatformRequest(samplePlatformManagementRequest(OperationType.CREATE));
 
@@ -755,15 +996,15 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
 
 
         // Throw Exception while deserializing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(PlatformManagementResponse.class));
-        doReturn(serialize(sampleErrorResponse()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(PlatformManagementResponse.class));
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendManagePlatformRequest(samplePlatformManagementRequest(OperationType.CREATE));
         } catch (CommunicationException e) {
@@ -773,8 +1014,8 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw JsonProcessingException while serializing the request
-        // Call writeValueAsString
-        when(om.writeValueAsString(any(String.class))).thenThrow(new JsonProcessingException("") {});
+        // Call write
+        doThrow(new JsonProcessingException("") {}).when(codecs).write(any());
         response = rabbitManager.sendManagePlatformRequest(samplePlatformManagementRequest(OperationType.CREATE));
 
         assertNull(response);
@@ -786,9 +1027,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(sampleSmartSpaceManagementResponse(ManagementStatus.OK)))
+        doReturn(rpcResponse(serialize(sampleSmartSpaceManagementResponse(ManagementStatus.OK))))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         SmartSpaceManagementResponse response = rabbitManager.sendManageSSPRequest(sampleSmartSpaceManagementRequest(OperationType.CREATE));
 
@@ -796,9 +1037,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(ManagementStatus.OK, response.getManagementStatus());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         response = rabbitManager.sendManageSSPRequest(sampleSmartSpaceManagementRequest(OperationType.CREATE));
 
@@ -806,15 +1047,15 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
 
 
         // Throw Exception while deserializing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(SmartSpaceManagementResponse.class));
-        doReturn(serialize(sampleErrorResponse()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(SmartSpaceManagementResponse.class));
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendManageSSPRequest(sampleSmartSpaceManagementRequest(OperationType.CREATE));
         } catch (CommunicationException e) {
@@ -824,8 +1065,8 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw JsonProcessingException while serializing the request
-        // Call writeValueAsString
-        when(om.writeValueAsString(any(String.class))).thenThrow(new JsonProcessingException("") {});
+        // Call write
+        doThrow(new JsonProcessingException("") {}).when(codecs).write(any());
         response = rabbitManager.sendManageSSPRequest(sampleSmartSpaceManagementRequest(OperationType.CREATE));
 
         assertNull(response);
@@ -837,9 +1078,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(sampleActiveUserDetailsResponse(HttpStatus.OK)))
+        doReturn(rpcResponse(serialize(sampleActiveUserDetailsResponse(HttpStatus.OK))))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         UserDetailsResponse response = rabbitManager.sendLoginRequest(sampleCredentials());
 
@@ -847,24 +1088,24 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertEquals(UserRole.SERVICE_OWNER, response.getUserDetails().getRole());
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         response = rabbitManager.sendLoginRequest(sampleCredentials());
         assertNull(response);
 
 
         // Throw Exception while deserializing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(UserDetailsResponse.class));
-        doReturn(serialize(sampleErrorResponse()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(UserDetailsResponse.class));
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendLoginRequest(sampleCredentials());
         } catch (CommunicationException e) {
@@ -874,8 +1115,8 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw JsonProcessingException while serializing the request
-        // Call writeValueAsString
-        when(om.writeValueAsString(any(String.class))).thenThrow(new JsonProcessingException("") {});
+        // Call write
+        doThrow(new JsonProcessingException("") {}).when(codecs).write(any());
         response = rabbitManager.sendLoginRequest(sampleCredentials());
         assertNull(response);
     }
@@ -887,9 +1128,9 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         boolean communicationCaught = false;
 
         // Successful Message
-        doReturn(serialize(sampleOwnedServiceDetails()))
+        doReturn(rpcResponse(serialize(sampleOwnedServiceDetails())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         Set<OwnedService> response = rabbitManager.sendOwnedServiceDetailsRequest(
                 sampleUserManagementRequest(UserRole.SERVICE_OWNER));
@@ -897,24 +1138,24 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertNotNull(response);
 
         // Return null
-        doReturn(null)
+        doReturn(rpcResponse(null))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
 
         response = rabbitManager.sendOwnedServiceDetailsRequest(sampleUserManagementRequest(UserRole.SERVICE_OWNER));
         assertNull(response);
 
 
         // Throw Exception while deserializing the response
-        ObjectMapper om = spy(new ObjectMapper());
-        rabbitManager.setMapper(om);
+        JsonCodecRegistry codecs = spy(new JsonCodecRegistry(new ObjectMapper()));
+        rabbitManager.setCodecs(codecs);
 
 
         // Do not call readValue as it might fail
-        doThrow(new IOException()).when(om).readValue(any(String.class), eq(UserDetailsResponse.class));
-        doReturn(serialize(sampleErrorResponse()))
+        doThrow(new IOException()).when(codecs).treeToValue(any(JsonNode.class), eq(UserDetailsResponse.class));
+        doReturn(rpcResponse(serialize(sampleErrorResponse())))
                 .when(rabbitManager)
-                .sendRpcMessage(any(), any(), any(), eq("application/json"));
+                .sendRpcMessageAsync(any(), any(), any(), eq("application/json"));
         try {
             rabbitManager.sendOwnedServiceDetailsRequest(sampleUserManagementRequest(UserRole.SERVICE_OWNER));
         }
@@ -925,9 +1166,146 @@ public class RabbitManagerTests extends AdministrationBaseTestClass {
         assertTrue(communicationCaught);
 
         // Throw JsonProcessingException while serializing the request
-        // Call writeValueAsString
-        when(om.writeValueAsString(any(String.class))).thenThrow(new JsonProcessingException("") {});
+        // Call write
+        doThrow(new JsonProcessingException("") {}).when(codecs).write(any());
         response = rabbitManager.sendOwnedServiceDetailsRequest(sampleUserManagementRequest(UserRole.SERVICE_OWNER));
         assertNull(response);
     }
-}
\ No newline at end of file
+
+    // ==== RPC ====
+
+    @Test
+    public void replyCompletesTheRequestWithItsCorrelationId() throws Exception {
+        Channel channel = mock(Channel.class);
+        RabbitChannelPool channelPool = mock(RabbitChannelPool.class);
+        doAnswer(invocation -> ((RabbitChannelPool.ChannelCallback<?>) invocation.getArguments()[0])
+                .doWithChannel(channel)).when(channelPool).execute(any());
+        ReflectionTestUtils.setField(rabbitManager, "channelPool", channelPool);
+        ReflectionTestUtils.setField(rabbitManager, "replyQueueName", "replyQueue");
+        ReflectionTestUtils.setField(rabbitManager, "timeouts", new AdaptiveTimeouts(5000, 0, 2, 20,
+                new AdaptiveTimeouts.Bounds(5000, 5000), Collections.emptyMap()));
+
+        CompletableFuture<byte[]> first = rabbitManager.sendRpcMessageAsync("exchange", "key",
+                "first".getBytes(StandardCharsets.UTF_8), "text/plain");
+        CompletableFuture<byte[]> second = rabbitManager.sendRpcMessageAsync("exchange", "key",
+                "second".getBytes(StandardCharsets.UTF_8), "text/plain");
+
+        ArgumentCaptor<AMQP.BasicProperties> props = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel, times(2)).basicPublish(eq("exchange"), eq("key"), props.capture(), any());
+        AMQP.BasicProperties firstProps = props.getAllValues().get(0);
+        AMQP.BasicProperties secondProps = props.getAllValues().get(1);
+        assertEquals("replyQueue", firstProps.getReplyTo());
+        assertNotEquals(firstProps.getCorrelationId(), secondProps.getCorrelationId());
+
+        // The replies come in any order
+        ReflectionTestUtils.invokeMethod(rabbitManager, "onReply", secondProps.getCorrelationId(), null,
+                "second reply".getBytes(StandardCharsets.UTF_8));
+        assertFalse(first.isDone());
+        assertEquals("second reply", new String(second.get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+
+        ReflectionTestUtils.invokeMethod(rabbitManager, "onReply", firstProps.getCorrelationId(), null,
+                "first reply".getBytes(StandardCharsets.UTF_8));
+        assertEquals("first reply", new String(first.get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(rabbitManager, "pendingRpcs")).isEmpty());
+    }
+
+    @Test
+    public void sendRpcMessageExpiresWithTimeout() throws Exception {
+        Channel channel = mock(Channel.class);
+        RabbitChannelPool channelPool = mock(RabbitChannelPool.class);
+        doAnswer(invocation -> ((RabbitChannelPool.ChannelCallback<?>) invocation.getArguments()[0])
+                .doWithChannel(channel)).when(channelPool).execute(any());
+        MetricRegistry metricRegistry = new MetricRegistry();
+        rabbitManager.setMetricRegistry(metricRegistry);
+        ReflectionTestUtils.setField(rabbitManager, "channelPool", channelPool);
+        ReflectionTestUtils.setField(rabbitManager, "timeouts", new AdaptiveTimeouts(50, 0, 2, 20,
+                new AdaptiveTimeouts.Bounds(50, 50), Collections.emptyMap()));
+        ReflectionTestUtils.setField(rabbitManager, "expirationEnabled", true);
+        ReflectionTestUtils.setField(rabbitManager, "expirationDeadlineHeader", "x-deadline");
+        ReflectionTestUtils.setField(rabbitManager, "expirationLateReplyWindowMillis", 60000L);
+
+        long sentAt = System.currentTimeMillis();
+        CompletableFuture<byte[]> response = rabbitManager.sendRpcMessageAsync("exchange", "key",
+                "request".getBytes(StandardCharsets.UTF_8), "text/plain");
+
+        ArgumentCaptor<AMQP.BasicProperties> props = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel).basicPublish(eq("exchange"), eq("key"), props.capture(), any());
+        assertEquals("50", props.getValue().getExpiration());
+        long deadline = (Long) props.getValue().getHeaders().get("x-deadline");
+        assertTrue(deadline >= sentAt + 50);
+
+        // The request times out and its reply comes late
+        assertNull(response.get());
+        ReflectionTestUtils.invokeMethod(rabbitManager, "onReply", props.getValue().getCorrelationId(), null,
+                "response".getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, metricRegistry.counter("rabbit.rpc.key.lateReplies").getCount());
+
+        ReflectionTestUtils.invokeMethod(rabbitManager, "onReply", "unknown", null,
+                "response".getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, metricRegistry.counter("rabbit.rpc.orphanedReplies").getCount());
+        assertEquals(1, metricRegistry.counter("rabbit.rpc.key.lateReplies").getCount());
+    }
+
+    @Test
+    public void sendRpcMessageWithClaimCheck() throws Exception {
+        Channel channel = mock(Channel.class);
+        RabbitChannelPool channelPool = mock(RabbitChannelPool.class);
+        doAnswer(invocation -> ((RabbitChannelPool.ChannelCallback<?>) invocation.getArguments()[0])
+                .doWithChannel(channel)).when(channelPool).execute(any());
+        Path directory = Files.createTempDirectory("claim-checks");
+        LocalClaimCheckStore store = new LocalClaimCheckStore(directory);
+        ReflectionTestUtils.setField(rabbitManager, "channelPool", channelPool);
+        ReflectionTestUtils.setField(rabbitManager, "timeouts", new AdaptiveTimeouts(5000, 0, 2, 20,
+                new AdaptiveTimeouts.Bounds(5000, 5000), Collections.emptyMap()));
+        ReflectionTestUtils.setField(rabbitManager, "claimChecks",
+                new ClaimChecks(store, 4, Collections.singleton("infoModel")));
+
+        byte[] rdf = "large rdf".getBytes(StandardCharsets.UTF_8);
+        CompletableFuture<byte[]> response = rabbitManager.sendRpcMessageAsync("exchange", "infoModel", rdf,
+                "application/json");
+
+        // Only the reference of the payload is sent
+        ArgumentCaptor<AMQP.BasicProperties> props = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel).basicPublish(eq("exchange"), eq("infoModel"), props.capture(), eq(new byte[0]));
+        String reference = props.getValue().getHeaders().get(ClaimChecks.REFERENCE_HEADER).toString();
+        assertArrayEquals(rdf, store.get(reference));
+
+        // The reply carries a claim check too
+        byte[] reply = "large reply".getBytes(StandardCharsets.UTF_8);
+        Map<String, Object> replyHeaders = new ClaimChecks(store, 4, Collections.singleton("reply"))
+                .offload("reply", reply);
+        ReflectionTestUtils.invokeMethod(rabbitManager, "onClaimCheckReply", new AMQP.BasicProperties.Builder()
+                .correlationId(props.getValue().getCorrelationId())
+                .headers(replyHeaders)
+                .build());
+
+        assertArrayEquals(reply, response.get());
+
+        // The payload of the request is removed once it is answered
+        assertFalse(Files.exists(directory.resolve(reference)));
+    }
+
+    @Test
+    public void sendRpcMessageWithUnreachableClaimCheckStore() throws Exception {
+        Channel channel = mock(Channel.class);
+        RabbitChannelPool channelPool = mock(RabbitChannelPool.class);
+        doAnswer(invocation -> ((RabbitChannelPool.ChannelCallback<?>) invocation.getArguments()[0])
+                .doWithChannel(channel)).when(channelPool).execute(any());
+        ClaimCheckStore store = mock(ClaimCheckStore.class);
+        doThrow(new IllegalStateException("Store unreachable")).when(store).put(any());
+        ReflectionTestUtils.setField(rabbitManager, "channelPool", channelPool);
+        ReflectionTestUtils.setField(rabbitManager, "timeouts", new AdaptiveTimeouts(5000, 0, 2, 20,
+                new AdaptiveTimeouts.Bounds(5000, 5000), Collections.emptyMap()));
+        ReflectionTestUtils.setField(rabbitManager, "claimChecks",
+                new ClaimChecks(store, 4, Collections.singleton("infoModel")));
+
+        CompletableFuture<byte[]> response = rabbitManager.sendRpcMessageAsync("exchange", "infoModel",
+                "large rdf".getBytes(StandardCharsets.UTF_8), "application/json");
+
+        // The request fails as the other send failures, without being published
+        assertTrue(response.isDone());
+        assertNull(response.get());
+        verify(channel, never()).basicPublish(any(), any(), any(), any());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(rabbitManager, "pendingRpcs")).isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveTimeoutsTest {
+
+    private long now;
+    private AdaptiveTimeouts timeouts;
+
+    @Before
+    public void setup() {
+        now = 0;
+        timeouts = new AdaptiveTimeouts(10000, 0.99, 2, 10,
+                new AdaptiveTimeouts.Bounds(100, 20000),
+                AdaptiveTimeouts.parseBounds("login=50:1000, register=30000:120000"),
+                () -> now);
+    }
+
+    @Test
+    public void defaultTimeoutUntilEnoughLatencies() {
+        respond("details", 9, 40);
+        assertEquals(10000, timeouts.timeoutMillis("details"));
+
+        // Bounded by the routing key
+        assertEquals(1000, timeouts.timeoutMillis("login"));
+        assertEquals(30000, timeouts.timeoutMillis("register"));
+    }
+
+    @Test
+    public void timeoutFollowsLatencies() {
+        respond("details", 10, 40);
+        now = 1000;
+        assertEquals(100, timeouts.timeoutMillis("details"));
+
+        respond("login", 10, 40);
+        now = 2000;
+        assertEquals(80, timeouts.timeoutMillis("login"));
+
+        respond("register", 10, 40000);
+        assertEquals(80000, timeouts.timeoutMillis("register"));
+    }
+
+    @Test
+    public void timeoutsMakeTheTimeoutGrow() {
+        for (int i = 0; i < 10; i++)
+            timeouts.onTimeout("login", 1000);
+        now = 1000;
+        assertEquals(1000, timeouts.timeoutMillis("login"));
+
+        for (int i = 0; i < 10; i++)
+            timeouts.onTimeout("details", 10000);
+        assertEquals(20000, timeouts.timeoutMillis("details"));
+    }
+
+    @Test
+    public void fixedTimeoutWithoutPercentile() {
+        timeouts = new AdaptiveTimeouts(10000, 0, 2, 10,
+                new AdaptiveTimeouts.Bounds(100, 20000), AdaptiveTimeouts.parseBounds(""), () -> now);
+
+        respond("details", 10, 40);
+        now = 1000;
+        assertEquals(10000, timeouts.timeoutMillis("details"));
+    }
+
+    @Test
+    public void parseBounds() {
+        Map<String, AdaptiveTimeouts.Bounds> bounds = AdaptiveTimeouts.parseBounds("a.b=1:2,c=3:4");
+        assertEquals(2, bounds.size());
+        assertEquals(1, bounds.get("a.b").getMinMillis());
+        assertEquals(4, bounds.get("c").getMaxMillis());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseMalformedBounds() {
+        AdaptiveTimeouts.parseBounds("a.b=1");
+    }
+
+    private void respond(String routingKey, int times, long latencyMillis) {
+        for (int i = 0; i < times; i++)
+            timeouts.onResponse(routingKey, latencyMillis);
+    }
+}
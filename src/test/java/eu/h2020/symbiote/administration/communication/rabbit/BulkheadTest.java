@@ -0,0 +1,123 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BulkheadTest {
+
+    private MetricRegistry metricRegistry;
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void teardown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void rejectsOverTheLimit() {
+        Bulkhead bulkhead = new Bulkhead("aam", 2, 0, scheduler, metricRegistry);
+        assertTrue(bulkhead.acquire().join());
+        assertTrue(bulkhead.acquire().join());
+        assertEquals(2, bulkhead.getInFlight());
+
+        assertFalse(bulkhead.acquire().join());
+        assertEquals(1, metricRegistry.counter("rabbit.bulkhead.aam.rejected").getCount());
+
+        bulkhead.release();
+        assertTrue(bulkhead.acquire().join());
+    }
+
+    @Test
+    public void waitsForAFreeSlot() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("registry", 1, 5000, scheduler, metricRegistry);
+        assertTrue(bulkhead.acquire().join());
+
+        // The caller is not blocked while waiting
+        CompletableFuture<Boolean> first = bulkhead.acquire();
+        CompletableFuture<Boolean> second = bulkhead.acquire();
+        assertFalse(first.isDone());
+        assertEquals(2, metricRegistry.getGauges().get("rabbit.bulkhead.registry.waiting").getValue());
+
+        // The slots are handed over in order
+        bulkhead.release();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertFalse(second.isDone());
+        assertEquals(1, bulkhead.getInFlight());
+
+        bulkhead.release();
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.getWaiting());
+        assertEquals(0, bulkhead.getRejected());
+
+        bulkhead.release();
+        assertEquals(0, bulkhead.getInFlight());
+    }
+
+    @Test
+    public void rejectsAfterTheMaximumWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("registry", 1, 50, scheduler, metricRegistry);
+        assertTrue(bulkhead.acquire().join());
+
+        CompletableFuture<Boolean> waiting = bulkhead.acquire();
+        assertFalse(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.getWaiting());
+        assertEquals(1, bulkhead.getRejected());
+
+        // The slot is not handed over to the rejected request
+        bulkhead.release();
+        assertEquals(0, bulkhead.getInFlight());
+    }
+
+    @Test
+    public void unlimitedWithoutLimit() {
+        BulkheadRegistry bulkheads = new BulkheadRegistry(metricRegistry, scheduler, 0,
+                BulkheadRegistry.parseLimits("aam=1"), Collections.emptyMap(), 0);
+
+        for (int i = 0; i < 100; i++)
+            assertTrue(bulkheads.get("registry").acquire().join());
+        assertTrue(bulkheads.get("aam").acquire().join());
+        assertFalse(bulkheads.get("aam").acquire().join());
+    }
+
+    @Test
+    public void sharedByTheExchangesOfAComponent() {
+        BulkheadRegistry bulkheads = new BulkheadRegistry(metricRegistry, scheduler, 0,
+                BulkheadRegistry.parseLimits("registry=2"),
+                BulkheadRegistry.parseComponents("symbIoTe.platform=registry, symbIoTe.ssp=registry"), 0);
+
+        assertSame(bulkheads.get("symbIoTe.platform"), bulkheads.get("symbIoTe.ssp"));
+        assertEquals("registry", bulkheads.get("symbIoTe.platform").getName());
+        assertTrue(bulkheads.get("symbIoTe.platform").acquire().join());
+        assertTrue(bulkheads.get("symbIoTe.ssp").acquire().join());
+        assertFalse(bulkheads.get("symbIoTe.platform").acquire().join());
+    }
+
+    @Test
+    public void parseLimits() {
+        Map<String, Integer> limits = BulkheadRegistry.parseLimits("symbIoTe.platform=64, symbIoTe.aam=32");
+        assertEquals(64, (int) limits.get("symbIoTe.platform"));
+        assertEquals(32, (int) limits.get("symbIoTe.aam"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseMalformedLimits() {
+        BulkheadRegistry.parseLimits("symbIoTe.platform");
+    }
+}
@@ -0,0 +1,73 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+    private long now;
+    private CircuitBreaker circuitBreaker;
+
+    @Before
+    public void setup() {
+        now = 0;
+        circuitBreaker = new CircuitBreaker("registry", 3, 1000, () -> now);
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        failTimes(2);
+        circuitBreaker.onSuccess();
+        failTimes(2);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        failTimes(1);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void halfOpenLetsSingleProbeThrough() {
+        failTimes(3);
+
+        now = 1000;
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void failedProbeOpensAgain() {
+        failTimes(3);
+
+        now = 1000;
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        now = 1999;
+        assertFalse(circuitBreaker.tryAcquire());
+        now = 2000;
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void neverOpensWithoutThreshold() {
+        circuitBreaker = new CircuitBreaker("registry", 0, 1000, () -> now);
+        failTimes(100);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private void failTimes(int failures) {
+        for (int i = 0; i < failures; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ClaimChecksTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LocalClaimCheckStore store;
+    private ClaimChecks claimChecks;
+
+    @Before
+    public void setup() throws Exception {
+        store = new LocalClaimCheckStore(folder.getRoot().toPath());
+        claimChecks = new ClaimChecks(store, 10, Collections.singleton("infoModel"));
+    }
+
+    @Test
+    public void onlyLargePayloadsOfListedRoutingKeysAreOffloaded() throws Exception {
+        assertNull(claimChecks.offload("infoModel", bytes("0123456789")));
+        assertNull(claimChecks.offload("other", bytes("0123456789-large")));
+        assertNull(new ClaimChecks(null, 10, Collections.singleton("infoModel"))
+                .offload("infoModel", bytes("0123456789-large")));
+
+        Map<String, Object> headers = claimChecks.offload("infoModel", bytes("0123456789-large"));
+        assertTrue(ClaimChecks.isClaimCheck(headers));
+        assertEquals(ClaimChecks.checksum(bytes("0123456789-large")), headers.get(ClaimChecks.CHECKSUM_HEADER));
+        assertArrayEquals(bytes("0123456789-large"), claimChecks.fetch(headers));
+
+        claimChecks.release(headers);
+        try {
+            claimChecks.fetch(headers);
+            fail("The payload should be removed");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptedPayloadFails() throws Exception {
+        Map<String, Object> headers = claimChecks.offload("infoModel", bytes("0123456789-large"));
+        headers.put(ClaimChecks.CHECKSUM_HEADER, ClaimChecks.checksum(bytes("other")));
+
+        claimChecks.fetch(headers);
+    }
+
+    @Test(expected = IOException.class)
+    public void referencesOutsideTheStoreAreRejected() throws Exception {
+        store.get("../outside");
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,166 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.codahale.metrics.MetricRegistry;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Recoverable;
+import com.rabbitmq.client.RecoveryListener;
+import com.rabbitmq.client.ShutdownListener;
+import com.rabbitmq.client.ShutdownSignalException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ConfirmingPublisherTest {
+
+    private final AMQP.BasicProperties props = new AMQP.BasicProperties();
+
+    private Connection connection;
+    private Channel channel;
+    private MetricRegistry metricRegistry;
+    private ConfirmingPublisher publisher;
+    private ConfirmListener confirmListener;
+    private final ArgumentCaptor<ShutdownListener> shutdownListener = ArgumentCaptor.forClass(ShutdownListener.class);
+
+    @Before
+    public void setup() throws Exception {
+        connection = mock(Connection.class);
+        channel = mock(Channel.class);
+        when(connection.isOpen()).thenReturn(true);
+        when(connection.createChannel()).thenReturn(channel);
+        when(channel.isOpen()).thenReturn(true);
+
+        AtomicLong seqNo = new AtomicLong(1);
+        when(channel.getNextPublishSeqNo()).thenAnswer(invocation -> seqNo.getAndIncrement());
+
+        metricRegistry = new MetricRegistry();
+        publisher = new ConfirmingPublisher(connection, metricRegistry, 2, 10);
+
+        publisher.publish("exchange", "key", props, "first".getBytes());
+
+        ArgumentCaptor<ConfirmListener> listener = ArgumentCaptor.forClass(ConfirmListener.class);
+        verify(channel).confirmSelect();
+        verify(channel).addConfirmListener(listener.capture());
+        confirmListener = listener.getValue();
+        verify(channel).addShutdownListener(shutdownListener.capture());
+    }
+
+    @After
+    public void tearDown() {
+        publisher.close();
+    }
+
+    @Test
+    public void multipleAckConfirmsTheBatch() throws Exception {
+        publisher.publish("exchange", "key", props, "second".getBytes());
+        publisher.publish("exchange", "key", props, "third".getBytes());
+        assertEquals(3, publisher.getBacklog());
+
+        confirmListener.handleAck(2, true);
+        assertEquals(1, publisher.getBacklog());
+        assertEquals(2, metricRegistry.timer("rabbit.publisher.confirm.latency").getCount());
+
+        confirmListener.handleAck(3, false);
+        assertEquals(0, publisher.getBacklog());
+        assertEquals(3, metricRegistry.timer("rabbit.publisher.confirm.latency").getCount());
+    }
+
+    @Test
+    public void nackedMessageIsPublishedAgain() throws Exception {
+        confirmListener.handleNack(1, false);
+
+        verify(channel, timeout(1000).times(2))
+                .basicPublish(eq("exchange"), eq("key"), eq(props), eq("first".getBytes()));
+        assertEquals(1, metricRegistry.counter("rabbit.publisher.nacks").getCount());
+        assertEquals(1, metricRegistry.counter("rabbit.publisher.retries").getCount());
+
+        // The retry is outstanding until confirmed
+        confirmListener.handleAck(2, false);
+        assertEquals(0, publisher.getBacklog());
+    }
+
+    @Test
+    public void messageIsDroppedAfterMaxRetries() throws Exception {
+        doThrow(new IOException()).when(channel).basicPublish(any(), eq("failing"), any(), any());
+
+        publisher.publish("exchange", "failing", props, "payload".getBytes());
+
+        verify(channel, timeout(1000).times(3)).basicPublish(any(), eq("failing"), any(), any());
+        Thread.sleep(50);
+        assertEquals(1, metricRegistry.counter("rabbit.publisher.dropped").getCount());
+        assertEquals(1, publisher.getBacklog());
+    }
+
+    @Test
+    public void unconfirmedMessagesArePublishedAgainAfterRecovery() throws Exception {
+        // Publisher retrying for longer than the connection is down
+        Channel recoveredChannel = mock(Channel.class);
+        when(connection.createChannel()).thenReturn(recoveredChannel);
+        when(recoveredChannel.isOpen()).thenReturn(true);
+        publisher.close();
+        publisher = new ConfirmingPublisher(connection, metricRegistry, 100, 10);
+        publisher.publish("exchange", "key", props, "first".getBytes());
+        verify(recoveredChannel).addShutdownListener(shutdownListener.capture());
+
+        // The connection is lost with the message outstanding
+        when(connection.isOpen()).thenReturn(false);
+        when(recoveredChannel.isOpen()).thenReturn(false);
+        shutdownListener.getValue().shutdownCompleted(new ShutdownSignalException(true, false, null, connection));
+        assertEquals(0, publisher.getBacklog());
+
+        // The retries fail while the connection is down, without opening a new channel
+        Thread.sleep(50);
+        verify(connection, times(2)).createChannel();
+
+        // The channel is recovered with the connection
+        when(connection.isOpen()).thenReturn(true);
+        when(recoveredChannel.isOpen()).thenReturn(true);
+        verify(recoveredChannel, timeout(1000).times(2))
+                .basicPublish(eq("exchange"), eq("key"), eq(props), eq("first".getBytes()));
+        verify(connection, times(2)).createChannel();
+        assertEquals(1, publisher.getBacklog());
+    }
+
+    @Test
+    public void messagesAreParkedUntilTheConnectionIsRecovered() throws Exception {
+        // Publisher giving up after a few retries
+        Connection recoverableConnection = mock(Connection.class, withSettings().extraInterfaces(Recoverable.class));
+        when(recoverableConnection.isOpen()).thenReturn(true);
+        when(recoverableConnection.createChannel()).thenReturn(channel);
+        publisher.close();
+        publisher = new ConfirmingPublisher(recoverableConnection, metricRegistry, 2, 10);
+        ArgumentCaptor<RecoveryListener> recoveryListener = ArgumentCaptor.forClass(RecoveryListener.class);
+        verify((Recoverable) recoverableConnection).addRecoveryListener(recoveryListener.capture());
+        long dropped = metricRegistry.counter("rabbit.publisher.dropped").getCount();
+
+        // The connection is down for longer than the retries last
+        when(recoverableConnection.isOpen()).thenReturn(false);
+        when(channel.isOpen()).thenReturn(false);
+        publisher.publish("exchange", "parked", props, "payload".getBytes());
+        Thread.sleep(100);
+        assertEquals(1, publisher.getParked());
+        assertEquals(1, metricRegistry.getGauges().get("rabbit.publisher.parked").getValue());
+        assertEquals(dropped, metricRegistry.counter("rabbit.publisher.dropped").getCount());
+        verify(channel, never()).basicPublish(any(), eq("parked"), any(), any());
+
+        // The channel is recovered with the connection
+        when(recoverableConnection.isOpen()).thenReturn(true);
+        when(channel.isOpen()).thenReturn(true);
+        recoveryListener.getValue().handleRecovery((Recoverable) recoverableConnection);
+
+        verify(channel, timeout(1000)).basicPublish(eq("exchange"), eq("parked"), eq(props), eq("payload".getBytes()));
+        assertEquals(0, publisher.getParked());
+        assertEquals(dropped, metricRegistry.counter("rabbit.publisher.dropped").getCount());
+    }
+}
@@ -0,0 +1,57 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.codahale.metrics.MetricRegistry;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Recoverable;
+import com.rabbitmq.client.RecoveryListener;
+import com.rabbitmq.client.ShutdownListener;
+import com.rabbitmq.client.ShutdownSignalException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class ConnectionRecoveryMonitorTest {
+
+    private Connection connection;
+    private MetricRegistry metricRegistry;
+    private ConnectionRecoveryMonitor monitor;
+    private ShutdownListener shutdownListener;
+    private RecoveryListener recoveryListener;
+
+    @Before
+    public void setup() {
+        connection = mock(Connection.class, withSettings().extraInterfaces(Recoverable.class));
+        metricRegistry = new MetricRegistry();
+        monitor = new ConnectionRecoveryMonitor(metricRegistry);
+        monitor.monitor(connection);
+
+        ArgumentCaptor<ShutdownListener> shutdown = ArgumentCaptor.forClass(ShutdownListener.class);
+        ArgumentCaptor<RecoveryListener> recovery = ArgumentCaptor.forClass(RecoveryListener.class);
+        verify(connection).addShutdownListener(shutdown.capture());
+        verify((Recoverable) connection).addRecoveryListener(recovery.capture());
+        shutdownListener = shutdown.getValue();
+        recoveryListener = recovery.getValue();
+    }
+
+    @Test
+    public void lostConnectionIsDownUntilRecovered() {
+        shutdownListener.shutdownCompleted(new ShutdownSignalException(true, false, null, connection));
+        assertEquals(1, monitor.getConnectionsDown());
+        assertEquals(1, metricRegistry.counter("rabbit.recovery.connectionsLost").getCount());
+
+        recoveryListener.handleRecovery((Recoverable) connection);
+        assertEquals(0, monitor.getConnectionsDown());
+        assertEquals(1, metricRegistry.counter("rabbit.recovery.recoveries").getCount());
+        assertEquals(1, metricRegistry.timer("rabbit.recovery.downtime").getCount());
+    }
+
+    @Test
+    public void closingTheConnectionIsNotALoss() {
+        shutdownListener.shutdownCompleted(new ShutdownSignalException(true, true, null, connection));
+        assertEquals(0, monitor.getConnectionsDown());
+        assertEquals(0, metricRegistry.counter("rabbit.recovery.connectionsLost").getCount());
+    }
+}
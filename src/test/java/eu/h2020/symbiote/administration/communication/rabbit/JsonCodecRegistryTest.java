@@ -0,0 +1,101 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class JsonCodecRegistryTest {
+
+    public static class Payload {
+        private String name;
+        private Date created;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public Date getCreated() { return created; }
+        public void setCreated(Date created) { this.created = created; }
+    }
+
+    private JsonCodecRegistry codecs;
+
+    @Before
+    public void setup() {
+        // Configured like the Spring MVC mapper
+        ObjectMapper mapper = new ObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        codecs = new JsonCodecRegistry(mapper, Payload.class);
+    }
+
+    @Test
+    public void readersAndWritersAreCreatedOnce() {
+        assertSame(codecs.reader(Payload.class), codecs.reader(Payload.class));
+        assertSame(codecs.writer(Payload.class), codecs.writer(Payload.class));
+        assertSame(codecs.setOf(Payload.class), codecs.setOf(Payload.class));
+    }
+
+    @Test
+    public void readAndWrite() throws Exception {
+        Payload payload = new Payload();
+        payload.setName("name");
+        payload.setCreated(new Date(1000));
+
+        byte[] json = codecs.write(payload);
+        assertEquals("{\"name\":\"name\",\"created\":1000}", new String(json, StandardCharsets.UTF_8));
+        assertEquals("name", codecs.read(json, Payload.class).getName());
+
+        Set<Payload> payloads = codecs.read("[{\"name\":\"name\"}]".getBytes(StandardCharsets.UTF_8),
+                codecs.setOf(Payload.class));
+        assertEquals(1, payloads.size());
+    }
+
+    @Test(expected = JsonProcessingException.class)
+    public void unknownPropertiesStillFail() throws Exception {
+        codecs.read("{\"errorMessage\":\"error\"}".getBytes(StandardCharsets.UTF_8), Payload.class);
+    }
+
+    @Test
+    public void readTreeAndBind() throws Exception {
+        JsonNode tree = codecs.readTree("{\"name\":\"name\",\"created\":1000}".getBytes(StandardCharsets.UTF_8));
+
+        Payload payload = codecs.treeToValue(tree, Payload.class);
+        assertEquals("name", payload.getName());
+        assertEquals(new Date(1000), payload.getCreated());
+    }
+
+    @Test(expected = JsonProcessingException.class)
+    public void unknownPropertiesStillFailFromTree() throws Exception {
+        JsonNode tree = codecs.readTree("{\"errorMessage\":\"error\"}".getBytes(StandardCharsets.UTF_8));
+        codecs.treeToValue(tree, Payload.class);
+    }
+
+    @Test
+    public void skippedPropertiesAreLeftOutOfTree() throws Exception {
+        JsonNode tree = codecs.readTree(("{\"status\":200,\"body\":[{\"name\":\"name\",\"rdf\":\"<rdf/>\"}," +
+                "{\"name\":\"other\",\"rdf\":{\"nested\":[1]}}]}").getBytes(StandardCharsets.UTF_8),
+                Collections.singleton("rdf"));
+
+        assertEquals(200, tree.get("status").asInt());
+        assertEquals(2, tree.get("body").size());
+        assertEquals("other", tree.get("body").get(1).get("name").asText());
+        assertFalse(tree.get("body").get(0).has("rdf"));
+        assertFalse(tree.get("body").get(1).has("rdf"));
+    }
+
+    @Test(expected = IOException.class)
+    public void emptyContentHasNoTree() throws Exception {
+        codecs.readTree(new byte[0]);
+    }
+}
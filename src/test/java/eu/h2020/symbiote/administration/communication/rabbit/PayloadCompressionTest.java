@@ -0,0 +1,59 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PayloadCompressionTest {
+
+    private final byte[] message = rdf(100000);
+
+    @Test
+    public void largeMessagesAreCompressed() throws IOException {
+        for (String encoding : Arrays.asList(PayloadCompression.GZIP, PayloadCompression.LZ4)) {
+            PayloadCompression compression = new PayloadCompression(encoding, 1024);
+            assertEquals(encoding, compression.encodingOf(message));
+
+            byte[] compressed = PayloadCompression.compress(message, encoding);
+            assertTrue(compressed.length < message.length);
+            assertArrayEquals(message, PayloadCompression.decompress(compressed, encoding));
+        }
+    }
+
+    @Test
+    public void smallMessagesAreNotCompressed() throws IOException {
+        PayloadCompression compression = new PayloadCompression("gzip", 1024);
+        byte[] small = rdf(100);
+
+        assertNull(compression.encodingOf(small));
+        assertSame(small, PayloadCompression.compress(small, null));
+        assertNull(new PayloadCompression("", 0).encodingOf(message));
+    }
+
+    @Test
+    public void uncompressedRepliesAreUnchanged() throws IOException {
+        assertSame(message, PayloadCompression.decompress(message, null));
+        assertSame(message, PayloadCompression.decompress(message, "identity"));
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownEncodingIsRejected() throws IOException {
+        PayloadCompression.decompress(message, "br");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownConfiguredEncodingIsRejected() {
+        new PayloadCompression("br", 0);
+    }
+
+    private static byte[] rdf(int length) {
+        StringBuilder rdf = new StringBuilder();
+        while (rdf.length() < length)
+            rdf.append("<http://www.symbiote-h2020.eu/ontology/core#Sensor> a owl:Class . ");
+        return rdf.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,149 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class RabbitChannelPoolTest {
+
+    private ConnectionFactory factory;
+    private List<Connection> connections;
+    // The channels in the order they are created, with the connection of each
+    private List<Channel> channels;
+    private List<Connection> channelConnections;
+
+    @Before
+    public void setup() throws Exception {
+        factory = mock(ConnectionFactory.class);
+        connections = new ArrayList<>();
+        channels = new ArrayList<>();
+        channelConnections = new ArrayList<>();
+
+        when(factory.newConnection()).thenAnswer(invocation -> {
+            Connection connection = mock(Connection.class);
+            when(connection.isOpen()).thenReturn(true);
+            when(connection.createChannel()).thenAnswer(createChannel -> {
+                Channel channel = mock(Channel.class);
+                when(channel.isOpen()).thenReturn(true);
+                channels.add(channel);
+                channelConnections.add(connection);
+                return channel;
+            });
+            connections.add(connection);
+            return connection;
+        });
+    }
+
+    @Test
+    public void channelsAreSpreadOverTheConnections() throws Exception {
+        RabbitChannelPool pool = new RabbitChannelPool(factory, 2, 4);
+
+        assertEquals(2, pool.getConnections().size());
+        assertEquals(4, pool.size());
+        assertSame(connections.get(0), pool.getConnection());
+        for (int i = 0; i < channels.size(); i++)
+            assertSame(connections.get(i % 2), channelConnections.get(i));
+    }
+
+    @Test
+    public void atLeastOneChannelPerConnection() throws Exception {
+        RabbitChannelPool pool = new RabbitChannelPool(factory, 3, 1);
+
+        assertEquals(3, pool.getConnections().size());
+        assertEquals(3, pool.size());
+    }
+
+    @Test
+    public void threadIsStripedByItsId() throws Exception {
+        RabbitChannelPool pool = new RabbitChannelPool(factory, 2, 4);
+
+        for (int i = 0; i < 8; i++) {
+            CompletableFuture<Long> threadId = new CompletableFuture<>();
+            CompletableFuture<Channel> used = new CompletableFuture<>();
+            new Thread(() -> {
+                threadId.complete(Thread.currentThread().getId());
+                try {
+                    used.complete(pool.execute(channel -> channel));
+                } catch (IOException e) {
+                    used.completeExceptionally(e);
+                }
+            }).start();
+
+            int stripe = (int) (threadId.get(5, TimeUnit.SECONDS) % 4);
+            assertSame(channels.get(stripe), used.get(5, TimeUnit.SECONDS));
+        }
+
+        // The same thread always gets the same channel
+        assertSame(pool.execute(channel -> channel), pool.execute(channel -> channel));
+    }
+
+    @Test
+    public void executionsOnAChannelAreSerialized() throws Exception {
+        RabbitChannelPool pool = new RabbitChannelPool(factory, 1, 1);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(4);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int j = 0; j < 100; j++) {
+                    try {
+                        pool.execute(channel -> {
+                            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                            Thread.yield();
+                            concurrent.decrementAndGet();
+                            return null;
+                        });
+                    } catch (IOException e) {
+                        fail(e.getMessage());
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join(5000);
+
+        assertEquals(0, started.getCount());
+        assertEquals(1, maxConcurrent.get());
+    }
+
+    @Test
+    public void closedChannelIsReplaced() throws Exception {
+        RabbitChannelPool pool = new RabbitChannelPool(factory, 1, 1);
+        Channel closed = channels.get(0);
+        when(closed.isOpen()).thenReturn(false);
+
+        Channel used = pool.execute(channel -> channel);
+
+        assertNotSame(closed, used);
+        assertSame(channels.get(1), used);
+        assertSame(used, pool.execute(channel -> channel));
+        verify(connections.get(0), times(2)).createChannel();
+    }
+
+    @Test(expected = IOException.class)
+    public void channelIsNotReplacedWhileTheConnectionIsDown() throws Exception {
+        RabbitChannelPool pool = new RabbitChannelPool(factory, 1, 1);
+        when(channels.get(0).isOpen()).thenReturn(false);
+        when(connections.get(0).isOpen()).thenReturn(false);
+
+        pool.execute(channel -> channel);
+    }
+}
@@ -0,0 +1,59 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class RawRegistryResponseTest {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    @Test
+    public void bodyIsSlicedOut() throws Exception {
+        RawRegistryResponse response = read("{\"status\":200,\"message\":\"OK\"," +
+                "\"body\":[{\"id\":\"1\",\"name\":\"ü\",\"rdf\":null}],\"extra\":{\"a\":[1]}}");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("OK", response.getMessage());
+        assertEquals("[{\"id\":\"1\",\"name\":\"ü\",\"rdf\":null}]",
+                new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void failedResponseHasNoBody() throws Exception {
+        RawRegistryResponse response = read("{\"body\":null,\"message\":\"Not found\",\"status\":404}");
+
+        assertEquals(404, response.getStatus());
+        assertEquals("Not found", response.getMessage());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    public void errorResponseIsReported() throws Exception {
+        try {
+            read("{\"errorMessage\":\"SAMPLE_ERROR\",\"errorCode\":400}");
+            fail("The error should be reported");
+        } catch (CommunicationException e) {
+            assertEquals("SAMPLE_ERROR", e.getMessage());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void responseWithoutStatusFails() throws Exception {
+        read("{\"message\":\"OK\",\"body\":[]}");
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedResponseFails() throws Exception {
+        read("{\"status\":200,\"body\":[{\"id\":\"1\"}");
+    }
+
+    private RawRegistryResponse read(String content) throws Exception {
+        return RawRegistryResponse.read(factory, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,60 @@
+package eu.h2020.symbiote.administration.communication.rabbit;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class RpcMetricsTest {
+
+    private MetricRegistry metricRegistry;
+    private RpcMetrics rpcMetrics;
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        rpcMetrics = new RpcMetrics(metricRegistry);
+    }
+
+    @Test
+    public void requestsAreInFlightUntilCompleted() {
+        rpcMetrics.onRequest("details", 10);
+        rpcMetrics.onRequest("login", 20);
+        assertEquals(2, rpcMetrics.getInFlight());
+        assertEquals(2, metricRegistry.getGauges().get("rabbit.rpc.inFlight").getValue());
+        assertEquals(1, metricRegistry.counter("rabbit.rpc.details.inFlight").getCount());
+
+        rpcMetrics.onResponse("details", TimeUnit.MILLISECONDS.toNanos(40), 100);
+        rpcMetrics.onCompleted("details");
+        rpcMetrics.onTimeout("login");
+        rpcMetrics.onCompleted("login");
+        assertEquals(0, rpcMetrics.getInFlight());
+        assertEquals(0, metricRegistry.counter("rabbit.rpc.details.inFlight").getCount());
+
+        assertEquals(1, metricRegistry.timer("rabbit.rpc.details.latency").getCount());
+        assertEquals(0, metricRegistry.timer("rabbit.rpc.login.latency").getCount());
+        assertEquals(1, metricRegistry.counter("rabbit.rpc.login.timeouts").getCount());
+        assertEquals(100, metricRegistry.histogram("rabbit.rpc.details.responseBytes").getSnapshot().getMax());
+        assertEquals(20, metricRegistry.histogram("rabbit.rpc.login.requestBytes").getSnapshot().getMax());
+    }
+
+    @Test
+    public void outcomesAreCountedByRoutingKey() {
+        rpcMetrics.onErrorResponse("details");
+        rpcMetrics.onErrorResponse("details");
+        rpcMetrics.onInvalidResponse("details");
+        rpcMetrics.onFailure("login");
+        rpcMetrics.onLateReply("login");
+        rpcMetrics.onOrphanedReply();
+
+        assertEquals(2, metricRegistry.counter("rabbit.rpc.details.errors").getCount());
+        assertEquals(1, metricRegistry.counter("rabbit.rpc.details.invalid").getCount());
+        assertEquals(1, metricRegistry.counter("rabbit.rpc.login.failures").getCount());
+        assertEquals(0, metricRegistry.counter("rabbit.rpc.login.errors").getCount());
+        assertEquals(1, metricRegistry.counter("rabbit.rpc.login.lateReplies").getCount());
+        assertEquals(1, metricRegistry.counter("rabbit.rpc.orphanedReplies").getCount());
+    }
+}
@@ -0,0 +1,255 @@
+package eu.h2020.symbiote.administration.services.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ReadCacheTest {
+
+    private MetricRegistry metricRegistry;
+    private long now;
+    private AtomicInteger loads;
+    private ReadCache<String, String> cache;
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        now = 1000;
+        loads = new AtomicInteger();
+        cache = new ReadCache<>("catalog", new CacheSettings(100, 20, 50, 20, 10), String::length,
+                value -> !value.startsWith("error") && !value.startsWith("none"), value -> value.startsWith("none"),
+                metricRegistry, Runnable::run, () -> now);
+    }
+
+    @Test
+    public void entryIsCachedUntilExpired() throws CommunicationException {
+        assertEquals("catalog1", cache.get("key", this::load).getValue());
+        now += 50;
+        assertEquals("catalog1", cache.get("key", this::load).getValue());
+        assertEquals(50L, metricRegistry.getGauges().get("cache.catalog.ageMillis").getValue());
+        assertEquals(8L, metricRegistry.getGauges().get("cache.catalog.weightBytes").getValue());
+
+        now += 50;
+        assertEquals("catalog2", cache.get("key", this::load).getValue());
+        assertEquals(1, metricRegistry.counter("cache.catalog.hits").getCount());
+        assertEquals(2, metricRegistry.counter("cache.catalog.misses").getCount());
+        assertEquals(1, metricRegistry.counter("cache.catalog.expirations").getCount());
+    }
+
+    @Test
+    public void entryIsRefreshedBeforeExpired() throws CommunicationException {
+        cache.get("key", this::load);
+        now += 90;
+        assertEquals("catalog1", cache.get("key", this::load).getValue());
+        assertEquals(1, metricRegistry.counter("cache.catalog.refreshes").getCount());
+
+        now += 50;
+        ReadCache.Lookup<String> lookup = cache.get("key", this::load);
+        assertEquals("catalog2", lookup.getValue());
+        assertEquals(50, lookup.getAgeMillis());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void refreshIsSkippedWhenTheRefreshesAreBusy() throws CommunicationException {
+        cache = new ReadCache<>("busy", new CacheSettings(100, 20, 50, 20, 10), String::length, value -> true,
+                value -> false, metricRegistry, refresh -> {
+                    throw new RejectedExecutionException();
+                }, () -> now);
+        cache.get("key", this::load);
+        now += 90;
+        assertEquals("catalog1", cache.get("key", this::load).getValue());
+        assertEquals(0, metricRegistry.counter("cache.busy.refreshes").getCount());
+
+        // The next request tries again
+        cache.get("key", this::load);
+        now += 20;
+        assertEquals("catalog2", cache.get("key", this::load).getValue());
+    }
+
+    @Test
+    public void expiredEntryIsServedStaleWhenUnreachable() throws CommunicationException {
+        cache.get("key", this::load);
+        now += 120;
+        ReadCache.Lookup<String> lookup = cache.get("key", () -> null);
+        assertEquals("catalog1", lookup.getValue());
+        assertTrue(lookup.isStale());
+        assertTrue(ReadCache.headers(lookup).containsKey(HttpHeaders.WARNING));
+
+        lookup = cache.get("key", () -> {
+            throw new CommunicationException("unreachable");
+        });
+        assertTrue(lookup.isStale());
+        assertEquals(2, metricRegistry.counter("cache.catalog.staleHits").getCount());
+
+        now += 30;
+        assertNull(cache.get("key", () -> null).getValue());
+        try {
+            cache.get("key", () -> {
+                throw new CommunicationException("unreachable");
+            });
+            fail("Expected a CommunicationException");
+        } catch (CommunicationException e) {
+            assertEquals("unreachable", e.getMessage());
+        }
+    }
+
+    @Test
+    public void invalidatedEntryIsLoadedAgain() throws CommunicationException {
+        cache.get("key", this::load);
+        cache.invalidate("key");
+        assertEquals(0L, metricRegistry.getGauges().get("cache.catalog.weightBytes").getValue());
+        assertEquals("catalog2", cache.get("key", this::load).getValue());
+        assertEquals(1, metricRegistry.counter("cache.catalog.invalidations").getCount());
+
+        cache.invalidateAll();
+        assertNull(cache.get("key", () -> null).getValue());
+    }
+
+    @Test
+    public void entryLoadedDuringInvalidationIsNotCached() throws CommunicationException {
+        cache.get("key", () -> {
+            cache.invalidate("key");
+            return load();
+        });
+        assertEquals("catalog2", cache.get("key", this::load).getValue());
+    }
+
+    @Test
+    public void entryLoadedDuringInvalidationOfAnotherIsCached() throws CommunicationException {
+        cache.get("key1", () -> {
+            cache.invalidate("key2");
+            return load();
+        });
+        assertEquals("catalog1", cache.get("key1", this::load).getValue());
+
+        cache.get("key2", () -> {
+            cache.invalidateAll();
+            return load();
+        });
+        assertEquals("catalog3", cache.get("key2", this::load).getValue());
+    }
+
+    @Test
+    public void largeAndFailedEntriesAreNotCached() throws CommunicationException {
+        cache.get("key", () -> "a too large catalog!!");
+        cache.get("key", () -> "error");
+        assertEquals("catalog1", cache.get("key", this::load).getValue());
+        assertEquals(1, metricRegistry.counter("cache.catalog.rejected").getCount());
+        assertEquals(3, metricRegistry.counter("cache.catalog.misses").getCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvictedOverMemoryBound() throws CommunicationException {
+        cache.get("key1", this::load);
+        cache.get("key2", this::load);
+        cache.get("key1", this::load);
+        cache.get("key3", this::load);
+        assertEquals(16L, metricRegistry.getGauges().get("cache.catalog.weightBytes").getValue());
+        assertEquals(1, metricRegistry.counter("cache.catalog.evictions").getCount());
+        assertEquals("catalog1", cache.get("key1", this::load).getValue());
+        assertEquals("catalog4", cache.get("key2", this::load).getValue());
+    }
+
+    @Test
+    public void negativeEntryIsCachedShortly() throws CommunicationException {
+        assertEquals("none", cache.get("key", () -> "none").getValue());
+        now += 5;
+        assertEquals("none", cache.get("key", this::load).getValue());
+        assertEquals(1, metricRegistry.counter("cache.catalog.negativeHits").getCount());
+
+        now += 5;
+        assertNull(cache.get("key", () -> null).getValue());
+        assertEquals("catalog1", cache.get("key", this::load).getValue());
+    }
+
+    @Test
+    public void expiredEntryIsServedStaleOnFailedResponse() throws CommunicationException {
+        cache.get("key", this::load);
+        now += 120;
+        ReadCache.Lookup<String> lookup = cache.get("key", () -> "error");
+        assertEquals("catalog1", lookup.getValue());
+        assertTrue(lookup.isStale());
+
+        now += 30;
+        assertEquals("error", cache.get("key", () -> "error").getValue());
+    }
+
+    @Test
+    public void negativeEntryDoesNotReplaceEntry() throws CommunicationException {
+        cache.get("key", this::load);
+
+        // Neither by a refresh
+        now += 90;
+        cache.get("key", () -> "none");
+        now += 5;
+        assertEquals("catalog1", cache.get("key", () -> "none").getValue());
+
+        // Nor by a load, while the entry can still be served stale
+        now += 10;
+        assertEquals("none", cache.get("key", () -> "none").getValue());
+        assertTrue(cache.get("key", () -> null).isStale());
+
+        now += 50;
+        assertEquals("none", cache.get("key", () -> "none").getValue());
+        assertEquals("none", cache.get("key", this::load).getValue());
+        assertEquals(1, metricRegistry.counter("cache.catalog.negativeHits").getCount());
+    }
+
+    @Test
+    public void missingEntriesAreLoadedAtOnce() throws CommunicationException {
+        cache.get("key1", this::load);
+
+        Map<String, ReadCache.Lookup<String>> lookups = cache.getAll(Arrays.asList("key1", "key2", "key3"),
+                this::loadAll).join();
+        assertEquals("catalog1", lookups.get("key1").getValue());
+        assertEquals("key2", lookups.get("key2").getValue());
+        assertFalse(lookups.containsKey("key3"));
+
+        assertEquals("key2", cache.get("key2", this::load).getValue());
+    }
+
+    @Test
+    public void failedBatchFailsUnlessServedStale() throws CommunicationException {
+        CompletableFuture<Map<String, String>> rejected = new CompletableFuture<>();
+        rejected.completeExceptionally(new IllegalStateException("overloaded"));
+
+        cache.get("key1", this::load);
+        now += 120;
+        Map<String, ReadCache.Lookup<String>> lookups = cache.getAll(Arrays.asList("key1"), keys -> rejected).join();
+        assertTrue(lookups.get("key1").isStale());
+
+        try {
+            cache.getAll(Arrays.asList("key1", "key2"), keys -> rejected).join();
+            fail("Expected the failure of the loader");
+        } catch (CompletionException e) {
+            assertEquals("overloaded", e.getCause().getMessage());
+        }
+    }
+
+    private String load() {
+        return "catalog" + loads.incrementAndGet();
+    }
+
+    private CompletableFuture<Map<String, String>> loadAll(Collection<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : keys) {
+            if (!key.equals("key3"))
+                values.put(key, key);
+        }
+        return CompletableFuture.completedFuture(values);
+    }
+}
@@ -0,0 +1,103 @@
+package eu.h2020.symbiote.administration.services.infomodel;
+
+import eu.h2020.symbiote.model.mim.InformationModel;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class InformationModelCatalogTest {
+
+    private InformationModelCatalog catalog;
+    private long now;
+
+    @Before
+    public void setup() {
+        now = 0;
+        catalog = new InformationModelCatalog(1000, () -> now);
+    }
+
+    @Test
+    public void catalogIsIndexedByIdAndOwner() {
+        assertFalse(catalog.isLoaded());
+        assertNull(catalog.getById("model1"));
+
+        assertTrue(catalog.replace(Arrays.asList(
+                informationModel("model1", "user1"),
+                informationModel("model2", "user1"),
+                informationModel("model3", "user2")), catalog.getVersion()));
+
+        assertTrue(catalog.isLoaded());
+        assertEquals("user2", catalog.getById("model3").getOwner());
+        assertEquals(2, catalog.getByOwner("user1").size());
+        assertTrue(catalog.getByOwner("user3").isEmpty());
+    }
+
+    @Test
+    public void changesUpdateTheIndexes() {
+        catalog.replace(Collections.singletonList(informationModel("model1", "user1")), catalog.getVersion());
+
+        catalog.put(informationModel("model2", "user1"));
+        assertEquals(2, catalog.getByOwner("user1").size());
+        assertNotNull(catalog.getById("model2"));
+
+        catalog.remove("model1");
+        catalog.remove("model2");
+        assertNull(catalog.getById("model1"));
+        assertTrue(catalog.getByOwner("user1").isEmpty());
+    }
+
+    @Test
+    public void changesDoNotAlterThePublishedIndexes() {
+        catalog.replace(Collections.singletonList(informationModel("model1", "user1")), catalog.getVersion());
+        List<InformationModel> before = catalog.getByOwner("user1");
+
+        InformationModel renamed = informationModel("model1", "user1");
+        renamed.setName("renamed");
+        catalog.put(renamed);
+        catalog.put(informationModel("model2", "user1"));
+
+        assertEquals(1, before.size());
+        assertNull(before.get(0).getName());
+        assertEquals("renamed", catalog.getById("model1").getName());
+        assertEquals(2, catalog.getByOwner("user1").size());
+    }
+
+    @Test
+    public void refreshLoadedBeforeChangeIsDiscarded() {
+        catalog.replace(Collections.singletonList(informationModel("model1", "user1")), catalog.getVersion());
+
+        long version = catalog.getVersion();
+        catalog.put(informationModel("model2", "user1"));
+        assertFalse(catalog.replace(Collections.singletonList(informationModel("model1", "user1")), version));
+        assertNotNull(catalog.getById("model2"));
+    }
+
+    @Test
+    public void staleCatalogIsNotUsed() {
+        catalog.replace(Collections.singletonList(informationModel("model1", "user1")), catalog.getVersion());
+
+        now = 1000;
+        assertTrue(catalog.isLoaded());
+        now = 1001;
+        assertFalse(catalog.isLoaded());
+
+        // A change does not make it fresh again, only a refresh does
+        catalog.put(informationModel("model2", "user1"));
+        assertFalse(catalog.isLoaded());
+        assertTrue(catalog.replace(Collections.singletonList(informationModel("model1", "user1")),
+                catalog.getVersion()));
+        assertTrue(catalog.isLoaded());
+    }
+
+    private InformationModel informationModel(String id, String owner) {
+        InformationModel informationModel = new InformationModel();
+        informationModel.setId(id);
+        informationModel.setOwner(owner);
+        return informationModel;
+    }
+}
@@ -0,0 +1,58 @@
+package eu.h2020.symbiote.administration.services.ownedservices;
+
+import eu.h2020.symbiote.administration.communication.rabbit.RabbitManager;
+import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+import eu.h2020.symbiote.security.commons.Certificate;
+import eu.h2020.symbiote.security.communication.payloads.OwnedService;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class OwnedServicesCacheTest {
+
+    private RabbitManager rabbitManager;
+    private OwnedServicesCache ownedServicesCache;
+
+    @Before
+    public void setup() throws CommunicationException {
+        rabbitManager = mock(RabbitManager.class);
+        doReturn(Collections.singleton(new OwnedService("platform1", "Platform 1", OwnedService.ServiceType.PLATFORM,
+                "https://platform1.eu", null, false, null, new Certificate(), new HashMap<>())))
+                .when(rabbitManager).sendOwnedServiceDetailsRequest(any());
+
+        ownedServicesCache = new OwnedServicesCache(rabbitManager, "AAMOwner", "AAMPassword");
+        ReflectionTestUtils.setField(ownedServicesCache, "ttlMillis", 60000L);
+        ReflectionTestUtils.setField(ownedServicesCache, "maxBytes", 1048576L);
+        ownedServicesCache.init();
+    }
+
+    @Test
+    public void ownedServicesAreIndexedAndCachedUntilInvalidated() throws CommunicationException {
+        Map<String, OwnedService> ownedServices = ownedServicesCache.getOwnedServices("user");
+        assertEquals("Platform 1", ownedServices.get("platform1").getInstanceFriendlyName());
+        assertNull(ownedServices.get("platform2"));
+
+        ownedServicesCache.getOwnedServices("user");
+        verify(rabbitManager, times(1)).sendOwnedServiceDetailsRequest(any());
+
+        ownedServicesCache.invalidate("user");
+        ownedServicesCache.getOwnedServices("user");
+        verify(rabbitManager, times(2)).sendOwnedServiceDetailsRequest(any());
+    }
+
+    @Test
+    public void unreachableAAMIsNotCached() throws CommunicationException {
+        doReturn(null).when(rabbitManager).sendOwnedServiceDetailsRequest(any());
+        assertNull(ownedServicesCache.getOwnedServices("user"));
+        assertNull(ownedServicesCache.getOwnedServices("user"));
+        verify(rabbitManager, times(2)).sendOwnedServiceDetailsRequest(any());
+    }
+}
@@ -64,7 +64,7 @@ public class CreateFederationTests extends UserControlPanelBaseTestClass {
         doReturn(samplePlatformRegistryResponseSuccess(newMemberId)).when(rabbitManager)
                 .sendGetPlatformDetailsMessage(eq(newMemberId));
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(new HttpHeaders())
                 .when(authorizationService).getHttpHeadersWithSecurityRequest();
         doReturn(true)
@@ -290,7 +290,7 @@ public class CreateFederationTests extends UserControlPanelBaseTestClass {
         doReturn(samplePlatformRegistryResponseSuccess(platform3Id)).when(rabbitManager)
                 .sendGetPlatformDetailsMessage(eq(platform3Id));
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
 
         Federation federationRequest = sampleFederationRequest();
         federationRequest.getInformationModel().setId(dummyInfoModelId);
@@ -319,7 +319,7 @@ public class CreateFederationTests extends UserControlPanelBaseTestClass {
         doReturn(samplePlatformRegistryResponseSuccess(platform3Id)).when(rabbitManager)
                 .sendGetPlatformDetailsMessage(eq(platform3Id));
         doReturn(null).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
 
 
         mockMvc.perform(post("/administration/user/cpanel/create_federation")
@@ -346,7 +346,7 @@ public class CreateFederationTests extends UserControlPanelBaseTestClass {
         doReturn(samplePlatformRegistryResponseSuccess(platform3Id)).when(rabbitManager)
                 .sendGetPlatformDetailsMessage(eq(platform3Id));
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(new HttpHeaders())
                 .when(authorizationService).getHttpHeadersWithSecurityRequest();
         doReturn(true)
@@ -21,7 +21,7 @@ public class DeleteInformationModelTests extends UserControlPanelBaseTestClass {
     @Test
     public void couldNotRetrieveInfoModels() throws Exception {
         // Could not get Information models from Registry
-        doReturn(null).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(null).when(rabbitManager).sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/delete_information_model")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -34,7 +34,7 @@ public class DeleteInformationModelTests extends UserControlPanelBaseTestClass {
     @Test
     public void doesOwnNotModel() throws Exception {
         // The user does not own the information model which tried to delete
-        doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager).sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/delete_information_model")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -47,7 +47,7 @@ public class DeleteInformationModelTests extends UserControlPanelBaseTestClass {
     @Test
     public void success() throws Exception {
         // Delete information model successfully
-        doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager).sendListInfoModelSummariesRequest();
         doReturn(sampleInformationModelResponseSuccess()).when(rabbitManager).sendDeleteInfoModelRequest(any());
 
         mockMvc.perform(post("/administration/user/cpanel/delete_information_model")
@@ -55,12 +55,15 @@ public class DeleteInformationModelTests extends UserControlPanelBaseTestClass {
                 .with(csrf().asHeader())
                 .param("infoModelIdToDelete", informationModelId))
                 .andExpect(status().isOk());
+
+        // The rdf of the information model is not loaded to delete it
+        verify(rabbitManager, never()).sendListInfoModelsRequest();
     }
 
     @Test
     public void registryError() throws Exception {
         // Registry returns error
-        doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager).sendListInfoModelSummariesRequest();
         doReturn(sampleInformationModelResponseFail()).when(rabbitManager).sendDeleteInfoModelRequest(any());
 
         mockMvc.perform(post("/administration/user/cpanel/delete_information_model")
@@ -74,7 +77,7 @@ public class DeleteInformationModelTests extends UserControlPanelBaseTestClass {
     @Test
     public void registryTimeout() throws Exception {
         // Registry returns null
-        doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager).sendListInfoModelSummariesRequest();
         doReturn(null).when(rabbitManager).sendDeleteInfoModelRequest(any());
 
         mockMvc.perform(post("/administration/user/cpanel/delete_information_model")
@@ -88,7 +91,7 @@ public class DeleteInformationModelTests extends UserControlPanelBaseTestClass {
     @Test
     public void registryCommunicationException() throws Exception {
         // Registry throws CommunicationException
-        doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager).sendListInfoModelSummariesRequest();
         doThrow(new CommunicationException("error")).when(rabbitManager).sendDeleteInfoModelRequest(any());
 
         mockMvc.perform(post("/administration/user/cpanel/delete_information_model")
@@ -1,11 +1,15 @@
 package eu.h2020.symbiote.administration.usercontrolpanel.informationmodels;
 
+import eu.h2020.symbiote.administration.communication.rabbit.RawRegistryResponse;
 import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
 import eu.h2020.symbiote.administration.usercontrolpanel.UserControlPanelBaseTestClass;
 import eu.h2020.symbiote.core.internal.InformationModelListResponse;
 import eu.h2020.symbiote.model.mim.InformationModel;
 import eu.h2020.symbiote.security.commons.enums.UserRole;
 import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
 
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -32,6 +36,51 @@ public class ListInformationModelTests extends UserControlPanelBaseTestClass {
                 .andExpect(jsonPath("$.[0].id").value(sampleInformationModel().getId()));
     }
 
+    @Test
+    public void listAllInformationModelsPassthrough() throws Exception {
+        ReflectionTestUtils.setField(informationModelService, "registryPassthrough", true);
+        try {
+            byte[] body = serialize(sampleInformationModelListResponseSuccess().getBody())
+                    .getBytes(StandardCharsets.UTF_8);
+            doReturn(new RawRegistryResponse(200, "OK", body)).when(rabbitManager).sendListInfoModelsRawRequest();
+
+            mockMvc.perform(post("/administration/user/cpanel/list_all_info_models")
+                    .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
+                    .with(csrf().asHeader()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().bytes(body))
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$.[0].id").value(sampleInformationModel().getId()));
+
+            // Failed response
+            doReturn(new RawRegistryResponse(400, "Bad request", null))
+                    .when(rabbitManager).sendListInfoModelsRawRequest();
+
+            mockMvc.perform(post("/administration/user/cpanel/list_all_info_models")
+                    .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
+                    .with(csrf().asHeader()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Bad request"));
+        } finally {
+            ReflectionTestUtils.setField(informationModelService, "registryPassthrough", false);
+        }
+    }
+
+    @Test
+    public void listInformationModelSummaries() throws Exception {
+        InformationModelListResponse informationModelListResponse = sampleInformationModelListResponseSuccess();
+        informationModelListResponse.getBody().get(0).setRdf(null);
+        doReturn(informationModelListResponse).when(rabbitManager).sendListInfoModelSummariesRequest();
+
+        mockMvc.perform(post("/administration/user/cpanel/list_info_model_summaries")
+                .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
+                .with(csrf().asHeader()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].id").value(sampleInformationModel().getId()))
+                .andExpect(jsonPath("$.[0].rdf").isEmpty());
+    }
+
     @Test
     public void listUserInformationModels() throws Exception {
         // Successfully listing user's information model
@@ -41,7 +90,7 @@ public class ListInformationModelTests extends UserControlPanelBaseTestClass {
         InformationModelListResponse informationModelListResponse = sampleInformationModelListResponseSuccess();
         informationModelListResponse.getBody().add(infoModel);
 
-        doReturn(informationModelListResponse).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(informationModelListResponse).when(rabbitManager).sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/list_user_info_models")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -54,7 +103,7 @@ public class ListInformationModelTests extends UserControlPanelBaseTestClass {
     @Test
     public void getInformationModelsFailure() throws Exception {
         // Failed response
-        doReturn(sampleInformationModelListResponseFail()).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(sampleInformationModelListResponseFail()).when(rabbitManager).sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/list_user_info_models")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -66,7 +115,7 @@ public class ListInformationModelTests extends UserControlPanelBaseTestClass {
     @Test
     public void getInformationModelsTimeout() throws Exception {
         // Registry returns null
-        doReturn(null).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(null).when(rabbitManager).sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/list_user_info_models")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -78,7 +127,7 @@ public class ListInformationModelTests extends UserControlPanelBaseTestClass {
     @Test
     public void getInformationModelsCommunicationException() throws Exception {
         // Registry throws CommunicationException
-        doThrow(new CommunicationException("error")).when(rabbitManager).sendListInfoModelsRequest();
+        doThrow(new CommunicationException("error")).when(rabbitManager).sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/list_user_info_models")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -1,10 +1,14 @@
 package eu.h2020.symbiote.administration.usercontrolpanel.mappings;
 
+import eu.h2020.symbiote.administration.communication.rabbit.RawRegistryResponse;
 import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
 import eu.h2020.symbiote.administration.usercontrolpanel.UserControlPanelBaseTestClass;
 import eu.h2020.symbiote.core.internal.MappingListResponse;
 import eu.h2020.symbiote.security.commons.enums.UserRole;
 import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
@@ -12,6 +16,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,6 +38,33 @@ public class ListMappingsTests extends UserControlPanelBaseTestClass {
                 .andExpect(jsonPath("$.[0].id").value(sampleOntologyMapping().getId()));
     }
 
+    @Test
+    public void listAllMappingsPassthrough() throws Exception {
+        ReflectionTestUtils.setField(informationModelService, "registryPassthrough", true);
+        try {
+            byte[] body = serialize(sampleMappingListResponseSuccess().getBody()).getBytes(StandardCharsets.UTF_8);
+            doReturn(new RawRegistryResponse(200, "OK", body)).when(rabbitManager).sendGetAllMappingsRawRequest(any());
+
+            mockMvc.perform(post("/administration/user/cpanel/list_all_mappings")
+                    .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
+                    .with(csrf().asHeader()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().bytes(body))
+                    .andExpect(jsonPath("$.[0].id").value(sampleOntologyMapping().getId()));
+
+            // Registry returns null
+            doReturn(null).when(rabbitManager).sendGetAllMappingsRawRequest(any());
+
+            mockMvc.perform(post("/administration/user/cpanel/list_all_mappings")
+                    .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
+                    .with(csrf().asHeader()))
+                    .andExpect(status().isInternalServerError())
+                    .andExpect(jsonPath("$.errorMessage").value("An error occurred: Registry unreachable!"));
+        } finally {
+            ReflectionTestUtils.setField(informationModelService, "registryPassthrough", false);
+        }
+    }
+
     @Test
     public void getMappingsFailure() throws Exception {
         // Failed response
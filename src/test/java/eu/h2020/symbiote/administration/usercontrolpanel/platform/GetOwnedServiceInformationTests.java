@@ -1,10 +1,15 @@
 package eu.h2020.symbiote.administration.usercontrolpanel.platform;
 
 import eu.h2020.symbiote.administration.exceptions.rabbit.CommunicationException;
+import eu.h2020.symbiote.administration.exceptions.rabbit.ServiceOverloadedException;
 import eu.h2020.symbiote.administration.usercontrolpanel.UserControlPanelBaseTestClass;
+import eu.h2020.symbiote.core.cci.PlatformRegistryResponse;
 import eu.h2020.symbiote.security.commons.enums.UserRole;
 import org.junit.Test;
 import org.mockito.AdditionalMatchers;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
@@ -13,6 +18,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -31,15 +37,15 @@ public class GetOwnedServiceInformationTests extends UserControlPanelBaseTestCla
 
         doAnswer(invocation -> {
             String platformId = (String) invocation.getArguments()[0];
-            return samplePlatformRegistryResponseSuccess(platformId);
+            return rpcResponse(samplePlatformRegistryResponseSuccess(platformId));
         }).when(rabbitManager)
-                .sendGetPlatformDetailsMessage(any());
+                .sendGetPlatformDetailsMessageAsync(any());
 
         doAnswer(invocation -> {
             String sspId = (String) invocation.getArguments()[0];
-            return sampleSspRegistryResponseSuccess(sspId);
+            return rpcResponse(sampleSspRegistryResponseSuccess(sspId));
         }).when(rabbitManager)
-                .sendGetSSPDetailsMessage(any());
+                .sendGetSSPDetailsMessageAsync(any());
 
         mockMvc.perform(post("/administration/user/cpanel/list_user_services")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -60,14 +66,14 @@ public class GetOwnedServiceInformationTests extends UserControlPanelBaseTestCla
 
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
-        doReturn(samplePlatformRegistryResponseSuccess()).when(rabbitManager)
-                .sendGetPlatformDetailsMessage(eq(platform1Id));
-        doReturn(samplePlatformResponseFail()).when(rabbitManager)
-                .sendGetPlatformDetailsMessage(AdditionalMatchers.not(eq(platform1Id)));
-        doReturn(sampleSspRegistryResponseSuccess()).when(rabbitManager)
-                .sendGetSSPDetailsMessage(eq(ssp1Id));
-        doReturn(sampleSspRegistryResponseFail()).when(rabbitManager)
-                .sendGetSSPDetailsMessage(AdditionalMatchers.not(eq(ssp1Id)));
+        doReturn(rpcResponse(samplePlatformRegistryResponseSuccess())).when(rabbitManager)
+                .sendGetPlatformDetailsMessageAsync(eq(platform1Id));
+        doReturn(rpcResponse(samplePlatformResponseFail())).when(rabbitManager)
+                .sendGetPlatformDetailsMessageAsync(AdditionalMatchers.not(eq(platform1Id)));
+        doReturn(rpcResponse(sampleSspRegistryResponseSuccess())).when(rabbitManager)
+                .sendGetSSPDetailsMessageAsync(eq(ssp1Id));
+        doReturn(rpcResponse(sampleSspRegistryResponseFail())).when(rabbitManager)
+                .sendGetSSPDetailsMessageAsync(AdditionalMatchers.not(eq(ssp1Id)));
 
         mockMvc.perform(post("/administration/user/cpanel/list_user_services")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -86,6 +92,25 @@ public class GetOwnedServiceInformationTests extends UserControlPanelBaseTestCla
                 .andExpect(jsonPath("$.unavailableSSPs").value(ssp2Name));
     }
 
+    @Test
+    public void registryOverloaded() throws Exception {
+        // The bulkhead of the Registry rejects the detail lookups
+        doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
+                .sendOwnedServiceDetailsRequest(any());
+        CompletableFuture<PlatformRegistryResponse> rejected = new CompletableFuture<>();
+        rejected.completeExceptionally(new ServiceOverloadedException("registry", 5));
+        doReturn(rejected).when(rabbitManager)
+                .sendGetPlatformDetailsMessageAsync(any());
+        doReturn(rpcResponse(sampleSspRegistryResponseSuccess())).when(rabbitManager)
+                .sendGetSSPDetailsMessageAsync(any());
+
+        mockMvc.perform(post("/administration/user/cpanel/list_user_services")
+                .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
+                .with(csrf().asHeader()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
     @Test
     public void aamTimeout() throws Exception {
         // AAM responds with null
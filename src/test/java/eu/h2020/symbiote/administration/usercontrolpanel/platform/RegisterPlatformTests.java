@@ -26,7 +26,7 @@ public class RegisterPlatformTests extends UserControlPanelBaseTestClass {
     @Test
     public void informationModelsError() throws Exception {
         // Could not get Information models from Registry
-        doReturn(null).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(null).when(rabbitManager).sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/register_platform")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -40,7 +40,7 @@ public class RegisterPlatformTests extends UserControlPanelBaseTestClass {
     public void success() throws Exception {
         // Register platform successfully
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
         doReturn(samplePlatformRegistryResponseSuccess()).when(rabbitManager)
@@ -60,7 +60,7 @@ public class RegisterPlatformTests extends UserControlPanelBaseTestClass {
     public void registryError() throws Exception {
         // Registry responds with error
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
         doReturn(samplePlatformResponseFail()).when(rabbitManager)
@@ -79,7 +79,7 @@ public class RegisterPlatformTests extends UserControlPanelBaseTestClass {
     public void registryTimeout() throws Exception {
         // Registry responds with null
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
         doReturn(null).when(rabbitManager)
@@ -98,7 +98,7 @@ public class RegisterPlatformTests extends UserControlPanelBaseTestClass {
     public void registryCommunicationException() throws Exception {
         // Registry throws CommunicationException
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
         doThrow(new CommunicationException("error")).when(rabbitManager)
@@ -117,7 +117,7 @@ public class RegisterPlatformTests extends UserControlPanelBaseTestClass {
     public void platformExists() throws Exception {
         // AAM responds with PLATFORM_EXISTS
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.PLATFORM_EXISTS)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
 
@@ -134,7 +134,7 @@ public class RegisterPlatformTests extends UserControlPanelBaseTestClass {
     public void aamError() throws Exception {
         // AAM responds with other ERROR
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.ERROR)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
 
@@ -151,7 +151,7 @@ public class RegisterPlatformTests extends UserControlPanelBaseTestClass {
     public void aamTimeout() throws Exception {
         // AAM responds with null
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(null).when(rabbitManager)
                 .sendManagePlatformRequest(any());
 
@@ -168,7 +168,7 @@ public class RegisterPlatformTests extends UserControlPanelBaseTestClass {
     public void aamCommunicationException() throws Exception {
         // AAM throws CommunicationException
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doThrow(new CommunicationException("error")).when(rabbitManager)
                 .sendManagePlatformRequest(any());
 
@@ -194,7 +194,7 @@ public class RegisterPlatformTests extends UserControlPanelBaseTestClass {
         platformDetails.getDescription().add(new Description("aa"));
 
         doReturn(informationModelListResponse).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/register_platform")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
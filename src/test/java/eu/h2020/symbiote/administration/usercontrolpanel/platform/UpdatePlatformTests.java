@@ -43,7 +43,7 @@ public class UpdatePlatformTests extends UserControlPanelBaseTestClass {
         // Could not get Information models from Registry
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
-        doReturn(null).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(null).when(rabbitManager).sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/update_platform")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -59,7 +59,7 @@ public class UpdatePlatformTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
         doReturn(samplePlatformRegistryResponseSuccess()).when(rabbitManager)
@@ -80,7 +80,7 @@ public class UpdatePlatformTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
         doReturn(samplePlatformResponseFail()).when(rabbitManager)
@@ -101,7 +101,7 @@ public class UpdatePlatformTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
         doReturn(null).when(rabbitManager)
@@ -122,7 +122,7 @@ public class UpdatePlatformTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
         doThrow(new CommunicationException("error")).when(rabbitManager)
@@ -143,7 +143,7 @@ public class UpdatePlatformTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(samplePlatformManagementResponse(ManagementStatus.ERROR)).when(rabbitManager)
                 .sendManagePlatformRequest(any());
 
@@ -162,7 +162,7 @@ public class UpdatePlatformTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(null).when(rabbitManager)
                 .sendManagePlatformRequest(any());
 
@@ -181,7 +181,7 @@ public class UpdatePlatformTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doThrow(new CommunicationException("error")).when(rabbitManager)
                 .sendManagePlatformRequest(any());
 
@@ -210,7 +210,7 @@ public class UpdatePlatformTests extends UserControlPanelBaseTestClass {
         platformDetails.getDescription().add(new Description("aa"));
 
         doReturn(informationModelListResponse).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/update_platform")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
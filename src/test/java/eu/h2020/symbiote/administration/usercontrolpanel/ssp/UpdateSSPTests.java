@@ -29,7 +29,7 @@ public class UpdateSSPTests extends UserControlPanelBaseTestClass {
         // Could not get Information models from Registry
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
-        doReturn(null).when(rabbitManager).sendListInfoModelsRequest();
+        doReturn(null).when(rabbitManager).sendListInfoModelSummariesRequest();
 
         mockMvc.perform(post("/administration/user/cpanel/update_ssp")
                 .with(authentication(sampleUserAuth(UserRole.SERVICE_OWNER)))
@@ -43,7 +43,7 @@ public class UpdateSSPTests extends UserControlPanelBaseTestClass {
     public void doesNotOwnSSP() throws Exception {
         // The user does not own the ssp which tries to update
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         SSPDetails notOwningSSP = sampleSSPDetails("dummy");
@@ -60,7 +60,7 @@ public class UpdateSSPTests extends UserControlPanelBaseTestClass {
     public void success() throws Exception {
         // Register ssp successfully
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleSmartSpaceManagementResponse(ManagementStatus.OK)).when(rabbitManager)
@@ -83,7 +83,7 @@ public class UpdateSSPTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(sampleSmartSpaceManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManageSSPRequest(any());
         doReturn(sampleSspRegistryResponseFail()).when(rabbitManager)
@@ -104,7 +104,7 @@ public class UpdateSSPTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(sampleSmartSpaceManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManageSSPRequest(any());
         doReturn(null).when(rabbitManager)
@@ -125,7 +125,7 @@ public class UpdateSSPTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(sampleSmartSpaceManagementResponse(ManagementStatus.OK)).when(rabbitManager)
                 .sendManageSSPRequest(any());
         doThrow(new CommunicationException("error")).when(rabbitManager)
@@ -146,7 +146,7 @@ public class UpdateSSPTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(sampleSmartSpaceManagementResponse(ManagementStatus.ERROR)).when(rabbitManager)
                 .sendManageSSPRequest(any());
 
@@ -165,7 +165,7 @@ public class UpdateSSPTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doReturn(null).when(rabbitManager)
                 .sendManageSSPRequest(any());
 
@@ -184,7 +184,7 @@ public class UpdateSSPTests extends UserControlPanelBaseTestClass {
         doReturn(sampleOwnedServiceDetails()).when(rabbitManager)
                 .sendOwnedServiceDetailsRequest(any());
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
         doThrow(new CommunicationException("error")).when(rabbitManager)
                 .sendManageSSPRequest(any());
 
@@ -201,7 +201,7 @@ public class UpdateSSPTests extends UserControlPanelBaseTestClass {
     public void invalidArguments() throws Exception {
         // Invalid Arguments Check
         doReturn(sampleInformationModelListResponseSuccess()).when(rabbitManager)
-                .sendListInfoModelsRequest();
+                .sendListInfoModelSummariesRequest();
 
         SSPDetails sspDetails = new SSPDetails(
                 "a",